@@ -0,0 +1,74 @@
+package io.vertx.httpproxy.impl;
+
+import io.vertx.core.http.HttpMethod;
+import io.vertx.httpproxy.RouteOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lookup cost of the route matcher as the number of routes grows, the routes are spread over
+ * virtual hosts of ten path prefixes each.
+ *
+ * <p> Run with {@code mvn -Pbenchmarks test-compile exec:java -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=RouteMatcherBenchmark}
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteMatcherBenchmark {
+
+  private static final int LOOKUPS = 1024;
+
+  @Param({"10", "100", "1000", "10000"})
+  public int routes;
+
+  private RouteMatcher matcher;
+  private String[] hosts;
+  private String[] paths;
+  private int index;
+
+  @Setup
+  public void setup() {
+    int numHosts = Math.max(1, routes / 10);
+    List<RouteTableImpl.Route> list = new ArrayList<>();
+    for (int i = 0;i < routes;i++) {
+      RouteOptions options = new RouteOptions()
+        .setHost("host-" + (i % numHosts) + ".example.com")
+        .setPathPrefix("/api/service-" + (i / numHosts) + "/v1");
+      list.add(new RouteTableImpl.Route(options, String.valueOf(i), null));
+    }
+    matcher = new RouteMatcher(list);
+    Random random = new Random(0);
+    hosts = new String[LOOKUPS];
+    paths = new String[LOOKUPS];
+    for (int i = 0;i < LOOKUPS;i++) {
+      int route = random.nextInt(routes);
+      hosts[i] = "host-" + (route % numHosts) + ".example.com";
+      paths[i] = "/api/service-" + (route / numHosts) + "/v1/resources/" + random.nextInt(1000);
+    }
+  }
+
+  @Benchmark
+  public Object match() {
+    int i = index++ & (LOOKUPS - 1);
+    return matcher.match(hosts[i], paths[i], HttpMethod.GET);
+  }
+}
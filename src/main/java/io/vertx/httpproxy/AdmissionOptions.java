@@ -0,0 +1,126 @@
+package io.vertx.httpproxy;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Admission options of a {@link HttpProxy}.
+ *
+ * <p> The proxy waits for the response of at most {@link #getMaxConcurrency()} backend requests, the other
+ * requests wait in a bounded queue ordered by {@link RequestPriority priority}. A request that cannot be queued
+ * or that waits too long is answered with {@code 503}.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@DataObject
+public class AdmissionOptions {
+
+  /**
+   * Default max concurrency = 1000
+   */
+  public static final int DEFAULT_MAX_CONCURRENCY = 1000;
+
+  /**
+   * Default max queue size = 1000
+   */
+  public static final int DEFAULT_MAX_QUEUE_SIZE = 1000;
+
+  /**
+   * Default max queue wait = 1000 ms
+   */
+  public static final long DEFAULT_MAX_QUEUE_WAIT = 1000;
+
+  private int maxConcurrency;
+  private int maxQueueSize;
+  private long maxQueueWait;
+
+  public AdmissionOptions() {
+    maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+    maxQueueSize = DEFAULT_MAX_QUEUE_SIZE;
+    maxQueueWait = DEFAULT_MAX_QUEUE_WAIT;
+  }
+
+  public AdmissionOptions(AdmissionOptions other) {
+    maxConcurrency = other.maxConcurrency;
+    maxQueueSize = other.maxQueueSize;
+    maxQueueWait = other.maxQueueWait;
+  }
+
+  public AdmissionOptions(JsonObject json) {
+    maxConcurrency = json.getInteger("maxConcurrency", DEFAULT_MAX_CONCURRENCY);
+    maxQueueSize = json.getInteger("maxQueueSize", DEFAULT_MAX_QUEUE_SIZE);
+    maxQueueWait = json.getLong("maxQueueWait", DEFAULT_MAX_QUEUE_WAIT);
+  }
+
+  /**
+   * @return the maximum number of admitted requests
+   */
+  public int getMaxConcurrency() {
+    return maxConcurrency;
+  }
+
+  /**
+   * Set the maximum number of admitted requests, a request is admitted until the response headers of the backend
+   * are received or the backend request fails.
+   *
+   * @param maxConcurrency the number of requests
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AdmissionOptions setMaxConcurrency(int maxConcurrency) {
+    if (maxConcurrency < 1) {
+      throw new IllegalArgumentException("Max concurrency must be > 0");
+    }
+    this.maxConcurrency = maxConcurrency;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of requests waiting for admission
+   */
+  public int getMaxQueueSize() {
+    return maxQueueSize;
+  }
+
+  /**
+   * Set the maximum number of requests waiting for admission.
+   *
+   * @param maxQueueSize the queue size
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AdmissionOptions setMaxQueueSize(int maxQueueSize) {
+    if (maxQueueSize < 0) {
+      throw new IllegalArgumentException("Max queue size must be >= 0");
+    }
+    this.maxQueueSize = maxQueueSize;
+    return this;
+  }
+
+  /**
+   * @return the maximum time a request waits for admission in ms
+   */
+  public long getMaxQueueWait() {
+    return maxQueueWait;
+  }
+
+  /**
+   * Set the maximum time a request waits for admission, the request is then answered with {@code 503}.
+   *
+   * @param maxQueueWait the time in ms
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AdmissionOptions setMaxQueueWait(long maxQueueWait) {
+    if (maxQueueWait < 1) {
+      throw new IllegalArgumentException("Max queue wait must be > 0");
+    }
+    this.maxQueueWait = maxQueueWait;
+    return this;
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    json.put("maxConcurrency", maxConcurrency);
+    json.put("maxQueueSize", maxQueueSize);
+    json.put("maxQueueWait", maxQueueWait);
+    return json;
+  }
+}
@@ -0,0 +1,107 @@
+package io.vertx.httpproxy;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Session affinity options of a {@link BackendPool}.
+ *
+ * <p> A request carrying the {@link #getCookie() proxy cookie} goes to the backend encoded in the cookie, the cookie
+ * is set on the responses of the requests that do not carry it. Otherwise a request carrying the
+ * {@link #getSessionCookie() session cookie} or the {@link #getSessionHeader() session header} of the application
+ * goes to the backend the session value hashes to.
+ *
+ * <p> When the backend of a request is not available, the request is balanced normally.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@DataObject
+public class AffinityOptions {
+
+  private String cookie;
+  private String sessionCookie;
+  private String sessionHeader;
+
+  public AffinityOptions() {
+  }
+
+  public AffinityOptions(AffinityOptions other) {
+    cookie = other.cookie;
+    sessionCookie = other.sessionCookie;
+    sessionHeader = other.sessionHeader;
+  }
+
+  public AffinityOptions(JsonObject json) {
+    cookie = json.getString("cookie");
+    sessionCookie = json.getString("sessionCookie");
+    sessionHeader = json.getString("sessionHeader");
+  }
+
+  /**
+   * @return the name of the cookie encoding the backend
+   */
+  public String getCookie() {
+    return cookie;
+  }
+
+  /**
+   * Set the name of the cookie the proxy sets to encode the backend of a client.
+   *
+   * @param cookie the cookie name or {@code null} to not set a cookie
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AffinityOptions setCookie(String cookie) {
+    this.cookie = cookie;
+    return this;
+  }
+
+  /**
+   * @return the name of the session cookie of the application
+   */
+  public String getSessionCookie() {
+    return sessionCookie;
+  }
+
+  /**
+   * Set the name of the session cookie of the application, requests of the same session go to the same backend.
+   *
+   * @param sessionCookie the cookie name
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AffinityOptions setSessionCookie(String sessionCookie) {
+    this.sessionCookie = sessionCookie;
+    return this;
+  }
+
+  /**
+   * @return the name of the session header of the application
+   */
+  public String getSessionHeader() {
+    return sessionHeader;
+  }
+
+  /**
+   * Set the name of the session header of the application, requests of the same session go to the same backend.
+   *
+   * @param sessionHeader the header name
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AffinityOptions setSessionHeader(String sessionHeader) {
+    this.sessionHeader = sessionHeader;
+    return this;
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    if (cookie != null) {
+      json.put("cookie", cookie);
+    }
+    if (sessionCookie != null) {
+      json.put("sessionCookie", sessionCookie);
+    }
+    if (sessionHeader != null) {
+      json.put("sessionHeader", sessionHeader);
+    }
+    return json;
+  }
+}
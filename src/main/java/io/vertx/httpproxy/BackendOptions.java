@@ -0,0 +1,170 @@
+package io.vertx.httpproxy;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.SocketAddress;
+
+/**
+ * A backend of a {@link BackendPool}.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@DataObject
+public class BackendOptions {
+
+  /**
+   * Default backend weight = 1
+   */
+  public static final int DEFAULT_WEIGHT = 1;
+
+  /**
+   * Default backend priority = 0
+   */
+  public static final int DEFAULT_PRIORITY = 0;
+
+  private String host;
+  private int port;
+  private int weight;
+  private String zone;
+  private int priority;
+
+  public BackendOptions() {
+    weight = DEFAULT_WEIGHT;
+  }
+
+  public BackendOptions(BackendOptions other) {
+    host = other.host;
+    port = other.port;
+    weight = other.weight;
+    zone = other.zone;
+    priority = other.priority;
+  }
+
+  public BackendOptions(JsonObject json) {
+    this();
+    host = json.getString("host");
+    port = json.getInteger("port", 0);
+    weight = json.getInteger("weight", DEFAULT_WEIGHT);
+    zone = json.getString("zone");
+    priority = json.getInteger("priority", DEFAULT_PRIORITY);
+  }
+
+  /**
+   * @return the backend host
+   */
+  public String getHost() {
+    return host;
+  }
+
+  /**
+   * Set the backend host.
+   *
+   * @param host the host
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BackendOptions setHost(String host) {
+    this.host = host;
+    return this;
+  }
+
+  /**
+   * @return the backend port
+   */
+  public int getPort() {
+    return port;
+  }
+
+  /**
+   * Set the backend port.
+   *
+   * @param port the port
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BackendOptions setPort(int port) {
+    this.port = port;
+    return this;
+  }
+
+  /**
+   * @return the backend weight
+   */
+  public int getWeight() {
+    return weight;
+  }
+
+  /**
+   * Set the backend weight, a backend receives traffic proportionally to its weight.
+   *
+   * @param weight the weight
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BackendOptions setWeight(int weight) {
+    if (weight < 1) {
+      throw new IllegalArgumentException("Weight must be > 0");
+    }
+    this.weight = weight;
+    return this;
+  }
+
+  /**
+   * @return the backend zone
+   */
+  public String getZone() {
+    return zone;
+  }
+
+  /**
+   * Set the zone of the backend, requests are preferably sent to the backends of the
+   * {@link BackendPoolOptions#setLocalZone(String) local zone}.
+   *
+   * @param zone the zone
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BackendOptions setZone(String zone) {
+    this.zone = zone;
+    return this;
+  }
+
+  /**
+   * @return the backend priority
+   */
+  public int getPriority() {
+    return priority;
+  }
+
+  /**
+   * Set the priority of the backend, {@code 0} is the highest priority. Requests are sent to the backends of the
+   * highest priority and fail over to the lower priorities when they are not healthy enough.
+   *
+   * @param priority the priority
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BackendOptions setPriority(int priority) {
+    if (priority < 0) {
+      throw new IllegalArgumentException("Priority must be >= 0");
+    }
+    this.priority = priority;
+    return this;
+  }
+
+  /**
+   * @return the backend address
+   */
+  public SocketAddress address() {
+    return SocketAddress.inetSocketAddress(port, host);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    if (host != null) {
+      json.put("host", host);
+    }
+    json.put("port", port);
+    json.put("weight", weight);
+    if (zone != null) {
+      json.put("zone", zone);
+    }
+    json.put("priority", priority);
+    return json;
+  }
+}
@@ -0,0 +1,35 @@
+package io.vertx.httpproxy;
+
+import io.vertx.codegen.annotations.VertxGen;
+import io.vertx.core.Vertx;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.httpproxy.impl.BackendPoolImpl;
+
+import java.util.List;
+
+/**
+ * A pool of backends balancing the requests of a proxy.
+ *
+ * <p> A pool is set on a proxy with {@link HttpProxy#backendPool(BackendPool)}, the proxy reports to the pool
+ * the requests in flight to each backend. A pool can be shared by several proxies.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@VertxGen
+public interface BackendPool {
+
+  static BackendPool create(Vertx vertx, BackendPoolOptions options) {
+    return new BackendPoolImpl(vertx, options);
+  }
+
+  /**
+   * @return the address of the backends of the pool
+   */
+  List<SocketAddress> backends();
+
+  /**
+   * Close the pool.
+   */
+  void close();
+
+}
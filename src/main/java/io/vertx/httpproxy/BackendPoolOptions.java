@@ -0,0 +1,534 @@
+package io.vertx.httpproxy;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Backend pool options.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@DataObject
+public class BackendPoolOptions {
+
+  /**
+   * Default load balancing = {@link LoadBalancing#ROUND_ROBIN}
+   */
+  public static final LoadBalancing DEFAULT_LOAD_BALANCING = LoadBalancing.ROUND_ROBIN;
+
+  /**
+   * Default hash load factor = 1.25
+   */
+  public static final double DEFAULT_HASH_LOAD_FACTOR = 1.25;
+
+  /**
+   * Default local zone threshold = 0.7
+   */
+  public static final double DEFAULT_LOCAL_ZONE_THRESHOLD = 0.7;
+
+  /**
+   * Default overprovisioning factor = 1.4
+   */
+  public static final double DEFAULT_OVERPROVISIONING_FACTOR = 1.4;
+
+  private List<BackendOptions> backends;
+  private LoadBalancing loadBalancing;
+  private String hashHeader;
+  private String hashCookie;
+  private double hashLoadFactor;
+  private String localZone;
+  private double localZoneThreshold;
+  private double overprovisioningFactor;
+  private HealthCheckOptions healthCheck;
+  private OutlierDetectionOptions outlierDetection;
+  private RetryOptions retry;
+  private HedgeOptions hedge;
+  private ConcurrencyLimitOptions concurrencyLimit;
+  private SlowStartOptions slowStart;
+  private AffinityOptions affinity;
+  private DnsOptions dns;
+  private Http2Options http2;
+
+  public BackendPoolOptions() {
+    backends = new ArrayList<>();
+    loadBalancing = DEFAULT_LOAD_BALANCING;
+    hashLoadFactor = DEFAULT_HASH_LOAD_FACTOR;
+    localZoneThreshold = DEFAULT_LOCAL_ZONE_THRESHOLD;
+    overprovisioningFactor = DEFAULT_OVERPROVISIONING_FACTOR;
+  }
+
+  public BackendPoolOptions(BackendPoolOptions other) {
+    backends = new ArrayList<>();
+    for (BackendOptions backend : other.backends) {
+      backends.add(new BackendOptions(backend));
+    }
+    loadBalancing = other.loadBalancing;
+    hashHeader = other.hashHeader;
+    hashCookie = other.hashCookie;
+    hashLoadFactor = other.hashLoadFactor;
+    localZone = other.localZone;
+    localZoneThreshold = other.localZoneThreshold;
+    overprovisioningFactor = other.overprovisioningFactor;
+    healthCheck = other.healthCheck != null ? new HealthCheckOptions(other.healthCheck) : null;
+    outlierDetection = other.outlierDetection != null ? new OutlierDetectionOptions(other.outlierDetection) : null;
+    retry = other.retry != null ? new RetryOptions(other.retry) : null;
+    hedge = other.hedge != null ? new HedgeOptions(other.hedge) : null;
+    concurrencyLimit = other.concurrencyLimit != null ? new ConcurrencyLimitOptions(other.concurrencyLimit) : null;
+    slowStart = other.slowStart != null ? new SlowStartOptions(other.slowStart) : null;
+    affinity = other.affinity != null ? new AffinityOptions(other.affinity) : null;
+    dns = other.dns != null ? new DnsOptions(other.dns) : null;
+    http2 = other.http2 != null ? new Http2Options(other.http2) : null;
+  }
+
+  public BackendPoolOptions(JsonObject json) {
+    this();
+    JsonArray array = json.getJsonArray("backends");
+    if (array != null) {
+      for (int i = 0;i < array.size();i++) {
+        backends.add(new BackendOptions(array.getJsonObject(i)));
+      }
+    }
+    String lb = json.getString("loadBalancing");
+    if (lb != null) {
+      loadBalancing = LoadBalancing.valueOf(lb);
+    }
+    hashHeader = json.getString("hashHeader");
+    hashCookie = json.getString("hashCookie");
+    hashLoadFactor = json.getDouble("hashLoadFactor", DEFAULT_HASH_LOAD_FACTOR);
+    localZone = json.getString("localZone");
+    localZoneThreshold = json.getDouble("localZoneThreshold", DEFAULT_LOCAL_ZONE_THRESHOLD);
+    overprovisioningFactor = json.getDouble("overprovisioningFactor", DEFAULT_OVERPROVISIONING_FACTOR);
+    JsonObject hc = json.getJsonObject("healthCheck");
+    if (hc != null) {
+      healthCheck = new HealthCheckOptions(hc);
+    }
+    JsonObject od = json.getJsonObject("outlierDetection");
+    if (od != null) {
+      outlierDetection = new OutlierDetectionOptions(od);
+    }
+    JsonObject r = json.getJsonObject("retry");
+    if (r != null) {
+      retry = new RetryOptions(r);
+    }
+    JsonObject h = json.getJsonObject("hedge");
+    if (h != null) {
+      hedge = new HedgeOptions(h);
+    }
+    JsonObject cl = json.getJsonObject("concurrencyLimit");
+    if (cl != null) {
+      concurrencyLimit = new ConcurrencyLimitOptions(cl);
+    }
+    JsonObject ss = json.getJsonObject("slowStart");
+    if (ss != null) {
+      slowStart = new SlowStartOptions(ss);
+    }
+    JsonObject af = json.getJsonObject("affinity");
+    if (af != null) {
+      affinity = new AffinityOptions(af);
+    }
+    JsonObject d = json.getJsonObject("dns");
+    if (d != null) {
+      dns = new DnsOptions(d);
+    }
+    JsonObject h2 = json.getJsonObject("http2");
+    if (h2 != null) {
+      http2 = new Http2Options(h2);
+    }
+  }
+
+  /**
+   * @return the backends
+   */
+  public List<BackendOptions> getBackends() {
+    return backends;
+  }
+
+  /**
+   * Set the backends of the pool.
+   *
+   * @param backends the backends
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BackendPoolOptions setBackends(List<BackendOptions> backends) {
+    this.backends = backends;
+    return this;
+  }
+
+  /**
+   * Add a backend to the pool.
+   *
+   * @param backend the backend
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BackendPoolOptions addBackend(BackendOptions backend) {
+    backends.add(backend);
+    return this;
+  }
+
+  /**
+   * @return the load balancing strategy
+   */
+  public LoadBalancing getLoadBalancing() {
+    return loadBalancing;
+  }
+
+  /**
+   * Set the load balancing strategy.
+   *
+   * @param loadBalancing the strategy
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BackendPoolOptions setLoadBalancing(LoadBalancing loadBalancing) {
+    this.loadBalancing = loadBalancing;
+    return this;
+  }
+
+  /**
+   * @return the name of the header hashed by {@link LoadBalancing#CONSISTENT_HASH}
+   */
+  public String getHashHeader() {
+    return hashHeader;
+  }
+
+  /**
+   * Hash the value of a request header with {@link LoadBalancing#CONSISTENT_HASH} instead of the request URI.
+   *
+   * @param hashHeader the header name
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BackendPoolOptions setHashHeader(String hashHeader) {
+    this.hashHeader = hashHeader;
+    return this;
+  }
+
+  /**
+   * @return the name of the cookie hashed by {@link LoadBalancing#CONSISTENT_HASH}
+   */
+  public String getHashCookie() {
+    return hashCookie;
+  }
+
+  /**
+   * Hash the value of a request cookie with {@link LoadBalancing#CONSISTENT_HASH} instead of the request URI,
+   * the cookie takes precedence over the {@link #setHashHeader(String) header}.
+   *
+   * @param hashCookie the cookie name
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BackendPoolOptions setHashCookie(String hashCookie) {
+    this.hashCookie = hashCookie;
+    return this;
+  }
+
+  /**
+   * @return the maximum load of a backend relative to the average load with {@link LoadBalancing#CONSISTENT_HASH}
+   */
+  public double getHashLoadFactor() {
+    return hashLoadFactor;
+  }
+
+  /**
+   * Set the maximum load of a backend relative to the average load with {@link LoadBalancing#CONSISTENT_HASH}, a request
+   * hashed to a backend at full capacity goes to the next backend of the ring.
+   *
+   * @param hashLoadFactor the load factor
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BackendPoolOptions setHashLoadFactor(double hashLoadFactor) {
+    if (hashLoadFactor < 1) {
+      throw new IllegalArgumentException("Hash load factor must be >= 1");
+    }
+    this.hashLoadFactor = hashLoadFactor;
+    return this;
+  }
+
+  /**
+   * @return the zone of the proxy
+   */
+  public String getLocalZone() {
+    return localZone;
+  }
+
+  /**
+   * Set the zone of the proxy, requests stay in the backends of this zone while enough of them are available.
+   * When {@code null} requests are balanced over all the zones.
+   *
+   * @param localZone the zone
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BackendPoolOptions setLocalZone(String localZone) {
+    this.localZone = localZone;
+    return this;
+  }
+
+  /**
+   * @return the local zone threshold
+   */
+  public double getLocalZoneThreshold() {
+    return localZoneThreshold;
+  }
+
+  /**
+   * Set the share of the local zone weight that must be available to keep all the requests in the local zone. Below,
+   * requests spill to the other zones proportionally, e.g with a threshold of {@code 0.8} and half of the local
+   * weight available, 62.5% of the requests stay in the local zone.
+   *
+   * @param localZoneThreshold the threshold
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BackendPoolOptions setLocalZoneThreshold(double localZoneThreshold) {
+    if (localZoneThreshold <= 0 || localZoneThreshold > 1) {
+      throw new IllegalArgumentException("Local zone threshold must be > 0 and <= 1");
+    }
+    this.localZoneThreshold = localZoneThreshold;
+    return this;
+  }
+
+  /**
+   * @return the overprovisioning factor
+   */
+  public double getOverprovisioningFactor() {
+    return overprovisioningFactor;
+  }
+
+  /**
+   * Set the overprovisioning factor of the backend priorities. A priority receives a share of the requests equal
+   * to its available weight ratio multiplied by this factor, the remaining requests fail over to the next priority.
+   * With the default factor a priority keeps all the requests while at least 72% of its weight is available.
+   *
+   * @param overprovisioningFactor the factor
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BackendPoolOptions setOverprovisioningFactor(double overprovisioningFactor) {
+    if (overprovisioningFactor < 1) {
+      throw new IllegalArgumentException("Overprovisioning factor must be >= 1");
+    }
+    this.overprovisioningFactor = overprovisioningFactor;
+    return this;
+  }
+
+  /**
+   * @return the active health check options
+   */
+  public HealthCheckOptions getHealthCheck() {
+    return healthCheck;
+  }
+
+  /**
+   * Probe periodically the backends, unhealthy backends are not selected until they recover. When {@code null}
+   * backends are not probed.
+   *
+   * @param healthCheck the health check options
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BackendPoolOptions setHealthCheck(HealthCheckOptions healthCheck) {
+    this.healthCheck = healthCheck;
+    return this;
+  }
+
+  /**
+   * @return the outlier detection options
+   */
+  public OutlierDetectionOptions getOutlierDetection() {
+    return outlierDetection;
+  }
+
+  /**
+   * Eject temporarily from the pool the backends failing or slow at serving requests. When {@code null}
+   * backends are never ejected.
+   *
+   * @param outlierDetection the outlier detection options
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BackendPoolOptions setOutlierDetection(OutlierDetectionOptions outlierDetection) {
+    this.outlierDetection = outlierDetection;
+    return this;
+  }
+
+  /**
+   * @return the retry options
+   */
+  public RetryOptions getRetry() {
+    return retry;
+  }
+
+  /**
+   * Retry idempotent requests on another backend of the pool. When {@code null} requests are not retried.
+   *
+   * @param retry the retry options
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BackendPoolOptions setRetry(RetryOptions retry) {
+    this.retry = retry;
+    return this;
+  }
+
+  /**
+   * @return the hedging options
+   */
+  public HedgeOptions getHedge() {
+    return hedge;
+  }
+
+  /**
+   * Hedge slow {@code GET} and {@code HEAD} requests on another backend of the pool. Hedging takes precedence over
+   * {@link #setRetry(RetryOptions) retries} for these requests: the response status of a hedged request is not
+   * retried, a hedged request is retried on the backends not tried yet only when all its copies fail and
+   * {@link RetryOptions#isRetryOnConnectionFailure()} is set. When {@code null} requests are not hedged.
+   *
+   * @param hedge the hedging options
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BackendPoolOptions setHedge(HedgeOptions hedge) {
+    this.hedge = hedge;
+    return this;
+  }
+
+  /**
+   * @return the concurrency limit options
+   */
+  public ConcurrencyLimitOptions getConcurrencyLimit() {
+    return concurrencyLimit;
+  }
+
+  /**
+   * Limit the requests in flight of each backend of the pool with a limit adapted from the backend latency.
+   * When {@code null} the requests in flight are not limited.
+   *
+   * @param concurrencyLimit the concurrency limit options
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BackendPoolOptions setConcurrencyLimit(ConcurrencyLimitOptions concurrencyLimit) {
+    this.concurrencyLimit = concurrencyLimit;
+    return this;
+  }
+
+  /**
+   * @return the slow start options
+   */
+  public SlowStartOptions getSlowStart() {
+    return slowStart;
+  }
+
+  /**
+   * Ramp up the weight of the backends becoming available. When {@code null} backends receive their full share
+   * of requests immediately.
+   *
+   * @param slowStart the slow start options
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BackendPoolOptions setSlowStart(SlowStartOptions slowStart) {
+    this.slowStart = slowStart;
+    return this;
+  }
+
+  /**
+   * @return the session affinity options
+   */
+  public AffinityOptions getAffinity() {
+    return affinity;
+  }
+
+  /**
+   * Send the requests of a session to the same backend. When {@code null} requests have no affinity.
+   *
+   * @param affinity the session affinity options
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BackendPoolOptions setAffinity(AffinityOptions affinity) {
+    this.affinity = affinity;
+    return this;
+  }
+
+  /**
+   * @return the DNS resolution options
+   */
+  public DnsOptions getDns() {
+    return dns;
+  }
+
+  /**
+   * Resolve the host names of the backends in the pool, each address of a host becomes a backend. When {@code null}
+   * the host names are resolved by the client when it connects to a backend.
+   *
+   * @param dns the DNS resolution options
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BackendPoolOptions setDns(DnsOptions dns) {
+    this.dns = dns;
+    return this;
+  }
+
+  /**
+   * @return the HTTP/2 options
+   */
+  public Http2Options getHttp2() {
+    return http2;
+  }
+
+  /**
+   * Speak HTTP/2 to the backends of the pool with a client of the pool. When {@code null} the requests are sent
+   * with the client of the proxy.
+   *
+   * @param http2 the HTTP/2 options
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BackendPoolOptions setHttp2(Http2Options http2) {
+    this.http2 = http2;
+    return this;
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    JsonArray array = new JsonArray();
+    for (BackendOptions backend : backends) {
+      array.add(backend.toJson());
+    }
+    json.put("backends", array);
+    json.put("loadBalancing", loadBalancing.name());
+    if (hashHeader != null) {
+      json.put("hashHeader", hashHeader);
+    }
+    if (hashCookie != null) {
+      json.put("hashCookie", hashCookie);
+    }
+    json.put("hashLoadFactor", hashLoadFactor);
+    if (localZone != null) {
+      json.put("localZone", localZone);
+    }
+    json.put("localZoneThreshold", localZoneThreshold);
+    json.put("overprovisioningFactor", overprovisioningFactor);
+    if (healthCheck != null) {
+      json.put("healthCheck", healthCheck.toJson());
+    }
+    if (outlierDetection != null) {
+      json.put("outlierDetection", outlierDetection.toJson());
+    }
+    if (retry != null) {
+      json.put("retry", retry.toJson());
+    }
+    if (hedge != null) {
+      json.put("hedge", hedge.toJson());
+    }
+    if (concurrencyLimit != null) {
+      json.put("concurrencyLimit", concurrencyLimit.toJson());
+    }
+    if (slowStart != null) {
+      json.put("slowStart", slowStart.toJson());
+    }
+    if (affinity != null) {
+      json.put("affinity", affinity.toJson());
+    }
+    if (dns != null) {
+      json.put("dns", dns.toJson());
+    }
+    if (http2 != null) {
+      json.put("http2", http2.toJson());
+    }
+    return json;
+  }
+}
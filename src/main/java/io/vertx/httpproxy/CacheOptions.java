@@ -0,0 +1,294 @@
+package io.vertx.httpproxy;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cache options.
+ *
+ * <p> The cache memory is partitioned by tenant. Each tenant is guaranteed its own quota and can grow
+ * beyond it using a shared overflow pool. When a tenant needs room, its own entries are evicted first.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@DataObject
+public class CacheOptions {
+
+  /**
+   * Default quota in bytes of a tenant without a specific quota = 0, such tenant only uses the shared pool
+   */
+  public static final long DEFAULT_TENANT_QUOTA = 0L;
+
+  /**
+   * Default size in bytes of the pool shared by tenants = 32MB
+   */
+  public static final long DEFAULT_SHARED_POOL_SIZE = 32 * 1024 * 1024L;
+
+  /**
+   * Default response header listing the tags of a resource = cache-tag
+   */
+  public static final String DEFAULT_TAG_HEADER = "cache-tag";
+
+  /**
+   * Default delay in milliseconds to batch invalidations before broadcasting them = 50
+   */
+  public static final long DEFAULT_INVALIDATION_BATCH_DELAY = 50L;
+
+  /**
+   * Default maximum number of invalidations in a broadcast message = 1000
+   */
+  public static final int DEFAULT_INVALIDATION_MAX_BATCH_SIZE = 1000;
+
+  /**
+   * Default generation of entity tags = false
+   */
+  public static final boolean DEFAULT_GENERATE_ETAGS = false;
+
+  private long defaultTenantQuota;
+  private long sharedPoolSize;
+  private Map<String, Long> tenantQuotas;
+  private String tagHeader;
+  private String invalidationAddress;
+  private long invalidationBatchDelay;
+  private int invalidationMaxBatchSize;
+  private boolean generateEtags;
+
+  public CacheOptions() {
+    defaultTenantQuota = DEFAULT_TENANT_QUOTA;
+    sharedPoolSize = DEFAULT_SHARED_POOL_SIZE;
+    tenantQuotas = new HashMap<>();
+    tagHeader = DEFAULT_TAG_HEADER;
+    invalidationBatchDelay = DEFAULT_INVALIDATION_BATCH_DELAY;
+    invalidationMaxBatchSize = DEFAULT_INVALIDATION_MAX_BATCH_SIZE;
+  }
+
+  public CacheOptions(CacheOptions other) {
+    defaultTenantQuota = other.defaultTenantQuota;
+    sharedPoolSize = other.sharedPoolSize;
+    tenantQuotas = new HashMap<>(other.tenantQuotas);
+    tagHeader = other.tagHeader;
+    invalidationAddress = other.invalidationAddress;
+    invalidationBatchDelay = other.invalidationBatchDelay;
+    invalidationMaxBatchSize = other.invalidationMaxBatchSize;
+    generateEtags = other.generateEtags;
+  }
+
+  public CacheOptions(JsonObject json) {
+    this();
+    defaultTenantQuota = json.getLong("defaultTenantQuota", DEFAULT_TENANT_QUOTA);
+    sharedPoolSize = json.getLong("sharedPoolSize", DEFAULT_SHARED_POOL_SIZE);
+    JsonObject quotas = json.getJsonObject("tenantQuotas");
+    if (quotas != null) {
+      quotas.forEach(entry -> tenantQuotas.put(entry.getKey(), ((Number) entry.getValue()).longValue()));
+    }
+    tagHeader = json.getString("tagHeader", DEFAULT_TAG_HEADER);
+    invalidationAddress = json.getString("invalidationAddress");
+    invalidationBatchDelay = json.getLong("invalidationBatchDelay", DEFAULT_INVALIDATION_BATCH_DELAY);
+    invalidationMaxBatchSize = json.getInteger("invalidationMaxBatchSize", DEFAULT_INVALIDATION_MAX_BATCH_SIZE);
+    generateEtags = json.getBoolean("generateEtags", DEFAULT_GENERATE_ETAGS);
+  }
+
+  /**
+   * @return the quota in bytes of a tenant that has no specific quota
+   */
+  public long getDefaultTenantQuota() {
+    return defaultTenantQuota;
+  }
+
+  /**
+   * Set the quota in bytes of a tenant that has no specific quota.
+   *
+   * @param defaultTenantQuota the quota
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheOptions setDefaultTenantQuota(long defaultTenantQuota) {
+    if (defaultTenantQuota < 0) {
+      throw new IllegalArgumentException("Tenant quota must be >= 0");
+    }
+    this.defaultTenantQuota = defaultTenantQuota;
+    return this;
+  }
+
+  /**
+   * @return the size in bytes of the pool shared by tenants exceeding their quota
+   */
+  public long getSharedPoolSize() {
+    return sharedPoolSize;
+  }
+
+  /**
+   * Set the size in bytes of the pool shared by tenants exceeding their quota.
+   *
+   * @param sharedPoolSize the pool size
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheOptions setSharedPoolSize(long sharedPoolSize) {
+    if (sharedPoolSize < 0) {
+      throw new IllegalArgumentException("Shared pool size must be >= 0");
+    }
+    this.sharedPoolSize = sharedPoolSize;
+    return this;
+  }
+
+  /**
+   * @return the specific tenant quotas
+   */
+  public Map<String, Long> getTenantQuotas() {
+    return tenantQuotas;
+  }
+
+  /**
+   * Set the specific tenant quotas in bytes.
+   *
+   * @param tenantQuotas the quotas
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheOptions setTenantQuotas(Map<String, Long> tenantQuotas) {
+    this.tenantQuotas = tenantQuotas;
+    return this;
+  }
+
+  /**
+   * Set the quota in bytes of a specific tenant.
+   *
+   * @param tenant the tenant
+   * @param quota the quota
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheOptions addTenantQuota(String tenant, long quota) {
+    if (quota < 0) {
+      throw new IllegalArgumentException("Tenant quota must be >= 0");
+    }
+    tenantQuotas.put(tenant, quota);
+    return this;
+  }
+
+  /**
+   * @return the quota of the {@code tenant}
+   */
+  public long tenantQuota(String tenant) {
+    Long quota = tenantQuotas.get(tenant);
+    return quota != null ? quota : defaultTenantQuota;
+  }
+
+  /**
+   * @return the response header listing the tags of a resource
+   */
+  public String getTagHeader() {
+    return tagHeader;
+  }
+
+  /**
+   * Set the response header listing the tags of a resource, tags are separated by commas or spaces. A tag
+   * invalidates all the resources carrying it.
+   *
+   * @param tagHeader the header name
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheOptions setTagHeader(String tagHeader) {
+    this.tagHeader = tagHeader;
+    return this;
+  }
+
+  /**
+   * @return the event bus address of invalidations or {@code null} when invalidations are not broadcast
+   */
+  public String getInvalidationAddress() {
+    return invalidationAddress;
+  }
+
+  /**
+   * Set the event bus address on which invalidations are published and received, so all the proxies
+   * of a cluster apply them.
+   *
+   * @param invalidationAddress the event bus address
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheOptions setInvalidationAddress(String invalidationAddress) {
+    this.invalidationAddress = invalidationAddress;
+    return this;
+  }
+
+  /**
+   * @return the delay in milliseconds to batch invalidations
+   */
+  public long getInvalidationBatchDelay() {
+    return invalidationBatchDelay;
+  }
+
+  /**
+   * Set the delay in milliseconds during which invalidations are batched in a single message.
+   *
+   * @param invalidationBatchDelay the delay
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheOptions setInvalidationBatchDelay(long invalidationBatchDelay) {
+    if (invalidationBatchDelay < 1) {
+      throw new IllegalArgumentException("Invalidation batch delay must be > 0");
+    }
+    this.invalidationBatchDelay = invalidationBatchDelay;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of invalidations in a message
+   */
+  public int getInvalidationMaxBatchSize() {
+    return invalidationMaxBatchSize;
+  }
+
+  /**
+   * Set the maximum number of invalidations in a message, a full batch is published without waiting
+   * for the batch delay.
+   *
+   * @param invalidationMaxBatchSize the maximum batch size
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheOptions setInvalidationMaxBatchSize(int invalidationMaxBatchSize) {
+    if (invalidationMaxBatchSize < 1) {
+      throw new IllegalArgumentException("Invalidation max batch size must be > 0");
+    }
+    this.invalidationMaxBatchSize = invalidationMaxBatchSize;
+    return this;
+  }
+
+  /**
+   * @return whether entity tags are generated for cached resources without validators
+   */
+  public boolean isGenerateEtags() {
+    return generateEtags;
+  }
+
+  /**
+   * Set whether a strong entity tag is generated for a cached resource without {@code etag} nor
+   * {@code last-modified} header. The tag is a hash of the content computed while the content is cached,
+   * it allows clients to revalidate their copy.
+   *
+   * @param generateEtags whether to generate entity tags
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheOptions setGenerateEtags(boolean generateEtags) {
+    this.generateEtags = generateEtags;
+    return this;
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    json.put("defaultTenantQuota", defaultTenantQuota);
+    json.put("sharedPoolSize", sharedPoolSize);
+    JsonObject quotas = new JsonObject();
+    tenantQuotas.forEach(quotas::put);
+    json.put("tenantQuotas", quotas);
+    json.put("tagHeader", tagHeader);
+    if (invalidationAddress != null) {
+      json.put("invalidationAddress", invalidationAddress);
+    }
+    json.put("invalidationBatchDelay", invalidationBatchDelay);
+    json.put("invalidationMaxBatchSize", invalidationMaxBatchSize);
+    json.put("generateEtags", generateEtags);
+    return json;
+  }
+}
@@ -0,0 +1,44 @@
+package io.vertx.httpproxy;
+
+import io.vertx.codegen.annotations.Fluent;
+import io.vertx.codegen.annotations.VertxGen;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.httpproxy.impl.CacheWarmerImpl;
+
+/**
+ * Prefetch a list of URLs into the cache of a proxy.
+ *
+ * <p> Warming requests are regular requests sent to the proxy server, so the resources are cached
+ * according to the origin {@code cache-control} directives and fresh resources are not fetched again.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@VertxGen
+public interface CacheWarmer {
+
+  static CacheWarmer create(Vertx vertx, CacheWarmerOptions options) {
+    return new CacheWarmerImpl(vertx, options);
+  }
+
+  /**
+   * Warm the cache now.
+   *
+   * @return a future completed when all URLs have been requested
+   */
+  Future<Void> warm();
+
+  /**
+   * Warm the cache now and then periodically when a period is configured.
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  CacheWarmer start();
+
+  /**
+   * Stop warming the cache.
+   */
+  void close();
+
+}
@@ -0,0 +1,219 @@
+package io.vertx.httpproxy;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cache warmer options.
+ *
+ * <p> The warmed URLs are the absolute URLs clients use to reach the proxy, they are requested through
+ * the proxy listening at {@link #getProxyHost()}:{@link #getProxyPort()}. Only {@code http} URLs are warmed,
+ * the other URLs are skipped.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@DataObject
+public class CacheWarmerOptions {
+
+  /**
+   * Default proxy host = localhost
+   */
+  public static final String DEFAULT_PROXY_HOST = "localhost";
+
+  /**
+   * Default proxy port = 8080
+   */
+  public static final int DEFAULT_PROXY_PORT = 8080;
+
+  /**
+   * Default maximum number of concurrent warming requests = 4
+   */
+  public static final int DEFAULT_MAX_CONCURRENCY = 4;
+
+  /**
+   * Default period in milliseconds between warming passes = 0, only warm at startup
+   */
+  public static final long DEFAULT_PERIOD = 0L;
+
+  private String proxyHost;
+  private int proxyPort;
+  private List<String> urls;
+  private String manifest;
+  private int maxConcurrency;
+  private long period;
+
+  public CacheWarmerOptions() {
+    proxyHost = DEFAULT_PROXY_HOST;
+    proxyPort = DEFAULT_PROXY_PORT;
+    urls = new ArrayList<>();
+    maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+    period = DEFAULT_PERIOD;
+  }
+
+  public CacheWarmerOptions(CacheWarmerOptions other) {
+    proxyHost = other.proxyHost;
+    proxyPort = other.proxyPort;
+    urls = new ArrayList<>(other.urls);
+    manifest = other.manifest;
+    maxConcurrency = other.maxConcurrency;
+    period = other.period;
+  }
+
+  public CacheWarmerOptions(JsonObject json) {
+    this();
+    proxyHost = json.getString("proxyHost", DEFAULT_PROXY_HOST);
+    proxyPort = json.getInteger("proxyPort", DEFAULT_PROXY_PORT);
+    JsonArray array = json.getJsonArray("urls");
+    if (array != null) {
+      array.forEach(url -> urls.add((String) url));
+    }
+    manifest = json.getString("manifest");
+    maxConcurrency = json.getInteger("maxConcurrency", DEFAULT_MAX_CONCURRENCY);
+    period = json.getLong("period", DEFAULT_PERIOD);
+  }
+
+  /**
+   * @return the host of the proxy server
+   */
+  public String getProxyHost() {
+    return proxyHost;
+  }
+
+  /**
+   * Set the host of the proxy server the warming requests are sent to.
+   *
+   * @param proxyHost the host
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheWarmerOptions setProxyHost(String proxyHost) {
+    this.proxyHost = proxyHost;
+    return this;
+  }
+
+  /**
+   * @return the port of the proxy server
+   */
+  public int getProxyPort() {
+    return proxyPort;
+  }
+
+  /**
+   * Set the port of the proxy server the warming requests are sent to.
+   *
+   * @param proxyPort the port
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheWarmerOptions setProxyPort(int proxyPort) {
+    this.proxyPort = proxyPort;
+    return this;
+  }
+
+  /**
+   * @return the URLs to warm
+   */
+  public List<String> getUrls() {
+    return urls;
+  }
+
+  /**
+   * Set the absolute URLs to warm.
+   *
+   * @param urls the URLs
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheWarmerOptions setUrls(List<String> urls) {
+    this.urls = urls;
+    return this;
+  }
+
+  /**
+   * Add an absolute URL to warm.
+   *
+   * @param url the URL
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheWarmerOptions addUrl(String url) {
+    urls.add(url);
+    return this;
+  }
+
+  /**
+   * @return the path of the manifest file
+   */
+  public String getManifest() {
+    return manifest;
+  }
+
+  /**
+   * Set the path of a manifest file listing URLs to warm, the file is read before each warming pass.
+   *
+   * <p> The file is either a sitemap, i.e. an XML document with {@code <loc>} elements, or a plain text
+   * file with one URL per line, lines starting with {@code #} are ignored.
+   *
+   * @param manifest the file path
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheWarmerOptions setManifest(String manifest) {
+    this.manifest = manifest;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of concurrent warming requests
+   */
+  public int getMaxConcurrency() {
+    return maxConcurrency;
+  }
+
+  /**
+   * Set the maximum number of concurrent warming requests, it limits the load put on the origin servers.
+   *
+   * @param maxConcurrency the maximum concurrency
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheWarmerOptions setMaxConcurrency(int maxConcurrency) {
+    if (maxConcurrency < 1) {
+      throw new IllegalArgumentException("Max concurrency must be > 0");
+    }
+    this.maxConcurrency = maxConcurrency;
+    return this;
+  }
+
+  /**
+   * @return the period in milliseconds between warming passes
+   */
+  public long getPeriod() {
+    return period;
+  }
+
+  /**
+   * Set the period in milliseconds between warming passes, {@code 0} warms only at startup.
+   *
+   * @param period the period
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheWarmerOptions setPeriod(long period) {
+    if (period < 0) {
+      throw new IllegalArgumentException("Period must be >= 0");
+    }
+    this.period = period;
+    return this;
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    json.put("proxyHost", proxyHost);
+    json.put("proxyPort", proxyPort);
+    json.put("urls", new JsonArray(new ArrayList<>(urls)));
+    if (manifest != null) {
+      json.put("manifest", manifest);
+    }
+    json.put("maxConcurrency", maxConcurrency);
+    json.put("period", period);
+    return json;
+  }
+}
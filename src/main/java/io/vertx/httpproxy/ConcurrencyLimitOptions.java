@@ -0,0 +1,220 @@
+package io.vertx.httpproxy;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Adaptive concurrency limit options of a {@link BackendPool}.
+ *
+ * <p> Each backend has a limit of requests in flight adjusted from the measured latency: the limit grows while the
+ * latency stays close to its long term average and shrinks when the latency increases, i.e when requests queue
+ * up in the backend. Requests exceeding the limit of a backend wait in a bounded queue, a request that cannot be
+ * queued or that waits too long is answered with {@code 503}.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@DataObject
+public class ConcurrencyLimitOptions {
+
+  /**
+   * Default initial limit = 20
+   */
+  public static final int DEFAULT_INITIAL_LIMIT = 20;
+
+  /**
+   * Default min limit = 1
+   */
+  public static final int DEFAULT_MIN_LIMIT = 1;
+
+  /**
+   * Default max limit = 1000
+   */
+  public static final int DEFAULT_MAX_LIMIT = 1000;
+
+  /**
+   * Default latency tolerance = 1.5
+   */
+  public static final double DEFAULT_TOLERANCE = 1.5;
+
+  /**
+   * Default max queue size = 100
+   */
+  public static final int DEFAULT_MAX_QUEUE_SIZE = 100;
+
+  /**
+   * Default max queue wait = 100 ms
+   */
+  public static final long DEFAULT_MAX_QUEUE_WAIT = 100;
+
+  private int initialLimit;
+  private int minLimit;
+  private int maxLimit;
+  private double tolerance;
+  private int maxQueueSize;
+  private long maxQueueWait;
+
+  public ConcurrencyLimitOptions() {
+    initialLimit = DEFAULT_INITIAL_LIMIT;
+    minLimit = DEFAULT_MIN_LIMIT;
+    maxLimit = DEFAULT_MAX_LIMIT;
+    tolerance = DEFAULT_TOLERANCE;
+    maxQueueSize = DEFAULT_MAX_QUEUE_SIZE;
+    maxQueueWait = DEFAULT_MAX_QUEUE_WAIT;
+  }
+
+  public ConcurrencyLimitOptions(ConcurrencyLimitOptions other) {
+    initialLimit = other.initialLimit;
+    minLimit = other.minLimit;
+    maxLimit = other.maxLimit;
+    tolerance = other.tolerance;
+    maxQueueSize = other.maxQueueSize;
+    maxQueueWait = other.maxQueueWait;
+  }
+
+  public ConcurrencyLimitOptions(JsonObject json) {
+    initialLimit = json.getInteger("initialLimit", DEFAULT_INITIAL_LIMIT);
+    minLimit = json.getInteger("minLimit", DEFAULT_MIN_LIMIT);
+    maxLimit = json.getInteger("maxLimit", DEFAULT_MAX_LIMIT);
+    tolerance = json.getDouble("tolerance", DEFAULT_TOLERANCE);
+    maxQueueSize = json.getInteger("maxQueueSize", DEFAULT_MAX_QUEUE_SIZE);
+    maxQueueWait = json.getLong("maxQueueWait", DEFAULT_MAX_QUEUE_WAIT);
+  }
+
+  /**
+   * @return the initial limit of a backend
+   */
+  public int getInitialLimit() {
+    return initialLimit;
+  }
+
+  /**
+   * Set the initial limit of requests in flight of a backend.
+   *
+   * @param initialLimit the limit
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ConcurrencyLimitOptions setInitialLimit(int initialLimit) {
+    if (initialLimit < 1) {
+      throw new IllegalArgumentException("Initial limit must be > 0");
+    }
+    this.initialLimit = initialLimit;
+    return this;
+  }
+
+  /**
+   * @return the minimum limit of a backend
+   */
+  public int getMinLimit() {
+    return minLimit;
+  }
+
+  /**
+   * Set the minimum limit of requests in flight of a backend.
+   *
+   * @param minLimit the limit
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ConcurrencyLimitOptions setMinLimit(int minLimit) {
+    if (minLimit < 1) {
+      throw new IllegalArgumentException("Min limit must be > 0");
+    }
+    this.minLimit = minLimit;
+    return this;
+  }
+
+  /**
+   * @return the maximum limit of a backend
+   */
+  public int getMaxLimit() {
+    return maxLimit;
+  }
+
+  /**
+   * Set the maximum limit of requests in flight of a backend.
+   *
+   * @param maxLimit the limit
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ConcurrencyLimitOptions setMaxLimit(int maxLimit) {
+    if (maxLimit < 1) {
+      throw new IllegalArgumentException("Max limit must be > 0");
+    }
+    this.maxLimit = maxLimit;
+    return this;
+  }
+
+  /**
+   * @return the latency tolerance
+   */
+  public double getTolerance() {
+    return tolerance;
+  }
+
+  /**
+   * Set the ratio between the latency and its long term average tolerated before the limit shrinks.
+   *
+   * @param tolerance the tolerance
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ConcurrencyLimitOptions setTolerance(double tolerance) {
+    if (tolerance < 1) {
+      throw new IllegalArgumentException("Tolerance must be >= 1");
+    }
+    this.tolerance = tolerance;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of requests waiting for a backend
+   */
+  public int getMaxQueueSize() {
+    return maxQueueSize;
+  }
+
+  /**
+   * Set the maximum number of requests waiting for a backend, set to {@code 0} to answer immediately with
+   * {@code 503} the requests exceeding the limit.
+   *
+   * @param maxQueueSize the queue size
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ConcurrencyLimitOptions setMaxQueueSize(int maxQueueSize) {
+    if (maxQueueSize < 0) {
+      throw new IllegalArgumentException("Max queue size must be >= 0");
+    }
+    this.maxQueueSize = maxQueueSize;
+    return this;
+  }
+
+  /**
+   * @return the maximum time a request waits for a backend in ms
+   */
+  public long getMaxQueueWait() {
+    return maxQueueWait;
+  }
+
+  /**
+   * Set the maximum time a request waits for a backend, the request is then answered with {@code 503}.
+   *
+   * @param maxQueueWait the time in ms
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ConcurrencyLimitOptions setMaxQueueWait(long maxQueueWait) {
+    if (maxQueueWait < 1) {
+      throw new IllegalArgumentException("Max queue wait must be > 0");
+    }
+    this.maxQueueWait = maxQueueWait;
+    return this;
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    json.put("initialLimit", initialLimit);
+    json.put("minLimit", minLimit);
+    json.put("maxLimit", maxLimit);
+    json.put("tolerance", tolerance);
+    json.put("maxQueueSize", maxQueueSize);
+    json.put("maxQueueWait", maxQueueWait);
+    return json;
+  }
+}
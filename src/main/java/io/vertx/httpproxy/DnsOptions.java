@@ -0,0 +1,127 @@
+package io.vertx.httpproxy;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * DNS resolution options of a {@link BackendPool}.
+ *
+ * <p> The pool resolves the host names of its backends in the background, each address of a host becomes
+ * a backend of the pool with the weight, zone and priority of the {@link BackendOptions}. The resolutions are
+ * cached for the time to live of the DNS records bounded by {@link #getMinTtl()} and {@link #getMaxTtl()}, the
+ * pool refreshes them every {@link #getRefreshInterval()} so the addresses follow the changes of the records.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@DataObject
+public class DnsOptions {
+
+  /**
+   * Default refresh interval = 5000 ms
+   */
+  public static final long DEFAULT_REFRESH_INTERVAL = 5000;
+
+  /**
+   * Default min TTL = 1 s
+   */
+  public static final int DEFAULT_MIN_TTL = 1;
+
+  /**
+   * Default max TTL = 300 s
+   */
+  public static final int DEFAULT_MAX_TTL = 300;
+
+  private long refreshInterval;
+  private int minTtl;
+  private int maxTtl;
+
+  public DnsOptions() {
+    refreshInterval = DEFAULT_REFRESH_INTERVAL;
+    minTtl = DEFAULT_MIN_TTL;
+    maxTtl = DEFAULT_MAX_TTL;
+  }
+
+  public DnsOptions(DnsOptions other) {
+    refreshInterval = other.refreshInterval;
+    minTtl = other.minTtl;
+    maxTtl = other.maxTtl;
+  }
+
+  public DnsOptions(JsonObject json) {
+    refreshInterval = json.getLong("refreshInterval", DEFAULT_REFRESH_INTERVAL);
+    minTtl = json.getInteger("minTtl", DEFAULT_MIN_TTL);
+    maxTtl = json.getInteger("maxTtl", DEFAULT_MAX_TTL);
+  }
+
+  /**
+   * @return the refresh interval in ms
+   */
+  public long getRefreshInterval() {
+    return refreshInterval;
+  }
+
+  /**
+   * Set the interval between two resolutions of the backend hosts, a resolution hits the DNS servers only
+   * when the cached records expired.
+   *
+   * @param refreshInterval the interval in ms
+   * @return a reference to this, so the API can be used fluently
+   */
+  public DnsOptions setRefreshInterval(long refreshInterval) {
+    if (refreshInterval < 1) {
+      throw new IllegalArgumentException("Refresh interval must be > 0");
+    }
+    this.refreshInterval = refreshInterval;
+    return this;
+  }
+
+  /**
+   * @return the min TTL in seconds
+   */
+  public int getMinTtl() {
+    return minTtl;
+  }
+
+  /**
+   * Set the minimum time a resolution is cached, records with a shorter TTL are cached for this time.
+   *
+   * @param minTtl the TTL in seconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public DnsOptions setMinTtl(int minTtl) {
+    if (minTtl < 0) {
+      throw new IllegalArgumentException("Min TTL must be >= 0");
+    }
+    this.minTtl = minTtl;
+    return this;
+  }
+
+  /**
+   * @return the max TTL in seconds
+   */
+  public int getMaxTtl() {
+    return maxTtl;
+  }
+
+  /**
+   * Set the maximum time a resolution is cached, records with a longer TTL are cached for this time.
+   *
+   * @param maxTtl the TTL in seconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public DnsOptions setMaxTtl(int maxTtl) {
+    if (maxTtl < 0) {
+      throw new IllegalArgumentException("Max TTL must be >= 0");
+    }
+    this.maxTtl = maxTtl;
+    return this;
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    json.put("refreshInterval", refreshInterval);
+    json.put("minTtl", minTtl);
+    json.put("maxTtl", maxTtl);
+    return json;
+  }
+}
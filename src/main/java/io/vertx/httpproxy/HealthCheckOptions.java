@@ -0,0 +1,234 @@
+package io.vertx.httpproxy;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Active health check options of a {@link BackendPool}.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@DataObject
+public class HealthCheckOptions {
+
+  /**
+   * Default probe path = "/health"
+   */
+  public static final String DEFAULT_PATH = "/health";
+
+  /**
+   * Default probe interval = 5000 ms
+   */
+  public static final long DEFAULT_INTERVAL = 5000;
+
+  /**
+   * Default probe timeout = 2000 ms
+   */
+  public static final long DEFAULT_TIMEOUT = 2000;
+
+  /**
+   * Default healthy threshold = 2
+   */
+  public static final int DEFAULT_HEALTHY_THRESHOLD = 2;
+
+  /**
+   * Default unhealthy threshold = 3
+   */
+  public static final int DEFAULT_UNHEALTHY_THRESHOLD = 3;
+
+  private String path;
+  private long interval;
+  private long timeout;
+  private int healthyThreshold;
+  private int unhealthyThreshold;
+  private List<Integer> expectedStatuses;
+
+  public HealthCheckOptions() {
+    path = DEFAULT_PATH;
+    interval = DEFAULT_INTERVAL;
+    timeout = DEFAULT_TIMEOUT;
+    healthyThreshold = DEFAULT_HEALTHY_THRESHOLD;
+    unhealthyThreshold = DEFAULT_UNHEALTHY_THRESHOLD;
+    expectedStatuses = new ArrayList<>();
+  }
+
+  public HealthCheckOptions(HealthCheckOptions other) {
+    path = other.path;
+    interval = other.interval;
+    timeout = other.timeout;
+    healthyThreshold = other.healthyThreshold;
+    unhealthyThreshold = other.unhealthyThreshold;
+    expectedStatuses = new ArrayList<>(other.expectedStatuses);
+  }
+
+  public HealthCheckOptions(JsonObject json) {
+    this();
+    path = json.getString("path", DEFAULT_PATH);
+    interval = json.getLong("interval", DEFAULT_INTERVAL);
+    timeout = json.getLong("timeout", DEFAULT_TIMEOUT);
+    healthyThreshold = json.getInteger("healthyThreshold", DEFAULT_HEALTHY_THRESHOLD);
+    unhealthyThreshold = json.getInteger("unhealthyThreshold", DEFAULT_UNHEALTHY_THRESHOLD);
+    JsonArray statuses = json.getJsonArray("expectedStatuses");
+    if (statuses != null) {
+      for (int i = 0;i < statuses.size();i++) {
+        expectedStatuses.add(statuses.getInteger(i));
+      }
+    }
+  }
+
+  /**
+   * @return the path of the probe request
+   */
+  public String getPath() {
+    return path;
+  }
+
+  /**
+   * Set the path of the probe request.
+   *
+   * @param path the path
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HealthCheckOptions setPath(String path) {
+    this.path = path;
+    return this;
+  }
+
+  /**
+   * @return the interval between two probes of a backend in ms
+   */
+  public long getInterval() {
+    return interval;
+  }
+
+  /**
+   * Set the interval between two probes of a backend.
+   *
+   * @param interval the interval in ms
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HealthCheckOptions setInterval(long interval) {
+    if (interval < 1) {
+      throw new IllegalArgumentException("Interval must be > 0");
+    }
+    this.interval = interval;
+    return this;
+  }
+
+  /**
+   * @return the timeout of a probe in ms
+   */
+  public long getTimeout() {
+    return timeout;
+  }
+
+  /**
+   * Set the timeout of a probe, a probe timing out fails.
+   *
+   * @param timeout the timeout in ms
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HealthCheckOptions setTimeout(long timeout) {
+    if (timeout < 1) {
+      throw new IllegalArgumentException("Timeout must be > 0");
+    }
+    this.timeout = timeout;
+    return this;
+  }
+
+  /**
+   * @return the number of consecutive successful probes marking an unhealthy backend healthy
+   */
+  public int getHealthyThreshold() {
+    return healthyThreshold;
+  }
+
+  /**
+   * Set the number of consecutive successful probes marking an unhealthy backend healthy.
+   *
+   * @param healthyThreshold the threshold
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HealthCheckOptions setHealthyThreshold(int healthyThreshold) {
+    if (healthyThreshold < 1) {
+      throw new IllegalArgumentException("Healthy threshold must be > 0");
+    }
+    this.healthyThreshold = healthyThreshold;
+    return this;
+  }
+
+  /**
+   * @return the number of consecutive failed probes marking a healthy backend unhealthy
+   */
+  public int getUnhealthyThreshold() {
+    return unhealthyThreshold;
+  }
+
+  /**
+   * Set the number of consecutive failed probes marking a healthy backend unhealthy.
+   *
+   * @param unhealthyThreshold the threshold
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HealthCheckOptions setUnhealthyThreshold(int unhealthyThreshold) {
+    if (unhealthyThreshold < 1) {
+      throw new IllegalArgumentException("Unhealthy threshold must be > 0");
+    }
+    this.unhealthyThreshold = unhealthyThreshold;
+    return this;
+  }
+
+  /**
+   * @return the status codes of a successful probe
+   */
+  public List<Integer> getExpectedStatuses() {
+    return expectedStatuses;
+  }
+
+  /**
+   * Set the status codes of a successful probe, when empty any {@code 2xx} status is successful.
+   *
+   * @param expectedStatuses the status codes
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HealthCheckOptions setExpectedStatuses(List<Integer> expectedStatuses) {
+    this.expectedStatuses = expectedStatuses;
+    return this;
+  }
+
+  /**
+   * Add a status code of a successful probe.
+   *
+   * @param status the status code
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HealthCheckOptions addExpectedStatus(int status) {
+    expectedStatuses.add(status);
+    return this;
+  }
+
+  /**
+   * @return whether a probe response status code is successful
+   */
+  public boolean isExpectedStatus(int status) {
+    if (expectedStatuses.isEmpty()) {
+      return status >= 200 && status < 300;
+    }
+    return expectedStatuses.contains(status);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    json.put("path", path);
+    json.put("interval", interval);
+    json.put("timeout", timeout);
+    json.put("healthyThreshold", healthyThreshold);
+    json.put("unhealthyThreshold", unhealthyThreshold);
+    json.put("expectedStatuses", new JsonArray(new ArrayList<>(expectedStatuses)));
+    return json;
+  }
+}
@@ -0,0 +1,159 @@
+package io.vertx.httpproxy;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Hedging options of a {@link BackendPool}.
+ *
+ * <p> When a backend has not sent the response headers of a {@code GET} or {@code HEAD} request after the hedge delay,
+ * the request is sent again to another backend, the first response is used and the other request is reset.
+ * Hedges are limited by a token bucket: each request adds {@link #getBudgetRatio()} token up to
+ * {@link #getBudgetCapacity()} tokens and each hedge takes a token.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@DataObject
+public class HedgeOptions {
+
+  /**
+   * Default hedge delay = 50 ms
+   */
+  public static final long DEFAULT_DELAY = 50;
+
+  /**
+   * Default hedge delay percentile = 95
+   */
+  public static final double DEFAULT_PERCENTILE = 95;
+
+  /**
+   * Default budget ratio = 0.05
+   */
+  public static final double DEFAULT_BUDGET_RATIO = 0.05;
+
+  /**
+   * Default budget capacity = 10
+   */
+  public static final int DEFAULT_BUDGET_CAPACITY = 10;
+
+  private long delay;
+  private double percentile;
+  private double budgetRatio;
+  private int budgetCapacity;
+
+  public HedgeOptions() {
+    delay = DEFAULT_DELAY;
+    percentile = DEFAULT_PERCENTILE;
+    budgetRatio = DEFAULT_BUDGET_RATIO;
+    budgetCapacity = DEFAULT_BUDGET_CAPACITY;
+  }
+
+  public HedgeOptions(HedgeOptions other) {
+    delay = other.delay;
+    percentile = other.percentile;
+    budgetRatio = other.budgetRatio;
+    budgetCapacity = other.budgetCapacity;
+  }
+
+  public HedgeOptions(JsonObject json) {
+    delay = json.getLong("delay", DEFAULT_DELAY);
+    percentile = json.getDouble("percentile", DEFAULT_PERCENTILE);
+    budgetRatio = json.getDouble("budgetRatio", DEFAULT_BUDGET_RATIO);
+    budgetCapacity = json.getInteger("budgetCapacity", DEFAULT_BUDGET_CAPACITY);
+  }
+
+  /**
+   * @return the hedge delay in ms
+   */
+  public long getDelay() {
+    return delay;
+  }
+
+  /**
+   * Set the hedge delay, it is used until enough responses are observed to determine the
+   * {@link #setPercentile(double) percentile} delay or when the percentile is {@code 0}.
+   *
+   * @param delay the delay in ms
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HedgeOptions setDelay(long delay) {
+    if (delay < 1) {
+      throw new IllegalArgumentException("Delay must be > 0");
+    }
+    this.delay = delay;
+    return this;
+  }
+
+  /**
+   * @return the percentile of the response header times used as hedge delay
+   */
+  public double getPercentile() {
+    return percentile;
+  }
+
+  /**
+   * Set the percentile of the response header times of the pool used as hedge delay, e.g {@code 95} hedges
+   * the 5% slowest requests. Set to {@code 0} to always use the fixed {@link #setDelay(long) delay}.
+   *
+   * @param percentile the percentile
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HedgeOptions setPercentile(double percentile) {
+    if (percentile < 0 || percentile >= 100) {
+      throw new IllegalArgumentException("Percentile must be >= 0 and < 100");
+    }
+    this.percentile = percentile;
+    return this;
+  }
+
+  /**
+   * @return the tokens added to the budget by each request
+   */
+  public double getBudgetRatio() {
+    return budgetRatio;
+  }
+
+  /**
+   * Set the tokens added to the budget by each request, e.g {@code 0.05} allows 5% of hedges.
+   *
+   * @param budgetRatio the ratio
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HedgeOptions setBudgetRatio(double budgetRatio) {
+    if (budgetRatio < 0) {
+      throw new IllegalArgumentException("Budget ratio must be >= 0");
+    }
+    this.budgetRatio = budgetRatio;
+    return this;
+  }
+
+  /**
+   * @return the maximum tokens of the budget
+   */
+  public int getBudgetCapacity() {
+    return budgetCapacity;
+  }
+
+  /**
+   * Set the maximum tokens of the budget, the budget is initially full.
+   *
+   * @param budgetCapacity the capacity
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HedgeOptions setBudgetCapacity(int budgetCapacity) {
+    if (budgetCapacity < 0) {
+      throw new IllegalArgumentException("Budget capacity must be >= 0");
+    }
+    this.budgetCapacity = budgetCapacity;
+    return this;
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    json.put("delay", delay);
+    json.put("percentile", percentile);
+    json.put("budgetRatio", budgetRatio);
+    json.put("budgetCapacity", budgetCapacity);
+    return json;
+  }
+}
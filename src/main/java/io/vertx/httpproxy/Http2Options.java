@@ -0,0 +1,216 @@
+package io.vertx.httpproxy;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * HTTP/2 options of the backends of a {@link BackendPool}.
+ *
+ * <p> The requests to the backends are multiplexed over a few HTTP/2 connections, in clear text with prior
+ * knowledge or over TLS negotiated with ALPN. A backend failing to negotiate HTTP/2 over TLS is spoken to with
+ * HTTP/1.1.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@DataObject
+public class Http2Options {
+
+  /**
+   * Default ssl = false (clear text with prior knowledge)
+   */
+  public static final boolean DEFAULT_SSL = false;
+
+  /**
+   * Default trust all = false
+   */
+  public static final boolean DEFAULT_TRUST_ALL = false;
+
+  /**
+   * Default max connections = 1
+   */
+  public static final int DEFAULT_MAX_CONNECTIONS = 1;
+
+  /**
+   * Default max concurrent streams = -1 (the backend setting)
+   */
+  public static final int DEFAULT_MAX_CONCURRENT_STREAMS = -1;
+
+  /**
+   * Default initial window size = 65535
+   */
+  public static final int DEFAULT_INITIAL_WINDOW_SIZE = 65535;
+
+  /**
+   * Default connection window size = -1 (the protocol default)
+   */
+  public static final int DEFAULT_CONNECTION_WINDOW_SIZE = -1;
+
+  private boolean ssl;
+  private boolean trustAll;
+  private int maxConnections;
+  private int maxConcurrentStreams;
+  private int initialWindowSize;
+  private int connectionWindowSize;
+
+  public Http2Options() {
+    ssl = DEFAULT_SSL;
+    trustAll = DEFAULT_TRUST_ALL;
+    maxConnections = DEFAULT_MAX_CONNECTIONS;
+    maxConcurrentStreams = DEFAULT_MAX_CONCURRENT_STREAMS;
+    initialWindowSize = DEFAULT_INITIAL_WINDOW_SIZE;
+    connectionWindowSize = DEFAULT_CONNECTION_WINDOW_SIZE;
+  }
+
+  public Http2Options(Http2Options other) {
+    ssl = other.ssl;
+    trustAll = other.trustAll;
+    maxConnections = other.maxConnections;
+    maxConcurrentStreams = other.maxConcurrentStreams;
+    initialWindowSize = other.initialWindowSize;
+    connectionWindowSize = other.connectionWindowSize;
+  }
+
+  public Http2Options(JsonObject json) {
+    ssl = json.getBoolean("ssl", DEFAULT_SSL);
+    trustAll = json.getBoolean("trustAll", DEFAULT_TRUST_ALL);
+    maxConnections = json.getInteger("maxConnections", DEFAULT_MAX_CONNECTIONS);
+    maxConcurrentStreams = json.getInteger("maxConcurrentStreams", DEFAULT_MAX_CONCURRENT_STREAMS);
+    initialWindowSize = json.getInteger("initialWindowSize", DEFAULT_INITIAL_WINDOW_SIZE);
+    connectionWindowSize = json.getInteger("connectionWindowSize", DEFAULT_CONNECTION_WINDOW_SIZE);
+  }
+
+  /**
+   * @return whether the backends are spoken to over TLS
+   */
+  public boolean isSsl() {
+    return ssl;
+  }
+
+  /**
+   * Speak to the backends over TLS and negotiate HTTP/2 with ALPN, otherwise HTTP/2 is spoken in clear text
+   * with prior knowledge.
+   *
+   * @param ssl whether to use TLS
+   * @return a reference to this, so the API can be used fluently
+   */
+  public Http2Options setSsl(boolean ssl) {
+    this.ssl = ssl;
+    return this;
+  }
+
+  /**
+   * @return whether all the backend certificates are trusted
+   */
+  public boolean isTrustAll() {
+    return trustAll;
+  }
+
+  /**
+   * Trust all the backend certificates, otherwise the certificates are verified with the JVM trust store.
+   *
+   * @param trustAll whether to trust all the certificates
+   * @return a reference to this, so the API can be used fluently
+   */
+  public Http2Options setTrustAll(boolean trustAll) {
+    this.trustAll = trustAll;
+    return this;
+  }
+
+  /**
+   * @return the max connections to a backend
+   */
+  public int getMaxConnections() {
+    return maxConnections;
+  }
+
+  /**
+   * Set the max HTTP/2 connections to a backend.
+   *
+   * @param maxConnections the max connections
+   * @return a reference to this, so the API can be used fluently
+   */
+  public Http2Options setMaxConnections(int maxConnections) {
+    if (maxConnections < 1) {
+      throw new IllegalArgumentException("Max connections must be > 0");
+    }
+    this.maxConnections = maxConnections;
+    return this;
+  }
+
+  /**
+   * @return the max concurrent streams of a connection
+   */
+  public int getMaxConcurrentStreams() {
+    return maxConcurrentStreams;
+  }
+
+  /**
+   * Set the max requests in flight on a connection, the backend setting applies when it is lower. When {@code -1}
+   * the backend setting applies.
+   *
+   * @param maxConcurrentStreams the max concurrent streams
+   * @return a reference to this, so the API can be used fluently
+   */
+  public Http2Options setMaxConcurrentStreams(int maxConcurrentStreams) {
+    if (maxConcurrentStreams == 0 || maxConcurrentStreams < -1) {
+      throw new IllegalArgumentException("Max concurrent streams must be > 0 or -1");
+    }
+    this.maxConcurrentStreams = maxConcurrentStreams;
+    return this;
+  }
+
+  /**
+   * @return the initial flow control window size of a stream
+   */
+  public int getInitialWindowSize() {
+    return initialWindowSize;
+  }
+
+  /**
+   * Set the initial flow control window of the response streams, a larger window lets a backend send more
+   * of a response before the client reads it.
+   *
+   * @param initialWindowSize the window size in bytes
+   * @return a reference to this, so the API can be used fluently
+   */
+  public Http2Options setInitialWindowSize(int initialWindowSize) {
+    if (initialWindowSize < 1) {
+      throw new IllegalArgumentException("Initial window size must be > 0");
+    }
+    this.initialWindowSize = initialWindowSize;
+    return this;
+  }
+
+  /**
+   * @return the flow control window size of a connection
+   */
+  public int getConnectionWindowSize() {
+    return connectionWindowSize;
+  }
+
+  /**
+   * Set the flow control window of a connection, shared by its streams. When {@code -1} the protocol default
+   * applies.
+   *
+   * @param connectionWindowSize the window size in bytes
+   * @return a reference to this, so the API can be used fluently
+   */
+  public Http2Options setConnectionWindowSize(int connectionWindowSize) {
+    if (connectionWindowSize == 0 || connectionWindowSize < -1) {
+      throw new IllegalArgumentException("Connection window size must be > 0 or -1");
+    }
+    this.connectionWindowSize = connectionWindowSize;
+    return this;
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    json.put("ssl", ssl);
+    json.put("trustAll", trustAll);
+    json.put("maxConnections", maxConnections);
+    json.put("maxConcurrentStreams", maxConcurrentStreams);
+    json.put("initialWindowSize", initialWindowSize);
+    json.put("connectionWindowSize", connectionWindowSize);
+    return json;
+  }
+}
@@ -4,10 +4,12 @@ import io.vertx.codegen.annotations.Fluent;
 import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.net.SocketAddress;
 
+import java.util.List;
 import java.util.function.Function;
 
 /**
@@ -16,8 +18,28 @@ import java.util.function.Function;
 @VertxGen
 public interface HttpProxy extends Handler<HttpServerRequest> {
 
+  /**
+   * Create a reverse proxy sending the requests to the backends with {@code client}.
+   *
+   * @param vertx the vertx instance running the timers of the proxy
+   * @param client the client of the backends
+   * @return the proxy
+   */
+  static HttpProxy reverseProxy(Vertx vertx, HttpClient client) {
+    return new io.vertx.httpproxy.impl.HttpProxyImpl(vertx, client);
+  }
+
+  /**
+   * Create a reverse proxy, the proxy uses the vertx instance of the current context or else the vertx instance
+   * owning {@code client}.
+   *
+   * @deprecated use {@link #reverseProxy(Vertx, HttpClient)} instead
+   * @throws IllegalStateException when no vertx instance can be found, e.g for a client wrapper used outside
+   *         a Vert.x context
+   */
+  @Deprecated
   static HttpProxy reverseProxy2(HttpClient client) {
-    return new io.vertx.httpproxy.impl.HttpProxyImpl(client);
+    return reverseProxy(io.vertx.httpproxy.impl.HttpProxyImpl.owner(client), client);
   }
 
   @Fluent
@@ -33,6 +55,148 @@ public interface HttpProxy extends Handler<HttpServerRequest> {
   @Fluent
   HttpProxy selector(Function<HttpServerRequest, Future<SocketAddress>> selector);
 
+  /**
+   * Balance the requests over a pool of backends, this replaces the current selector.
+   *
+   * @param pool the backend pool, {@code null} removes the pool and the requests use the selector again
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  HttpProxy backendPool(BackendPool pool);
+
+  /**
+   * Select the backend pool and the timeouts of the requests with a table of routes. The requests matching
+   * no route use the current pool or selector.
+   *
+   * @param table the route table
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  HttpProxy routeTable(RouteTable table);
+
+  /**
+   * Limit the requests this proxy sends concurrently to its backends, the other requests wait for admission in a
+   * bounded queue. When {@code null} requests are not limited.
+   *
+   * @param options the admission options
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  HttpProxy admission(AdmissionOptions options);
+
+  /**
+   * Set the function determining the priority of a request waiting for admission.
+   *
+   * <p> The default function returns {@link RequestPriority#NORMAL}.
+   *
+   * @param classifier the priority function
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  HttpProxy priorityClassifier(Function<HttpServerRequest, RequestPriority> classifier);
+
+  /**
+   * Limit the request rate of each client of this proxy, requests exceeding the rate are answered with {@code 429}
+   * without reaching a backend. When {@code null} requests are not limited.
+   *
+   * @param options the rate limit options
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  HttpProxy rateLimit(RateLimitOptions options);
+
+  /**
+   * Set the function determining the client of a request for rate limiting, e.g an API key header. Requests for
+   * which the function returns {@code null} are not limited.
+   *
+   * <p> The default function uses the remote address host.
+   *
+   * @param key the client function
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  HttpProxy rateLimitKey(Function<HttpServerRequest, String> key);
+
+  /**
+   * Apply the same timeouts to all the requests.
+   *
+   * @param options the timeout options
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  default HttpProxy timeouts(TimeoutOptions options) {
+    TimeoutOptions copy = options != null ? new TimeoutOptions(options) : null;
+    return timeoutSelector(req -> copy);
+  }
+
+  /**
+   * Set the function determining the timeouts of a request, e.g per route. When the function returns {@code null}
+   * the request has no timeouts.
+   *
+   * @param selector the timeout function
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  HttpProxy timeoutSelector(Function<HttpServerRequest, TimeoutOptions> selector);
+
+  /**
+   * Configure the cache of this proxy, the current cache content is discarded.
+   *
+   * @param options the cache options, not {@code null}
+   * @throws IllegalArgumentException when {@code options} is {@code null}
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  HttpProxy cacheOptions(CacheOptions options);
+
+  /**
+   * Set the function determining the tenant of a request, cache memory is partitioned by tenant.
+   *
+   * <p> The default function uses the {@code host} header of the request.
+   *
+   * @param tenant the tenant function
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  HttpProxy cacheTenant(Function<ProxyRequest, String> tenant);
+
+  /**
+   * Configure the proxies sharing their caches.
+   *
+   * <p> Each cache key is owned by one of the {@code peers}, on a cache miss the request is sent to the owner
+   * which fetches the resource from the origin server when it does not have it. The resource is then fetched
+   * once from the origin regardless of the number of proxies. When the owner fails, the request is sent to the
+   * origin server.
+   *
+   * <p> Peers must be reached with the same {@code host} header and scheme than the clients use. A resource
+   * served by a peer is only cached by its owner, the peer requests are only trusted when they come from the host
+   * of a peer. The host names of the peers are resolved without blocking and refreshed periodically.
+   *
+   * @param self the address of this proxy, as it appears in the {@code peers} list
+   * @param peers the address of all the proxies
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  HttpProxy cachePeers(SocketAddress self, List<SocketAddress> peers);
+
+  /**
+   * Invalidate the cached resource of an absolute URI.
+   *
+   * <p> When an invalidation address is configured, the invalidation is broadcast to the other proxies.
+   *
+   * @param key the absolute URI of the resource
+   */
+  void invalidate(String key);
+
+  /**
+   * Invalidate all the cached resources carrying a tag.
+   *
+   * <p> When an invalidation address is configured, the invalidation is broadcast to the other proxies.
+   *
+   * @param tag the tag
+   */
+  void invalidateTag(String tag);
+
   void handle(HttpServerRequest request);
 
 }
@@ -0,0 +1,36 @@
+package io.vertx.httpproxy;
+
+import io.vertx.codegen.annotations.VertxGen;
+
+/**
+ * The strategy a {@link BackendPool} uses to select the backend of a request.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@VertxGen
+public enum LoadBalancing {
+
+  /**
+   * Smooth weighted round robin, backends are selected proportionally to their weight and interleaved.
+   */
+  ROUND_ROBIN,
+
+  /**
+   * Select the backend with the least outstanding requests relative to its weight.
+   */
+  LEAST_REQUESTS,
+
+  /**
+   * Pick two backends at random and select the one with the least load, the load of a backend is the moving
+   * average of its response latency multiplied by its requests in flight, relative to its weight.
+   */
+  POWER_OF_TWO_CHOICES,
+
+  /**
+   * Hash a request key on a ring of backends, requests with the same key go to the same backend. The key is the
+   * request URI, a header or a cookie. The load of a backend is bounded, a request hashed to a backend at full
+   * capacity goes to the next backend of the ring.
+   */
+  CONSISTENT_HASH
+
+}
@@ -21,6 +21,12 @@ public class Main {
   @Parameter(names = "--address")
   public String address = "0.0.0.0";
 
+  @Parameter(names = "--routes", description = "The JSON file of the routes, reloaded when modified", required = true)
+  public String routes;
+
+  @Parameter(names = "--watch-interval", description = "The interval between two checks of the routes file in ms")
+  public long watchInterval = 1000;
+
   public static void main(String[] args) {
     Main main = new Main();
     JCommander jc = new JCommander(main);
@@ -34,9 +40,10 @@ public class Main {
     HttpClient client = vertx.createHttpClient(new HttpClientOptions()
         .setMaxInitialLineLength(10000)
         .setLogActivity(true));
+    RouteTable table = RouteTable.create(vertx).watch(routes, watchInterval);
     HttpProxy proxy = HttpProxy
-        .reverseProxy2(client)
-        .target(8081, "96.126.115.136");
+        .reverseProxy(vertx, client)
+        .routeTable(table);
     HttpServer proxyServer = vertx.createHttpServer(new HttpServerOptions()
         .setPort(port)
         .setMaxInitialLineLength(10000)
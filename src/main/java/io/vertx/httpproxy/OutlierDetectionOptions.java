@@ -0,0 +1,251 @@
+package io.vertx.httpproxy;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Passive outlier detection options of a {@link BackendPool}, backends are ejected from the pool according
+ * to the outcome of the requests they serve.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@DataObject
+public class OutlierDetectionOptions {
+
+  /**
+   * Default consecutive server errors = 5
+   */
+  public static final int DEFAULT_CONSECUTIVE_SERVER_ERRORS = 5;
+
+  /**
+   * Default consecutive connection failures = 5
+   */
+  public static final int DEFAULT_CONSECUTIVE_CONNECTION_FAILURES = 5;
+
+  /**
+   * Default latency factor = 0 (disabled)
+   */
+  public static final double DEFAULT_LATENCY_FACTOR = 0;
+
+  /**
+   * Default analysis interval = 1000 ms
+   */
+  public static final long DEFAULT_INTERVAL = 1000;
+
+  /**
+   * Default base ejection time = 30000 ms
+   */
+  public static final long DEFAULT_BASE_EJECTION_TIME = 30000;
+
+  /**
+   * Default max ejection time = 300000 ms
+   */
+  public static final long DEFAULT_MAX_EJECTION_TIME = 300000;
+
+  /**
+   * Default max ejection percent = 10
+   */
+  public static final int DEFAULT_MAX_EJECTION_PERCENT = 10;
+
+  private int consecutiveServerErrors;
+  private int consecutiveConnectionFailures;
+  private double latencyFactor;
+  private long interval;
+  private long baseEjectionTime;
+  private long maxEjectionTime;
+  private int maxEjectionPercent;
+
+  public OutlierDetectionOptions() {
+    consecutiveServerErrors = DEFAULT_CONSECUTIVE_SERVER_ERRORS;
+    consecutiveConnectionFailures = DEFAULT_CONSECUTIVE_CONNECTION_FAILURES;
+    latencyFactor = DEFAULT_LATENCY_FACTOR;
+    interval = DEFAULT_INTERVAL;
+    baseEjectionTime = DEFAULT_BASE_EJECTION_TIME;
+    maxEjectionTime = DEFAULT_MAX_EJECTION_TIME;
+    maxEjectionPercent = DEFAULT_MAX_EJECTION_PERCENT;
+  }
+
+  public OutlierDetectionOptions(OutlierDetectionOptions other) {
+    consecutiveServerErrors = other.consecutiveServerErrors;
+    consecutiveConnectionFailures = other.consecutiveConnectionFailures;
+    latencyFactor = other.latencyFactor;
+    interval = other.interval;
+    baseEjectionTime = other.baseEjectionTime;
+    maxEjectionTime = other.maxEjectionTime;
+    maxEjectionPercent = other.maxEjectionPercent;
+  }
+
+  public OutlierDetectionOptions(JsonObject json) {
+    consecutiveServerErrors = json.getInteger("consecutiveServerErrors", DEFAULT_CONSECUTIVE_SERVER_ERRORS);
+    consecutiveConnectionFailures = json.getInteger("consecutiveConnectionFailures", DEFAULT_CONSECUTIVE_CONNECTION_FAILURES);
+    latencyFactor = json.getDouble("latencyFactor", DEFAULT_LATENCY_FACTOR);
+    interval = json.getLong("interval", DEFAULT_INTERVAL);
+    baseEjectionTime = json.getLong("baseEjectionTime", DEFAULT_BASE_EJECTION_TIME);
+    maxEjectionTime = json.getLong("maxEjectionTime", DEFAULT_MAX_EJECTION_TIME);
+    maxEjectionPercent = json.getInteger("maxEjectionPercent", DEFAULT_MAX_EJECTION_PERCENT);
+  }
+
+  /**
+   * @return the number of consecutive server errors ejecting a backend
+   */
+  public int getConsecutiveServerErrors() {
+    return consecutiveServerErrors;
+  }
+
+  /**
+   * Set the number of consecutive server errors ejecting a backend, a server error is a {@code 5xx} response
+   * or a request failing after the connection to the backend was obtained. Set to {@code 0} to disable.
+   *
+   * @param consecutiveServerErrors the number of errors
+   * @return a reference to this, so the API can be used fluently
+   */
+  public OutlierDetectionOptions setConsecutiveServerErrors(int consecutiveServerErrors) {
+    if (consecutiveServerErrors < 0) {
+      throw new IllegalArgumentException("Consecutive server errors must be >= 0");
+    }
+    this.consecutiveServerErrors = consecutiveServerErrors;
+    return this;
+  }
+
+  /**
+   * @return the number of consecutive connection failures ejecting a backend
+   */
+  public int getConsecutiveConnectionFailures() {
+    return consecutiveConnectionFailures;
+  }
+
+  /**
+   * Set the number of consecutive connection failures ejecting a backend. Set to {@code 0} to disable.
+   *
+   * @param consecutiveConnectionFailures the number of failures
+   * @return a reference to this, so the API can be used fluently
+   */
+  public OutlierDetectionOptions setConsecutiveConnectionFailures(int consecutiveConnectionFailures) {
+    if (consecutiveConnectionFailures < 0) {
+      throw new IllegalArgumentException("Consecutive connection failures must be >= 0");
+    }
+    this.consecutiveConnectionFailures = consecutiveConnectionFailures;
+    return this;
+  }
+
+  /**
+   * @return the latency factor ejecting a backend
+   */
+  public double getLatencyFactor() {
+    return latencyFactor;
+  }
+
+  /**
+   * Eject a backend whose average latency exceeds {@code latencyFactor} times the median latency of the
+   * pool, the latencies are compared every {@link #setInterval(long) interval} when the pool has at least
+   * three backends. Set to {@code 0} to disable.
+   *
+   * @param latencyFactor the factor
+   * @return a reference to this, so the API can be used fluently
+   */
+  public OutlierDetectionOptions setLatencyFactor(double latencyFactor) {
+    if (latencyFactor != 0 && latencyFactor <= 1) {
+      throw new IllegalArgumentException("Latency factor must be > 1 or 0");
+    }
+    this.latencyFactor = latencyFactor;
+    return this;
+  }
+
+  /**
+   * @return the analysis interval in ms
+   */
+  public long getInterval() {
+    return interval;
+  }
+
+  /**
+   * Set the interval between two analysis, an analysis compares latencies and returns the ejected backends
+   * whose ejection time elapsed to the pool.
+   *
+   * @param interval the interval in ms
+   * @return a reference to this, so the API can be used fluently
+   */
+  public OutlierDetectionOptions setInterval(long interval) {
+    if (interval < 1) {
+      throw new IllegalArgumentException("Interval must be > 0");
+    }
+    this.interval = interval;
+    return this;
+  }
+
+  /**
+   * @return the base ejection time in ms
+   */
+  public long getBaseEjectionTime() {
+    return baseEjectionTime;
+  }
+
+  /**
+   * Set the ejection time of a backend ejected for the first time, the time doubles for each subsequent ejection
+   * and halves again for each base ejection time the backend stays in the pool.
+   *
+   * @param baseEjectionTime the time in ms
+   * @return a reference to this, so the API can be used fluently
+   */
+  public OutlierDetectionOptions setBaseEjectionTime(long baseEjectionTime) {
+    if (baseEjectionTime < 1) {
+      throw new IllegalArgumentException("Base ejection time must be > 0");
+    }
+    this.baseEjectionTime = baseEjectionTime;
+    return this;
+  }
+
+  /**
+   * @return the max ejection time in ms
+   */
+  public long getMaxEjectionTime() {
+    return maxEjectionTime;
+  }
+
+  /**
+   * Set the maximum ejection time of a backend.
+   *
+   * @param maxEjectionTime the time in ms
+   * @return a reference to this, so the API can be used fluently
+   */
+  public OutlierDetectionOptions setMaxEjectionTime(long maxEjectionTime) {
+    if (maxEjectionTime < 1) {
+      throw new IllegalArgumentException("Max ejection time must be > 0");
+    }
+    this.maxEjectionTime = maxEjectionTime;
+    return this;
+  }
+
+  /**
+   * @return the maximum percentage of ejected backends
+   */
+  public int getMaxEjectionPercent() {
+    return maxEjectionPercent;
+  }
+
+  /**
+   * Set the maximum percentage of the backends of the pool that can be ejected, at least one backend can be ejected.
+   *
+   * @param maxEjectionPercent the percentage
+   * @return a reference to this, so the API can be used fluently
+   */
+  public OutlierDetectionOptions setMaxEjectionPercent(int maxEjectionPercent) {
+    if (maxEjectionPercent < 0 || maxEjectionPercent > 100) {
+      throw new IllegalArgumentException("Max ejection percent must be between 0 and 100");
+    }
+    this.maxEjectionPercent = maxEjectionPercent;
+    return this;
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    json.put("consecutiveServerErrors", consecutiveServerErrors);
+    json.put("consecutiveConnectionFailures", consecutiveConnectionFailures);
+    json.put("latencyFactor", latencyFactor);
+    json.put("interval", interval);
+    json.put("baseEjectionTime", baseEjectionTime);
+    json.put("maxEjectionTime", maxEjectionTime);
+    json.put("maxEjectionPercent", maxEjectionPercent);
+    return json;
+  }
+}
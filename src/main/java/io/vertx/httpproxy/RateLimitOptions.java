@@ -0,0 +1,157 @@
+package io.vertx.httpproxy;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Per client rate limit options of a {@link HttpProxy}.
+ *
+ * <p> Each client has a token bucket refilled at {@link #getRate()} tokens per second up to {@link #getBurst()}
+ * tokens, each request takes a token. A request finding the bucket empty is answered with {@code 429} and a
+ * {@code retry-after} header. The buckets of the clients that did not send requests for {@link #getIdleTimeout()}
+ * are evicted, at most {@link #getMaxClients()} buckets are kept.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@DataObject
+public class RateLimitOptions {
+
+  /**
+   * Default rate = 100 requests per second
+   */
+  public static final double DEFAULT_RATE = 100;
+
+  /**
+   * Default burst = 200 requests
+   */
+  public static final int DEFAULT_BURST = 200;
+
+  /**
+   * Default max clients = 100000
+   */
+  public static final int DEFAULT_MAX_CLIENTS = 100_000;
+
+  /**
+   * Default idle timeout = 60000 ms
+   */
+  public static final long DEFAULT_IDLE_TIMEOUT = 60_000;
+
+  private double rate;
+  private int burst;
+  private int maxClients;
+  private long idleTimeout;
+
+  public RateLimitOptions() {
+    rate = DEFAULT_RATE;
+    burst = DEFAULT_BURST;
+    maxClients = DEFAULT_MAX_CLIENTS;
+    idleTimeout = DEFAULT_IDLE_TIMEOUT;
+  }
+
+  public RateLimitOptions(RateLimitOptions other) {
+    rate = other.rate;
+    burst = other.burst;
+    maxClients = other.maxClients;
+    idleTimeout = other.idleTimeout;
+  }
+
+  public RateLimitOptions(JsonObject json) {
+    rate = json.getDouble("rate", DEFAULT_RATE);
+    burst = json.getInteger("burst", DEFAULT_BURST);
+    maxClients = json.getInteger("maxClients", DEFAULT_MAX_CLIENTS);
+    idleTimeout = json.getLong("idleTimeout", DEFAULT_IDLE_TIMEOUT);
+  }
+
+  /**
+   * @return the requests per second allowed to a client
+   */
+  public double getRate() {
+    return rate;
+  }
+
+  /**
+   * Set the requests per second allowed to a client.
+   *
+   * @param rate the rate
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RateLimitOptions setRate(double rate) {
+    if (rate <= 0) {
+      throw new IllegalArgumentException("Rate must be > 0");
+    }
+    this.rate = rate;
+    return this;
+  }
+
+  /**
+   * @return the requests a client can send at once
+   */
+  public int getBurst() {
+    return burst;
+  }
+
+  /**
+   * Set the requests a client can send at once, i.e the capacity of its bucket.
+   *
+   * @param burst the burst
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RateLimitOptions setBurst(int burst) {
+    if (burst < 1) {
+      throw new IllegalArgumentException("Burst must be > 0");
+    }
+    this.burst = burst;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of clients tracked
+   */
+  public int getMaxClients() {
+    return maxClients;
+  }
+
+  /**
+   * Set the maximum number of clients tracked, the least recently seen clients are evicted beyond.
+   *
+   * @param maxClients the number of clients
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RateLimitOptions setMaxClients(int maxClients) {
+    if (maxClients < 1) {
+      throw new IllegalArgumentException("Max clients must be > 0");
+    }
+    this.maxClients = maxClients;
+    return this;
+  }
+
+  /**
+   * @return the time after which an idle client is evicted in ms
+   */
+  public long getIdleTimeout() {
+    return idleTimeout;
+  }
+
+  /**
+   * Set the time after which a client that does not send requests is evicted.
+   *
+   * @param idleTimeout the time in ms
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RateLimitOptions setIdleTimeout(long idleTimeout) {
+    if (idleTimeout < 1) {
+      throw new IllegalArgumentException("Idle timeout must be > 0");
+    }
+    this.idleTimeout = idleTimeout;
+    return this;
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    json.put("rate", rate);
+    json.put("burst", burst);
+    json.put("maxClients", maxClients);
+    json.put("idleTimeout", idleTimeout);
+    return json;
+  }
+}
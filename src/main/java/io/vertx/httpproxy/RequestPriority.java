@@ -0,0 +1,29 @@
+package io.vertx.httpproxy;
+
+import io.vertx.codegen.annotations.VertxGen;
+
+/**
+ * The priority class of a request waiting for {@link AdmissionOptions admission}.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@VertxGen
+public enum RequestPriority {
+
+  /**
+   * Admitted before the other requests, a high priority request arriving when the queue is full takes the place
+   * of the latest normal priority request.
+   */
+  HIGH,
+
+  /**
+   * The priority of requests by default.
+   */
+  NORMAL,
+
+  /**
+   * Never queued, answered immediately with {@code 503} when the proxy is at its concurrency limit.
+   */
+  LOW
+
+}
@@ -0,0 +1,225 @@
+package io.vertx.httpproxy;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Retry options of a {@link BackendPool}.
+ *
+ * <p> Idempotent requests ({@code GET}, {@code HEAD}, {@code OPTIONS}, {@code PUT} and {@code DELETE}) are retried on
+ * another backend of the pool. Retries are limited by a token bucket: each request adds {@link #getBudgetRatio()}
+ * token up to {@link #getBudgetCapacity()} tokens and each retry takes a token.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@DataObject
+public class RetryOptions {
+
+  /**
+   * Default max retries = 1
+   */
+  public static final int DEFAULT_MAX_RETRIES = 1;
+
+  /**
+   * Default retry on connection failure = true
+   */
+  public static final boolean DEFAULT_RETRY_ON_CONNECTION_FAILURE = true;
+
+  /**
+   * Default retried status codes = 502, 503, 504
+   */
+  public static final List<Integer> DEFAULT_RETRY_ON = Arrays.asList(502, 503, 504);
+
+  /**
+   * Default max body size = 65536 bytes
+   */
+  public static final int DEFAULT_MAX_BODY_SIZE = 64 * 1024;
+
+  /**
+   * Default budget ratio = 0.1
+   */
+  public static final double DEFAULT_BUDGET_RATIO = 0.1;
+
+  /**
+   * Default budget capacity = 10
+   */
+  public static final int DEFAULT_BUDGET_CAPACITY = 10;
+
+  private int maxRetries;
+  private boolean retryOnConnectionFailure;
+  private List<Integer> retryOn;
+  private int maxBodySize;
+  private double budgetRatio;
+  private int budgetCapacity;
+
+  public RetryOptions() {
+    maxRetries = DEFAULT_MAX_RETRIES;
+    retryOnConnectionFailure = DEFAULT_RETRY_ON_CONNECTION_FAILURE;
+    retryOn = new ArrayList<>(DEFAULT_RETRY_ON);
+    maxBodySize = DEFAULT_MAX_BODY_SIZE;
+    budgetRatio = DEFAULT_BUDGET_RATIO;
+    budgetCapacity = DEFAULT_BUDGET_CAPACITY;
+  }
+
+  public RetryOptions(RetryOptions other) {
+    maxRetries = other.maxRetries;
+    retryOnConnectionFailure = other.retryOnConnectionFailure;
+    retryOn = new ArrayList<>(other.retryOn);
+    maxBodySize = other.maxBodySize;
+    budgetRatio = other.budgetRatio;
+    budgetCapacity = other.budgetCapacity;
+  }
+
+  public RetryOptions(JsonObject json) {
+    this();
+    maxRetries = json.getInteger("maxRetries", DEFAULT_MAX_RETRIES);
+    retryOnConnectionFailure = json.getBoolean("retryOnConnectionFailure", DEFAULT_RETRY_ON_CONNECTION_FAILURE);
+    JsonArray array = json.getJsonArray("retryOn");
+    if (array != null) {
+      retryOn.clear();
+      for (int i = 0;i < array.size();i++) {
+        retryOn.add(array.getInteger(i));
+      }
+    }
+    maxBodySize = json.getInteger("maxBodySize", DEFAULT_MAX_BODY_SIZE);
+    budgetRatio = json.getDouble("budgetRatio", DEFAULT_BUDGET_RATIO);
+    budgetCapacity = json.getInteger("budgetCapacity", DEFAULT_BUDGET_CAPACITY);
+  }
+
+  /**
+   * @return the maximum number of retries of a request
+   */
+  public int getMaxRetries() {
+    return maxRetries;
+  }
+
+  /**
+   * Set the maximum number of retries of a request.
+   *
+   * @param maxRetries the number of retries
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RetryOptions setMaxRetries(int maxRetries) {
+    if (maxRetries < 0) {
+      throw new IllegalArgumentException("Max retries must be >= 0");
+    }
+    this.maxRetries = maxRetries;
+    return this;
+  }
+
+  /**
+   * @return whether a request is retried when the connection to the backend fails
+   */
+  public boolean isRetryOnConnectionFailure() {
+    return retryOnConnectionFailure;
+  }
+
+  /**
+   * Set whether a request is retried when the connection to the backend fails or is reset before the response.
+   *
+   * @param retryOnConnectionFailure the value
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RetryOptions setRetryOnConnectionFailure(boolean retryOnConnectionFailure) {
+    this.retryOnConnectionFailure = retryOnConnectionFailure;
+    return this;
+  }
+
+  /**
+   * @return the response status codes retried
+   */
+  public List<Integer> getRetryOn() {
+    return retryOn;
+  }
+
+  /**
+   * Set the response status codes retried.
+   *
+   * @param retryOn the status codes
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RetryOptions setRetryOn(List<Integer> retryOn) {
+    this.retryOn = retryOn;
+    return this;
+  }
+
+  /**
+   * @return the maximum size of a buffered request body
+   */
+  public int getMaxBodySize() {
+    return maxBodySize;
+  }
+
+  /**
+   * Set the maximum size of a request body buffered so it can be sent again, a request with a larger or a chunked
+   * body is not retried.
+   *
+   * @param maxBodySize the size in bytes
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RetryOptions setMaxBodySize(int maxBodySize) {
+    if (maxBodySize < 0) {
+      throw new IllegalArgumentException("Max body size must be >= 0");
+    }
+    this.maxBodySize = maxBodySize;
+    return this;
+  }
+
+  /**
+   * @return the tokens added to the budget by each request
+   */
+  public double getBudgetRatio() {
+    return budgetRatio;
+  }
+
+  /**
+   * Set the tokens added to the budget by each request, e.g {@code 0.1} allows 10% of retries.
+   *
+   * @param budgetRatio the ratio
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RetryOptions setBudgetRatio(double budgetRatio) {
+    if (budgetRatio < 0) {
+      throw new IllegalArgumentException("Budget ratio must be >= 0");
+    }
+    this.budgetRatio = budgetRatio;
+    return this;
+  }
+
+  /**
+   * @return the maximum tokens of the budget
+   */
+  public int getBudgetCapacity() {
+    return budgetCapacity;
+  }
+
+  /**
+   * Set the maximum tokens of the budget, the budget is initially full.
+   *
+   * @param budgetCapacity the capacity
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RetryOptions setBudgetCapacity(int budgetCapacity) {
+    if (budgetCapacity < 0) {
+      throw new IllegalArgumentException("Budget capacity must be >= 0");
+    }
+    this.budgetCapacity = budgetCapacity;
+    return this;
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    json.put("maxRetries", maxRetries);
+    json.put("retryOnConnectionFailure", retryOnConnectionFailure);
+    json.put("retryOn", new JsonArray(new ArrayList<>(retryOn)));
+    json.put("maxBodySize", maxBodySize);
+    json.put("budgetRatio", budgetRatio);
+    json.put("budgetCapacity", budgetCapacity);
+    return json;
+  }
+}
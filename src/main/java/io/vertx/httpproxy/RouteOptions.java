@@ -0,0 +1,214 @@
+package io.vertx.httpproxy;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A route of a {@link RouteTable}, the requests matching the route host, path prefix and methods are balanced
+ * over the route backend pool.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@DataObject
+public class RouteOptions {
+
+  /**
+   * Default path prefix = /
+   */
+  public static final String DEFAULT_PATH_PREFIX = "/";
+
+  private String name;
+  private String host;
+  private String pathPrefix;
+  private List<HttpMethod> methods;
+  private BackendPoolOptions pool;
+  private TimeoutOptions timeouts;
+
+  public RouteOptions() {
+    pathPrefix = DEFAULT_PATH_PREFIX;
+    methods = new ArrayList<>();
+    pool = new BackendPoolOptions();
+  }
+
+  public RouteOptions(RouteOptions other) {
+    name = other.name;
+    host = other.host;
+    pathPrefix = other.pathPrefix;
+    methods = new ArrayList<>(other.methods);
+    pool = new BackendPoolOptions(other.pool);
+    timeouts = other.timeouts != null ? new TimeoutOptions(other.timeouts) : null;
+  }
+
+  public RouteOptions(JsonObject json) {
+    this();
+    name = json.getString("name");
+    host = json.getString("host");
+    setPathPrefix(json.getString("pathPrefix", DEFAULT_PATH_PREFIX));
+    JsonArray array = json.getJsonArray("methods");
+    if (array != null) {
+      for (int i = 0;i < array.size();i++) {
+        methods.add(HttpMethod.valueOf(array.getString(i)));
+      }
+    }
+    JsonObject p = json.getJsonObject("pool");
+    if (p != null) {
+      pool = new BackendPoolOptions(p);
+    }
+    JsonObject t = json.getJsonObject("timeouts");
+    if (t != null) {
+      timeouts = new TimeoutOptions(t);
+    }
+  }
+
+  /**
+   * @return the route name
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Set the route name.
+   *
+   * @param name the name
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RouteOptions setName(String name) {
+    this.name = name;
+    return this;
+  }
+
+  /**
+   * @return the host matched by the route
+   */
+  public String getHost() {
+    return host;
+  }
+
+  /**
+   * Set the host matched by the route, without port and case insensitive. When {@code null} the route matches
+   * any host.
+   *
+   * @param host the host
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RouteOptions setHost(String host) {
+    this.host = host;
+    return this;
+  }
+
+  /**
+   * @return the path prefix matched by the route
+   */
+  public String getPathPrefix() {
+    return pathPrefix;
+  }
+
+  /**
+   * Set the path prefix matched by the route, when several routes match a request the longest prefix wins.
+   *
+   * @param pathPrefix the prefix
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RouteOptions setPathPrefix(String pathPrefix) {
+    if (pathPrefix == null || !pathPrefix.startsWith("/")) {
+      throw new IllegalArgumentException("Path prefix must start with /");
+    }
+    this.pathPrefix = pathPrefix;
+    return this;
+  }
+
+  /**
+   * @return the methods matched by the route
+   */
+  public List<HttpMethod> getMethods() {
+    return methods;
+  }
+
+  /**
+   * Set the methods matched by the route. When empty the route matches any method.
+   *
+   * @param methods the methods
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RouteOptions setMethods(List<HttpMethod> methods) {
+    this.methods = methods;
+    return this;
+  }
+
+  /**
+   * Add a method matched by the route.
+   *
+   * @param method the method
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RouteOptions addMethod(HttpMethod method) {
+    methods.add(method);
+    return this;
+  }
+
+  /**
+   * @return the backend pool of the route
+   */
+  public BackendPoolOptions getPool() {
+    return pool;
+  }
+
+  /**
+   * Set the backend pool of the route.
+   *
+   * @param pool the backend pool options
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RouteOptions setPool(BackendPoolOptions pool) {
+    this.pool = pool;
+    return this;
+  }
+
+  /**
+   * @return the timeouts of the route
+   */
+  public TimeoutOptions getTimeouts() {
+    return timeouts;
+  }
+
+  /**
+   * Set the timeouts of the requests of the route. When {@code null} the proxy
+   * {@link HttpProxy#timeoutSelector(java.util.function.Function) timeouts} apply.
+   *
+   * @param timeouts the timeout options
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RouteOptions setTimeouts(TimeoutOptions timeouts) {
+    this.timeouts = timeouts;
+    return this;
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    if (name != null) {
+      json.put("name", name);
+    }
+    if (host != null) {
+      json.put("host", host);
+    }
+    json.put("pathPrefix", pathPrefix);
+    if (!methods.isEmpty()) {
+      JsonArray array = new JsonArray();
+      for (HttpMethod method : methods) {
+        array.add(method.name());
+      }
+      json.put("methods", array);
+    }
+    json.put("pool", pool.toJson());
+    if (timeouts != null) {
+      json.put("timeouts", timeouts.toJson());
+    }
+    return json;
+  }
+}
@@ -0,0 +1,62 @@
+package io.vertx.httpproxy;
+
+import io.vertx.codegen.annotations.Fluent;
+import io.vertx.codegen.annotations.VertxGen;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.httpproxy.impl.RouteTableImpl;
+
+/**
+ * A table of routes selecting the backend pool of the requests of a proxy.
+ *
+ * <p> A table is set on a proxy with {@link HttpProxy#routeTable(RouteTable)}. The routes can be replaced at any time,
+ * the requests in flight complete with the routes they were matched against. The backend pools of the routes
+ * which did not change are kept along with their state.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@VertxGen
+public interface RouteTable {
+
+  static RouteTable create(Vertx vertx) {
+    return new RouteTableImpl(vertx);
+  }
+
+  static RouteTable create(Vertx vertx, RouteTableOptions options) {
+    return new RouteTableImpl(vertx).update(options);
+  }
+
+  /**
+   * Replace the routes of the table.
+   *
+   * @param options the routes
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  RouteTable update(RouteTableOptions options);
+
+  /**
+   * Replace the routes of the table with the routes of a JSON file.
+   *
+   * @param path the file path
+   * @return a future completed when the routes are replaced or failed when the file is not valid
+   */
+  Future<Void> load(String path);
+
+  /**
+   * Load the routes of the table from a JSON file and reload them when the file is modified. An invalid file is
+   * ignored, the current routes are kept until the file is fixed.
+   *
+   * @param path the file path
+   * @param interval the interval between two checks of the file in ms
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  RouteTable watch(String path, long interval);
+
+  /**
+   * Close the table and the backend pools of its routes.
+   */
+  void close();
+
+}
@@ -0,0 +1,79 @@
+package io.vertx.httpproxy;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The routes of a {@link RouteTable}, the JSON form is the format of the route files.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@DataObject
+public class RouteTableOptions {
+
+  private List<RouteOptions> routes;
+
+  public RouteTableOptions() {
+    routes = new ArrayList<>();
+  }
+
+  public RouteTableOptions(RouteTableOptions other) {
+    routes = new ArrayList<>();
+    for (RouteOptions route : other.routes) {
+      routes.add(new RouteOptions(route));
+    }
+  }
+
+  public RouteTableOptions(JsonObject json) {
+    this();
+    JsonArray array = json.getJsonArray("routes");
+    if (array != null) {
+      for (int i = 0;i < array.size();i++) {
+        routes.add(new RouteOptions(array.getJsonObject(i)));
+      }
+    }
+  }
+
+  /**
+   * @return the routes
+   */
+  public List<RouteOptions> getRoutes() {
+    return routes;
+  }
+
+  /**
+   * Set the routes of the table.
+   *
+   * @param routes the routes
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RouteTableOptions setRoutes(List<RouteOptions> routes) {
+    this.routes = routes;
+    return this;
+  }
+
+  /**
+   * Add a route to the table.
+   *
+   * @param route the route
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RouteTableOptions addRoute(RouteOptions route) {
+    routes.add(route);
+    return this;
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    JsonArray array = new JsonArray();
+    for (RouteOptions route : routes) {
+      array.add(route.toJson());
+    }
+    json.put("routes", array);
+    return json;
+  }
+}
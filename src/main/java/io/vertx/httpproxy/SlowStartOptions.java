@@ -0,0 +1,126 @@
+package io.vertx.httpproxy;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Slow start options of a {@link BackendPool}.
+ *
+ * <p> A backend that becomes available, e.g after failing its health checks or after an ejection, has its weight
+ * ramped up from {@link #getMinWeightPercent()} to its full weight during the {@link #getWindow()}. The weight
+ * factor is {@code (elapsed / window) ^ (1 / aggression)}: an aggression of {@code 1} ramps linearly, a higher
+ * aggression ramps faster at the beginning of the window.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@DataObject
+public class SlowStartOptions {
+
+  /**
+   * Default window = 30000 ms
+   */
+  public static final long DEFAULT_WINDOW = 30_000;
+
+  /**
+   * Default aggression = 1 (linear)
+   */
+  public static final double DEFAULT_AGGRESSION = 1;
+
+  /**
+   * Default min weight percent = 10
+   */
+  public static final int DEFAULT_MIN_WEIGHT_PERCENT = 10;
+
+  private long window;
+  private double aggression;
+  private int minWeightPercent;
+
+  public SlowStartOptions() {
+    window = DEFAULT_WINDOW;
+    aggression = DEFAULT_AGGRESSION;
+    minWeightPercent = DEFAULT_MIN_WEIGHT_PERCENT;
+  }
+
+  public SlowStartOptions(SlowStartOptions other) {
+    window = other.window;
+    aggression = other.aggression;
+    minWeightPercent = other.minWeightPercent;
+  }
+
+  public SlowStartOptions(JsonObject json) {
+    window = json.getLong("window", DEFAULT_WINDOW);
+    aggression = json.getDouble("aggression", DEFAULT_AGGRESSION);
+    minWeightPercent = json.getInteger("minWeightPercent", DEFAULT_MIN_WEIGHT_PERCENT);
+  }
+
+  /**
+   * @return the slow start window in ms
+   */
+  public long getWindow() {
+    return window;
+  }
+
+  /**
+   * Set the time for a backend to reach its full weight.
+   *
+   * @param window the window in ms
+   * @return a reference to this, so the API can be used fluently
+   */
+  public SlowStartOptions setWindow(long window) {
+    if (window < 1) {
+      throw new IllegalArgumentException("Window must be > 0");
+    }
+    this.window = window;
+    return this;
+  }
+
+  /**
+   * @return the aggression of the ramp
+   */
+  public double getAggression() {
+    return aggression;
+  }
+
+  /**
+   * Set the aggression of the ramp, {@code 1} ramps the weight linearly.
+   *
+   * @param aggression the aggression
+   * @return a reference to this, so the API can be used fluently
+   */
+  public SlowStartOptions setAggression(double aggression) {
+    if (aggression <= 0) {
+      throw new IllegalArgumentException("Aggression must be > 0");
+    }
+    this.aggression = aggression;
+    return this;
+  }
+
+  /**
+   * @return the weight percentage of a backend at the beginning of the window
+   */
+  public int getMinWeightPercent() {
+    return minWeightPercent;
+  }
+
+  /**
+   * Set the weight percentage of a backend at the beginning of the window.
+   *
+   * @param minWeightPercent the percentage
+   * @return a reference to this, so the API can be used fluently
+   */
+  public SlowStartOptions setMinWeightPercent(int minWeightPercent) {
+    if (minWeightPercent < 1 || minWeightPercent > 100) {
+      throw new IllegalArgumentException("Min weight percent must be > 0 and <= 100");
+    }
+    this.minWeightPercent = minWeightPercent;
+    return this;
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    json.put("window", window);
+    json.put("aggression", aggression);
+    json.put("minWeightPercent", minWeightPercent);
+    return json;
+  }
+}
@@ -0,0 +1,181 @@
+package io.vertx.httpproxy;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Timeout options of the requests a {@link HttpProxy} sends to its backends, a timeout of {@code 0} is disabled.
+ *
+ * <p> A request that times out before the response headers are received is answered with {@code 504}. When the
+ * response is already being sent to the client, the client request and the backend request are reset.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@DataObject
+public class TimeoutOptions {
+
+  /**
+   * Default connect timeout = 0 (disabled)
+   */
+  public static final long DEFAULT_CONNECT_TIMEOUT = 0;
+
+  /**
+   * Default response timeout = 0 (disabled)
+   */
+  public static final long DEFAULT_RESPONSE_TIMEOUT = 0;
+
+  /**
+   * Default idle timeout = 0 (disabled)
+   */
+  public static final long DEFAULT_IDLE_TIMEOUT = 0;
+
+  /**
+   * Default deadline = 0 (disabled)
+   */
+  public static final long DEFAULT_DEADLINE = 0;
+
+  private long connectTimeout;
+  private long responseTimeout;
+  private long idleTimeout;
+  private long deadline;
+  private String deadlineHeader;
+
+  public TimeoutOptions() {
+    connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+    responseTimeout = DEFAULT_RESPONSE_TIMEOUT;
+    idleTimeout = DEFAULT_IDLE_TIMEOUT;
+    deadline = DEFAULT_DEADLINE;
+  }
+
+  public TimeoutOptions(TimeoutOptions other) {
+    connectTimeout = other.connectTimeout;
+    responseTimeout = other.responseTimeout;
+    idleTimeout = other.idleTimeout;
+    deadline = other.deadline;
+    deadlineHeader = other.deadlineHeader;
+  }
+
+  public TimeoutOptions(JsonObject json) {
+    connectTimeout = json.getLong("connectTimeout", DEFAULT_CONNECT_TIMEOUT);
+    responseTimeout = json.getLong("responseTimeout", DEFAULT_RESPONSE_TIMEOUT);
+    idleTimeout = json.getLong("idleTimeout", DEFAULT_IDLE_TIMEOUT);
+    deadline = json.getLong("deadline", DEFAULT_DEADLINE);
+    deadlineHeader = json.getString("deadlineHeader");
+  }
+
+  /**
+   * @return the connect timeout in ms
+   */
+  public long getConnectTimeout() {
+    return connectTimeout;
+  }
+
+  /**
+   * Set the time to obtain a connection to a backend.
+   *
+   * @param connectTimeout the timeout in ms
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TimeoutOptions setConnectTimeout(long connectTimeout) {
+    if (connectTimeout < 0) {
+      throw new IllegalArgumentException("Connect timeout must be >= 0");
+    }
+    this.connectTimeout = connectTimeout;
+    return this;
+  }
+
+  /**
+   * @return the response timeout in ms
+   */
+  public long getResponseTimeout() {
+    return responseTimeout;
+  }
+
+  /**
+   * Set the time to receive the first byte of the response of a backend once the request is sent.
+   *
+   * @param responseTimeout the timeout in ms
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TimeoutOptions setResponseTimeout(long responseTimeout) {
+    if (responseTimeout < 0) {
+      throw new IllegalArgumentException("Response timeout must be >= 0");
+    }
+    this.responseTimeout = responseTimeout;
+    return this;
+  }
+
+  /**
+   * @return the idle timeout in ms
+   */
+  public long getIdleTimeout() {
+    return idleTimeout;
+  }
+
+  /**
+   * Set the maximum time between two chunks of the response body of a backend. When disabled, the response
+   * timeout applies to the response body.
+   *
+   * @param idleTimeout the timeout in ms
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TimeoutOptions setIdleTimeout(long idleTimeout) {
+    if (idleTimeout < 0) {
+      throw new IllegalArgumentException("Idle timeout must be >= 0");
+    }
+    this.idleTimeout = idleTimeout;
+    return this;
+  }
+
+  /**
+   * @return the deadline in ms
+   */
+  public long getDeadline() {
+    return deadline;
+  }
+
+  /**
+   * Set the time to obtain the response headers from the backends, including retries and hedges.
+   *
+   * @param deadline the deadline in ms
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TimeoutOptions setDeadline(long deadline) {
+    if (deadline < 0) {
+      throw new IllegalArgumentException("Deadline must be >= 0");
+    }
+    this.deadline = deadline;
+    return this;
+  }
+
+  /**
+   * @return the deadline header name
+   */
+  public String getDeadlineHeader() {
+    return deadlineHeader;
+  }
+
+  /**
+   * Set the header carrying the time left before the deadline in ms. A deadline received from the client in this
+   * header is honored, the time left is sent to the backends so they can abandon the requests that expired.
+   *
+   * @param deadlineHeader the header name or {@code null} to not propagate the deadline
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TimeoutOptions setDeadlineHeader(String deadlineHeader) {
+    this.deadlineHeader = deadlineHeader;
+    return this;
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    json.put("connectTimeout", connectTimeout);
+    json.put("responseTimeout", responseTimeout);
+    json.put("idleTimeout", idleTimeout);
+    json.put("deadline", deadline);
+    if (deadlineHeader != null) {
+      json.put("deadlineHeader", deadlineHeader);
+    }
+    return json;
+  }
+}
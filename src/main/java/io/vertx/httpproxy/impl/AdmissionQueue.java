@@ -0,0 +1,90 @@
+package io.vertx.httpproxy.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxException;
+import io.vertx.httpproxy.AdmissionOptions;
+import io.vertx.httpproxy.RequestPriority;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Limits the requests a proxy sends concurrently to the backends, the other requests wait in a queue
+ * per priority class. It is used from the proxy event loop only.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class AdmissionQueue {
+
+  /**
+   * The failure of a request that is not admitted.
+   */
+  static final VertxException REJECTED = new VertxException("Request rejected", true);
+
+  private final Vertx vertx;
+  private final AdmissionOptions options;
+  private final Deque<Waiter> high = new ArrayDeque<>();
+  private final Deque<Waiter> normal = new ArrayDeque<>();
+  private int admitted;
+
+  AdmissionQueue(Vertx vertx, AdmissionOptions options) {
+    this.vertx = vertx;
+    this.options = new AdmissionOptions(options);
+  }
+
+  /**
+   * Admit a request, the future is failed with {@link #REJECTED} when the request cannot be queued or
+   * waits too long. An admitted request must be reported with {@link #release()}.
+   */
+  Future<Void> admit(RequestPriority priority) {
+    if (admitted < options.getMaxConcurrency() && high.isEmpty() && normal.isEmpty()) {
+      admitted++;
+      return Future.succeededFuture();
+    }
+    if (priority == RequestPriority.LOW) {
+      return Future.failedFuture(REJECTED);
+    }
+    if (high.size() + normal.size() >= options.getMaxQueueSize()) {
+      if (priority == RequestPriority.HIGH && !normal.isEmpty()) {
+        // Shed the latest normal request in favor of this one
+        Waiter evicted = normal.pollLast();
+        vertx.cancelTimer(evicted.timerId);
+        evicted.promise.fail(REJECTED);
+      } else {
+        return Future.failedFuture(REJECTED);
+      }
+    }
+    Deque<Waiter> queue = priority == RequestPriority.HIGH ? high : normal;
+    Waiter waiter = new Waiter();
+    queue.add(waiter);
+    waiter.timerId = vertx.setTimer(options.getMaxQueueWait(), id -> {
+      if (queue.remove(waiter)) {
+        waiter.promise.fail(REJECTED);
+      }
+    });
+    return waiter.promise.future();
+  }
+
+  /**
+   * Release an admitted request, the next waiting request is admitted.
+   */
+  void release() {
+    admitted--;
+    Waiter waiter = high.poll();
+    if (waiter == null) {
+      waiter = normal.poll();
+    }
+    if (waiter != null) {
+      admitted++;
+      vertx.cancelTimer(waiter.timerId);
+      waiter.promise.complete();
+    }
+  }
+
+  private static class Waiter {
+    private final Promise<Void> promise = Promise.promise();
+    private long timerId;
+  }
+}
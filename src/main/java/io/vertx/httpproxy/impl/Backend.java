@@ -0,0 +1,204 @@
+package io.vertx.httpproxy.impl;
+
+import io.vertx.core.net.SocketAddress;
+import io.vertx.httpproxy.BackendOptions;
+import io.vertx.httpproxy.BackendPoolOptions;
+import io.vertx.httpproxy.SlowStartOptions;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A backend of a pool along with the statistics the load balancers use.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class Backend {
+
+  /**
+   * The weight of a sample in the latency moving average.
+   */
+  private static final double ALPHA = 0.25;
+
+  final SocketAddress address;
+  // The configured host name and port, the address is the resolved address of the host name
+  final String host;
+  final int port;
+  final int weight;
+  final String zone;
+  final int priority;
+
+  // Opaque identifier of the backend, e.g in affinity cookies, derived from the address hash
+  final long seed;
+  final String id;
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  // Concurrency limit, the waiters are guarded by the queue
+  final ConcurrencyLimiter limiter;
+  final Deque<Runnable> waiters = new ArrayDeque<>();
+
+  // Smooth weighted round robin state, guarded by the balancer
+  double currentWeight;
+
+  // Slow start, the time the backend became available or 0 when it has its full weight
+  private final SlowStartOptions slowStart;
+  private volatile long availableSince;
+
+  // Active health check state, modified by the checker only
+  volatile boolean healthy = true;
+  int healthCheckSuccesses;
+  int healthCheckFailures;
+
+  // Outlier detection state, the ejection state is guarded by the detector
+  final AtomicInteger consecutiveServerErrors = new AtomicInteger();
+  final AtomicInteger consecutiveConnectionFailures = new AtomicInteger();
+  volatile boolean ejected;
+  long ejectedUntil;
+  int ejections;
+
+  // Latency moving average, guarded by this
+  private double latency;
+
+  // The failures since the last response, the latency of a failure is not sampled
+  private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+  Backend(BackendOptions options, BackendPoolOptions poolOptions) {
+    this(options, options.address(), poolOptions);
+  }
+
+  /**
+   * @param address the address the backend is connected to, e.g a resolved address of the configured host name
+   */
+  Backend(BackendOptions options, SocketAddress address, BackendPoolOptions poolOptions) {
+    this.address = address;
+    this.host = options.getHost();
+    this.port = options.getPort();
+    this.weight = options.getWeight();
+    this.zone = options.getZone();
+    this.priority = options.getPriority();
+    this.seed = Hashing.hash(address.toString());
+    this.id = Long.toHexString(Hashing.mix(seed));
+    this.limiter = poolOptions.getConcurrencyLimit() != null ? new ConcurrencyLimiter(poolOptions.getConcurrencyLimit()) : null;
+    this.slowStart = poolOptions.getSlowStart();
+  }
+
+  /**
+   * @return whether the backend can be selected
+   */
+  boolean available() {
+    return healthy && !ejected;
+  }
+
+  /**
+   * Start the slow start window of the backend, e.g when it becomes available again.
+   */
+  void startSlowStart() {
+    if (slowStart != null) {
+      long now = System.nanoTime();
+      // 0 means no slow start
+      availableSince = now != 0 ? now : 1;
+    }
+  }
+
+  /**
+   * @return the weight of the backend ramped up during the slow start window
+   */
+  double effectiveWeight() {
+    long since = availableSince;
+    if (since == 0) {
+      return weight;
+    }
+    long elapsed = System.nanoTime() - since;
+    long window = TimeUnit.MILLISECONDS.toNanos(slowStart.getWindow());
+    if (elapsed >= window) {
+      availableSince = 0;
+      return weight;
+    }
+    double factor = Math.pow((double) elapsed / window, 1 / slowStart.getAggression());
+    return weight * Math.max(slowStart.getMinWeightPercent() / 100.0, factor);
+  }
+
+  int inFlight() {
+    return inFlight.get();
+  }
+
+  /**
+   * @return the exponentially weighted moving average of the response latency in nanoseconds
+   */
+  synchronized double latency() {
+    return latency;
+  }
+
+  /**
+   * Acquire a request slot, the request must then be reported with {@link #requestEnded(long)} or
+   * {@link #requestFailed(boolean)}.
+   *
+   * @return whether the request is within the concurrency limit
+   */
+  boolean tryAcquire() {
+    if (limiter == null) {
+      inFlight.incrementAndGet();
+      return true;
+    }
+    int limit = limiter.limit();
+    while (true) {
+      int current = inFlight.get();
+      if (current >= limit) {
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * A request that received a response, its latency is sampled.
+   */
+  void requestEnded(long startTime) {
+    int current = inFlight.decrementAndGet();
+    consecutiveFailures.set(0);
+    long rtt = System.nanoTime() - startTime;
+    sample(rtt);
+    if (limiter != null) {
+      limiter.sample(rtt, current + 1);
+    }
+  }
+
+  /**
+   * A request that failed or did not obtain a connection, it does not contribute to the latency: a backend failing
+   * fast would otherwise look like the fastest one.
+   *
+   * @param blamed whether the backend is responsible for the failure, i.e the request was not cancelled by the proxy
+   */
+  void requestFailed(boolean blamed) {
+    inFlight.decrementAndGet();
+    if (blamed) {
+      consecutiveFailures.incrementAndGet();
+    }
+  }
+
+  /**
+   * @return the number of failures since the last response of the backend
+   */
+  int consecutiveFailures() {
+    return consecutiveFailures.get();
+  }
+
+  /**
+   * Forget the latency, e.g when the backend returns from an ejection.
+   */
+  synchronized void resetLatency() {
+    latency = 0;
+  }
+
+  private synchronized void sample(long value) {
+    if (latency == 0) {
+      latency = value;
+    } else {
+      latency += ALPHA * (value - latency);
+    }
+  }
+}
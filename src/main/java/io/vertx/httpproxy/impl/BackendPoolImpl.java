@@ -0,0 +1,494 @@
+package io.vertx.httpproxy.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxException;
+import io.vertx.core.http.Cookie;
+import io.vertx.core.http.Http2Settings;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.httpproxy.BackendOptions;
+import io.vertx.httpproxy.BackendPool;
+import io.vertx.httpproxy.BackendPoolOptions;
+import io.vertx.httpproxy.ConcurrencyLimitOptions;
+import io.vertx.httpproxy.HedgeOptions;
+import io.vertx.httpproxy.Http2Options;
+import io.vertx.httpproxy.RetryOptions;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The pool is shared between event loops, the lists of backends are never modified: changes replace them.
+ *
+ * <p> The available backends are grouped by priority and zone in a {@link Topology}, its lists are the same instances
+ * until a backend becomes available or unavailable, load balancers can keep state derived from them.
+ *
+ * <p> When the pool resolves the backend host names, each address of a host is a backend, the backends of the
+ * addresses still resolved are kept with their statistics when the resolution changes.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class BackendPoolImpl implements BackendPool {
+
+  /**
+   * The failure reported for a backend request reset by the proxy, e.g the slowest request of a hedge.
+   */
+  static final VertxException CANCELLED = new VertxException("Request cancelled", true);
+
+  /**
+   * The failure of a request exceeding the concurrency limit of a backend.
+   */
+  static final VertxException OVERLOADED = new VertxException("Backend overloaded", true);
+
+  private final Vertx vertx;
+  private final BackendPoolOptions options;
+  private final HttpClient client;
+  private final LoadBalancer loadBalancer;
+  private volatile List<Backend> backends;
+  private volatile Topology topology;
+  private HealthChecker healthChecker;
+  private final OutlierDetector outlierDetector;
+  private final RequestBudget retryBudget;
+  private final RequestBudget hedgeBudget;
+  private final LatencyPercentile hedgeLatency;
+  private final SessionAffinity affinity;
+  private final BackendResolver resolver;
+  private final List<List<Backend>> resolved;
+  private long resolveTimerId = -1L;
+  private boolean outlierDetectorStarted;
+  private volatile boolean closed;
+  private List<Backend> closing;
+
+  public BackendPoolImpl(Vertx vertx, BackendPoolOptions options) {
+    List<Backend> list = new ArrayList<>();
+    List<List<Backend>> resolved = new ArrayList<>();
+    boolean hostNames = false;
+    for (BackendOptions backend : options.getBackends()) {
+      Backend b = new Backend(backend, options);
+      list.add(b);
+      resolved.add(Collections.singletonList(b));
+      hostNames |= BackendResolver.isHostName(backend.getHost());
+    }
+    this.vertx = vertx;
+    this.options = new BackendPoolOptions(options);
+    this.loadBalancer = LoadBalancer.create(options);
+    this.backends = Collections.unmodifiableList(list);
+    this.topology = new Topology(this.backends, this.options);
+    this.outlierDetector = options.getOutlierDetection() != null
+      ? new OutlierDetector(vertx, options.getOutlierDetection(), () -> backends, this::availabilityChanged)
+      : null;
+    RetryOptions retry = options.getRetry();
+    this.retryBudget = retry != null ? new RequestBudget(retry.getBudgetRatio(), retry.getBudgetCapacity()) : null;
+    HedgeOptions hedge = options.getHedge();
+    this.hedgeBudget = hedge != null ? new RequestBudget(hedge.getBudgetRatio(), hedge.getBudgetCapacity()) : null;
+    this.hedgeLatency = hedge != null && hedge.getPercentile() > 0 ? new LatencyPercentile(hedge.getPercentile()) : null;
+    this.affinity = options.getAffinity() != null ? new SessionAffinity(options.getAffinity()) : null;
+    this.client = options.getHttp2() != null ? vertx.createHttpClient(http2ClientOptions(options.getHttp2())) : null;
+    this.resolved = resolved;
+    if (options.getDns() != null && hostNames) {
+      // Until the first resolution completes, the client resolves the host names
+      resolver = new BackendResolver(vertx, options.getDns());
+      resolveTimerId = vertx.setPeriodic(options.getDns().getRefreshInterval(), id -> resolve());
+      resolve();
+    } else {
+      resolver = null;
+    }
+  }
+
+  private static HttpClientOptions http2ClientOptions(Http2Options http2) {
+    HttpClientOptions options = new HttpClientOptions()
+      .setProtocolVersion(HttpVersion.HTTP_2)
+      .setHttp2MaxPoolSize(http2.getMaxConnections())
+      .setHttp2MultiplexingLimit(http2.getMaxConcurrentStreams())
+      .setHttp2ConnectionWindowSize(http2.getConnectionWindowSize())
+      .setInitialSettings(new Http2Settings().setInitialWindowSize(http2.getInitialWindowSize()));
+    if (http2.isSsl()) {
+      options.setSsl(true).setUseAlpn(true).setTrustAll(http2.isTrustAll()).setVerifyHost(!http2.isTrustAll());
+    } else {
+      // Prior knowledge
+      options.setHttp2ClearTextUpgrade(false);
+    }
+    return options;
+  }
+
+  /**
+   * @return the client sending the requests to the backends or {@code null} when the client of the proxy is used
+   */
+  HttpClient client() {
+    return client;
+  }
+
+  /**
+   * @return the retry options or {@code null} when requests are not retried
+   */
+  RetryOptions retryOptions() {
+    return options.getRetry();
+  }
+
+  RequestBudget retryBudget() {
+    return retryBudget;
+  }
+
+  /**
+   * @return the hedging options or {@code null} when requests are not hedged
+   */
+  HedgeOptions hedgeOptions() {
+    return options.getHedge();
+  }
+
+  RequestBudget hedgeBudget() {
+    return hedgeBudget;
+  }
+
+  /**
+   * @return the hedge delay in ms
+   */
+  long hedgeDelay() {
+    if (hedgeLatency != null) {
+      long value = hedgeLatency.value();
+      if (value >= 0) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(value));
+      }
+    }
+    return options.getHedge().getDelay();
+  }
+
+  /**
+   * Attach the pool to the client of a proxy, the health checks use the client of the pool or the client
+   * of the first proxy.
+   */
+  synchronized void attach(HttpClient client) {
+    if (closed) {
+      return;
+    }
+    if (healthChecker == null && options.getHealthCheck() != null) {
+      healthChecker = new HealthChecker(vertx, this.client != null ? this.client : client, options.getHealthCheck(), () -> backends, this::availabilityChanged);
+      healthChecker.start();
+    }
+    if (outlierDetector != null && !outlierDetectorStarted) {
+      outlierDetectorStarted = true;
+      outlierDetector.start();
+    }
+  }
+
+  /**
+   * Acquire a request slot of a backend. When the backend exceeds its concurrency limit the request waits
+   * for a slot, the future is failed with {@link #OVERLOADED} when the queue is full or the wait is too long.
+   *
+   * <p> The future completes on the caller context, the request must then be reported with
+   * {@link #requestEnded} or {@link #connectionFailed}.
+   */
+  Future<Void> acquire(Backend backend) {
+    if (backend.tryAcquire()) {
+      return Future.succeededFuture();
+    }
+    ConcurrencyLimitOptions limit = options.getConcurrencyLimit();
+    Waiter waiter = new Waiter(vertx.getOrCreateContext());
+    synchronized (backend.waiters) {
+      if (backend.waiters.size() >= limit.getMaxQueueSize()) {
+        return Future.failedFuture(OVERLOADED);
+      }
+      // A slot might have been released meanwhile
+      if (backend.tryAcquire()) {
+        return Future.succeededFuture();
+      }
+      backend.waiters.add(waiter);
+    }
+    waiter.timerId = vertx.setTimer(limit.getMaxQueueWait(), id -> {
+      boolean removed;
+      synchronized (backend.waiters) {
+        removed = backend.waiters.remove(waiter);
+      }
+      if (removed) {
+        waiter.promise.fail(OVERLOADED);
+      }
+    });
+    return waiter.promise.future();
+  }
+
+  /**
+   * Hand the released slots of a backend to the waiting requests.
+   */
+  private void release(Backend backend) {
+    if (backend.limiter == null) {
+      return;
+    }
+    while (true) {
+      Runnable waiter;
+      synchronized (backend.waiters) {
+        if (backend.waiters.isEmpty() || !backend.tryAcquire()) {
+          return;
+        }
+        waiter = backend.waiters.poll();
+      }
+      waiter.run();
+    }
+  }
+
+  /**
+   * Report the end of a request sent to a backend.
+   */
+  void requestEnded(Backend backend, long startTime, AsyncResult<HttpClientResponse> ar) {
+    if (ar.failed() && ar.cause() == CANCELLED) {
+      backend.requestFailed(false);
+      release(backend);
+      if (closed) {
+        closeClient();
+      }
+      return;
+    }
+    if (ar.succeeded()) {
+      backend.requestEnded(startTime);
+    } else {
+      // Resets, connection drops and backend failures
+      backend.requestFailed(true);
+    }
+    release(backend);
+    if (closed) {
+      closeClient();
+    }
+    if (hedgeLatency != null && ar.succeeded()) {
+      hedgeLatency.record(System.nanoTime() - startTime);
+    }
+    if (outlierDetector != null) {
+      if (ar.succeeded()) {
+        outlierDetector.reportResponse(backend, ar.result().statusCode());
+      } else {
+        outlierDetector.reportServerError(backend);
+      }
+    }
+  }
+
+  /**
+   * Report a request that could not obtain a connection to a backend.
+   */
+  void connectionFailed(Backend backend) {
+    backend.requestFailed(true);
+    release(backend);
+    if (closed) {
+      closeClient();
+    }
+    if (outlierDetector != null) {
+      outlierDetector.reportConnectionFailure(backend);
+    }
+  }
+
+  /**
+   * Resolve the host names of the backends.
+   */
+  private void resolve() {
+    List<Future<List<InetAddress>>> futures = new ArrayList<>();
+    for (BackendOptions backend : options.getBackends()) {
+      String host = backend.getHost();
+      futures.add(BackendResolver.isHostName(host) ? resolver.resolve(host) : Future.succeededFuture());
+    }
+    CompositeFuture.join(new ArrayList<>(futures)).onComplete(ar -> resolved(futures));
+  }
+
+  /**
+   * Update the backends from the resolution of their host names, a host that could not be resolved keeps
+   * its previous backends.
+   */
+  private synchronized void resolved(List<Future<List<InetAddress>>> results) {
+    if (closed) {
+      return;
+    }
+    Map<String, Backend> current = new HashMap<>();
+    for (Backend backend : backends) {
+      current.put(backend.address.toString(), backend);
+    }
+    Map<String, Backend> next = new LinkedHashMap<>();
+    List<BackendOptions> list = options.getBackends();
+    for (int i = 0;i < list.size();i++) {
+      Future<List<InetAddress>> result = results.get(i);
+      if (result.succeeded() && result.result() != null && !result.result().isEmpty()) {
+        List<Backend> group = new ArrayList<>();
+        for (InetAddress address : result.result()) {
+          BackendOptions backendOptions = list.get(i);
+          SocketAddress resolvedAddress = SocketAddress.inetSocketAddress(backendOptions.getPort(), address.getHostAddress());
+          String key = resolvedAddress.toString();
+          Backend backend = next.get(key);
+          if (backend == null) {
+            backend = current.get(key);
+            if (backend == null) {
+              backend = new Backend(backendOptions, resolvedAddress, options);
+            }
+          }
+          group.add(backend);
+        }
+        resolved.set(i, group);
+      }
+      for (Backend backend : resolved.get(i)) {
+        next.putIfAbsent(backend.address.toString(), backend);
+      }
+    }
+    List<Backend> nextBackends = new ArrayList<>(next.values());
+    if (!nextBackends.equals(backends)) {
+      backends = Collections.unmodifiableList(nextBackends);
+      availabilityChanged();
+    }
+  }
+
+  /**
+   * Recompute the available backends, the backends becoming available start their slow start window.
+   */
+  synchronized void availabilityChanged() {
+    List<Backend> previous = topology.available;
+    Topology next = new Topology(backends, options);
+    for (Backend backend : next.available) {
+      if (!previous.contains(backend)) {
+        backend.startSlowStart();
+      }
+    }
+    topology = next;
+  }
+
+  /**
+   * Select the backend of a request.
+   *
+   * @return the backend or {@code null} when none is available
+   */
+  Backend select(HttpServerRequest request) {
+    if (affinity != null) {
+      Backend backend = affinity.lookup(request, backends);
+      if (backend != null) {
+        return backend;
+      }
+    }
+    List<Backend> list = topology.route();
+    if (list == null) {
+      return null;
+    }
+    return loadBalancer.select(request, list);
+  }
+
+  /**
+   * Select the backend of a request retry, a backend that was not tried is preferred.
+   *
+   * @param tried the backends already tried
+   * @return the backend or {@code null} when none is available
+   */
+  Backend select(HttpServerRequest request, List<Backend> tried) {
+    if (affinity != null) {
+      Backend backend = affinity.lookup(request, backends);
+      if (backend != null && !tried.contains(backend)) {
+        return backend;
+      }
+    }
+    Topology t = topology;
+    List<Backend> list = t.route();
+    if (list == null) {
+      return null;
+    }
+    Backend backend = loadBalancer.select(request, list);
+    if (tried.contains(backend)) {
+      // Any zone or priority
+      list = t.available;
+      int size = list.size();
+      int offset = ThreadLocalRandom.current().nextInt(size);
+      for (int i = 0;i < size;i++) {
+        Backend other = list.get((offset + i) % size);
+        if (!tried.contains(other)) {
+          return other;
+        }
+      }
+    }
+    return backend;
+  }
+
+  /**
+   * @return the affinity cookie to set on the response of a request sent to a backend or {@code null}
+   */
+  Cookie affinityCookie(HttpServerRequest request, Backend backend) {
+    if (affinity == null || affinity.cookie() == null || backend.id.equals(affinity.backendId(request))) {
+      return null;
+    }
+    return Cookie.cookie(affinity.cookie(), backend.id).setPath("/").setHttpOnly(true);
+  }
+
+  @Override
+  public List<SocketAddress> backends() {
+    List<SocketAddress> addresses = new ArrayList<>();
+    for (Backend backend : backends) {
+      addresses.add(backend.address);
+    }
+    return addresses;
+  }
+
+  @Override
+  public synchronized void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (healthChecker != null) {
+      healthChecker.close();
+      healthChecker = null;
+    }
+    if (outlierDetector != null) {
+      outlierDetector.close();
+    }
+    if (resolver != null) {
+      vertx.cancelTimer(resolveTimerId);
+      resolver.close();
+    }
+    closing = backends;
+    backends = Collections.emptyList();
+    topology = new Topology(backends, options);
+    closeClient();
+  }
+
+  /**
+   * Close the client of the closed pool once the requests in flight completed.
+   */
+  private synchronized void closeClient() {
+    if (client == null || closing == null) {
+      return;
+    }
+    for (Backend backend : closing) {
+      if (backend.inFlight() > 0) {
+        return;
+      }
+    }
+    closing = null;
+    client.close();
+  }
+
+  /**
+   * A request waiting for a slot, the slot is acquired when the waiter runs.
+   */
+  private class Waiter implements Runnable {
+
+    private final Context context;
+    private final Promise<Void> promise = Promise.promise();
+    private long timerId;
+
+    Waiter(Context context) {
+      this.context = context;
+    }
+
+    @Override
+    public void run() {
+      context.runOnContext(v -> {
+        vertx.cancelTimer(timerId);
+        promise.complete();
+      });
+    }
+  }
+}
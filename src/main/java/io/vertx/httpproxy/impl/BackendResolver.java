@@ -0,0 +1,78 @@
+package io.vertx.httpproxy.impl;
+
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.resolver.dns.DnsNameResolver;
+import io.netty.resolver.dns.DnsNameResolverBuilder;
+import io.netty.util.NetUtil;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.httpproxy.DnsOptions;
+
+import java.net.InetAddress;
+import java.util.List;
+
+/**
+ * Resolves the host names of the backends of a pool.
+ *
+ * <p> The resolver caches the records for their time to live, a resolution of a cached host does not query
+ * the DNS servers. The resolver uses a Vert.x event loop, or its own when Vert.x uses a native transport.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class BackendResolver {
+
+  /**
+   * @return whether the host must be resolved, i.e it is not an IP address
+   */
+  static boolean isHostName(String host) {
+    return host != null && !NetUtil.isValidIpV4Address(host) && !NetUtil.isValidIpV6Address(host);
+  }
+
+  private final EventLoopGroup group;
+  private final DnsNameResolver resolver;
+
+  BackendResolver(Vertx vertx, DnsOptions options) {
+    EventLoop eventLoop;
+    if (vertx.isNativeTransportEnabled()) {
+      group = new NioEventLoopGroup(1);
+      eventLoop = group.next();
+    } else {
+      group = null;
+      eventLoop = vertx.nettyEventLoopGroup().next();
+    }
+    resolver = new DnsNameResolverBuilder(eventLoop)
+      .channelType(NioDatagramChannel.class)
+      .ttl(options.getMinTtl(), options.getMaxTtl())
+      .negativeTtl(options.getMinTtl())
+      .build();
+  }
+
+  /**
+   * Resolve all the IPv4 and IPv6 addresses of a host.
+   *
+   * @return the addresses, the future completes on the resolver event loop
+   */
+  Future<List<InetAddress>> resolve(String host) {
+    Promise<List<InetAddress>> promise = Promise.promise();
+    io.netty.util.concurrent.Future<List<InetAddress>> fut = resolver.resolveAll(host);
+    fut.addListener(v -> {
+      if (fut.isSuccess()) {
+        promise.complete(fut.getNow());
+      } else {
+        promise.fail(fut.cause());
+      }
+    });
+    return promise.future();
+  }
+
+  void close() {
+    resolver.close();
+    if (group != null) {
+      group.shutdownGracefully();
+    }
+  }
+}
@@ -8,10 +8,16 @@ class BufferingReadStream implements ReadStream<Buffer> {
 
   private final ReadStream<Buffer> stream;
   private final Buffer content;
+  private final XXHash64 hash;
 
   public BufferingReadStream(ReadStream<Buffer> stream, Buffer content) {
+    this(stream, content, null);
+  }
+
+  public BufferingReadStream(ReadStream<Buffer> stream, Buffer content, XXHash64 hash) {
     this.stream = stream;
     this.content = content;
+    this.hash = hash;
   }
 
   @Override
@@ -25,6 +31,9 @@ class BufferingReadStream implements ReadStream<Buffer> {
     if (handler != null) {
       stream.handler(buff -> {
         content.appendBuffer(buff);
+        if (hash != null) {
+          hash.update(buff);
+        }
         handler.handle(buff);
       });
     } else {
@@ -0,0 +1,141 @@
+package io.vertx.httpproxy.impl;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.httpproxy.DnsOptions;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The proxies sharing their caches, each cache key is owned by a single proxy.
+ *
+ * <p> The owner is determined with rendezvous hashing, adding or removing a proxy only remaps the keys
+ * this proxy owns.
+ *
+ * <p> The host names of the peers are resolved asynchronously and refreshed periodically, so a peer whose address
+ * changes is trusted again. Until the first resolution completes the peers are only recognized by their IP address.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class CachePeers {
+
+  private final Vertx vertx;
+  private final SocketAddress self;
+  private final SocketAddress[] peers;
+  private final long[] hashes;
+  private final Set<String> hostNames = new LinkedHashSet<>();
+  private final Map<String, List<String>> resolved = new HashMap<>();
+  private final BackendResolver resolver;
+  private volatile Set<String> hosts;
+  private long timerId = -1L;
+  private boolean closed;
+
+  CachePeers(Vertx vertx, SocketAddress self, List<SocketAddress> peers) {
+    this.vertx = vertx;
+    this.self = self;
+    this.peers = peers.toArray(new SocketAddress[0]);
+    this.hashes = new long[this.peers.length];
+    Set<String> hosts = new HashSet<>();
+    for (int i = 0;i < this.peers.length;i++) {
+      hashes[i] = Hashing.hash(this.peers[i].toString());
+      String host = this.peers[i].host();
+      hosts.add(host);
+      if (BackendResolver.isHostName(host)) {
+        hostNames.add(host);
+      }
+    }
+    this.hosts = Collections.unmodifiableSet(hosts);
+    if (hostNames.isEmpty()) {
+      resolver = null;
+    } else {
+      DnsOptions options = new DnsOptions();
+      resolver = new BackendResolver(vertx, options);
+      timerId = vertx.setPeriodic(options.getRefreshInterval(), id -> resolve());
+      resolve();
+    }
+  }
+
+  /**
+   * Resolve the host names of the peers, a host that could not be resolved keeps its previous addresses.
+   */
+  private void resolve() {
+    List<String> names = new ArrayList<>(hostNames);
+    List<Future<List<InetAddress>>> futures = new ArrayList<>();
+    for (String name : names) {
+      futures.add(resolver.resolve(name));
+    }
+    CompositeFuture.join(new ArrayList<>(futures)).onComplete(ar -> resolved(names, futures));
+  }
+
+  private synchronized void resolved(List<String> names, List<Future<List<InetAddress>>> results) {
+    if (closed) {
+      return;
+    }
+    for (int i = 0;i < names.size();i++) {
+      Future<List<InetAddress>> result = results.get(i);
+      if (result.succeeded() && result.result() != null) {
+        List<String> addresses = new ArrayList<>();
+        for (InetAddress address : result.result()) {
+          addresses.add(address.getHostAddress());
+        }
+        resolved.put(names.get(i), addresses);
+      }
+    }
+    Set<String> next = new HashSet<>();
+    for (SocketAddress peer : peers) {
+      next.add(peer.host());
+    }
+    resolved.values().forEach(next::addAll);
+    hosts = Collections.unmodifiableSet(next);
+  }
+
+  /**
+   * @return whether a request comes from one of the peers, only such a request is trusted to be a peer request
+   */
+  boolean isPeer(SocketAddress remoteAddress) {
+    return remoteAddress != null && remoteAddress.host() != null && hosts.contains(remoteAddress.host());
+  }
+
+  /**
+   * Stop refreshing the addresses of the peers.
+   */
+  synchronized void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (timerId != -1L) {
+      vertx.cancelTimer(timerId);
+    }
+    if (resolver != null) {
+      resolver.close();
+    }
+  }
+
+  /**
+   * @return the peer owning the {@code key} or {@code null} when this proxy owns it
+   */
+  SocketAddress owner(String key) {
+    long hash = Hashing.hash(key);
+    SocketAddress owner = null;
+    long max = 0L;
+    for (int i = 0;i < peers.length;i++) {
+      long score = Hashing.mix(hash ^ hashes[i]);
+      if (owner == null || Long.compareUnsigned(score, max) > 0) {
+        owner = peers[i];
+        max = score;
+      }
+    }
+    return owner == null || owner.equals(self) ? null : owner;
+  }
+}
@@ -0,0 +1,183 @@
+package io.vertx.httpproxy.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.core.impl.logging.Logger;
+import io.vertx.core.impl.logging.LoggerFactory;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.httpproxy.CacheWarmer;
+import io.vertx.httpproxy.CacheWarmerOptions;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class CacheWarmerImpl implements CacheWarmer {
+
+  private static final Logger log = LoggerFactory.getLogger(CacheWarmerImpl.class);
+
+  private static final Pattern LOC = Pattern.compile("<loc>\\s*([^<\\s]+)\\s*</loc>");
+
+  private final Vertx vertx;
+  private final Context context;
+  private final CacheWarmerOptions options;
+  private final SocketAddress proxyAddress;
+  private final HttpClient client;
+  private long timerId = -1L;
+  private boolean warming;
+
+  public CacheWarmerImpl(Vertx vertx, CacheWarmerOptions options) {
+    this.vertx = vertx;
+    this.context = vertx.getOrCreateContext();
+    this.options = new CacheWarmerOptions(options);
+    this.proxyAddress = SocketAddress.inetSocketAddress(options.getProxyPort(), options.getProxyHost());
+    this.client = vertx.createHttpClient(new HttpClientOptions().setMaxPoolSize(options.getMaxConcurrency()));
+  }
+
+  @Override
+  public Future<Void> warm() {
+    Promise<Void> promise = Promise.promise();
+    context.runOnContext(v -> {
+      urls().compose(this::warm).onComplete(promise);
+    });
+    return promise.future();
+  }
+
+  @Override
+  public CacheWarmer start() {
+    context.runOnContext(v -> {
+      tryWarm();
+      if (options.getPeriod() > 0) {
+        timerId = vertx.setPeriodic(options.getPeriod(), id -> tryWarm());
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public void close() {
+    context.runOnContext(v -> {
+      if (timerId != -1L) {
+        vertx.cancelTimer(timerId);
+        timerId = -1L;
+      }
+      client.close();
+    });
+  }
+
+  private void tryWarm() {
+    // Skip the pass when the previous one is still running
+    if (!warming) {
+      warming = true;
+      urls().compose(this::warm).onComplete(ar -> warming = false);
+    }
+  }
+
+  private Future<List<String>> urls() {
+    List<String> urls = new ArrayList<>(options.getUrls());
+    if (options.getManifest() == null) {
+      return Future.succeededFuture(urls);
+    }
+    return vertx.fileSystem().readFile(options.getManifest()).map(content -> {
+      urls.addAll(parseManifest(content.toString()));
+      return urls;
+    });
+  }
+
+  static List<String> parseManifest(String content) {
+    List<String> urls = new ArrayList<>();
+    if (content.contains("<loc>")) {
+      Matcher matcher = LOC.matcher(content);
+      while (matcher.find()) {
+        urls.add(matcher.group(1).replace("&amp;", "&"));
+      }
+    } else {
+      for (String line : content.split("\\r?\\n")) {
+        line = line.trim();
+        if (line.length() > 0 && !line.startsWith("#")) {
+          urls.add(line);
+        }
+      }
+    }
+    return urls;
+  }
+
+  private Future<Void> warm(List<String> urls) {
+    Promise<Void> promise = Promise.promise();
+    new Pass(urls.iterator(), promise).next();
+    return promise.future();
+  }
+
+  private Future<Void> fetch(String url) {
+    RequestOptions requestOptions;
+    try {
+      URI uri = new URI(url);
+      if (!"http".equals(uri.getScheme())) {
+        // The proxy is reached in clear text, the entry would not be the one looked up by a TLS client
+        log.warn("Skipping the warming of " + url + ", only http URLs can be warmed");
+        return Future.succeededFuture();
+      }
+      int port = uri.getPort();
+      if (port == -1) {
+        port = 80;
+      }
+      String path = uri.getRawPath();
+      if (path == null || path.isEmpty()) {
+        path = "/";
+      }
+      if (uri.getRawQuery() != null) {
+        path += "?" + uri.getRawQuery();
+      }
+      requestOptions = new RequestOptions()
+        .setMethod(HttpMethod.GET)
+        .setServer(proxyAddress)
+        .setHost(uri.getHost())
+        .setPort(port)
+        .setURI(path);
+    } catch (Exception e) {
+      return Future.failedFuture(e);
+    }
+    return client.request(requestOptions).compose(req -> req.send().compose(resp -> resp.end()));
+  }
+
+  /**
+   * A warming pass, at most {@code maxConcurrency} requests are in flight.
+   */
+  private class Pass {
+
+    private final Iterator<String> urls;
+    private final Promise<Void> promise;
+    private int inFlight;
+
+    Pass(Iterator<String> urls, Promise<Void> promise) {
+      this.urls = urls;
+      this.promise = promise;
+    }
+
+    void next() {
+      while (inFlight < options.getMaxConcurrency() && urls.hasNext()) {
+        inFlight++;
+        fetch(urls.next()).onComplete(ar -> {
+          // Failures are ignored, the URL is warmed again on the next pass
+          inFlight--;
+          next();
+        });
+      }
+      if (inFlight == 0) {
+        promise.tryComplete();
+      }
+    }
+  }
+}
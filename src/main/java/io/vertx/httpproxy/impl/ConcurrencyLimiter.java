@@ -0,0 +1,66 @@
+package io.vertx.httpproxy.impl;
+
+import io.vertx.httpproxy.ConcurrencyLimitOptions;
+
+/**
+ * A gradient concurrency limit: the limit is multiplied by the ratio between the long term latency average and
+ * the short term latency average, bounded to {@code [0.5, 1]}, plus a headroom of {@code sqrt(limit)} requests.
+ *
+ * <p> When the latency is stable the headroom makes the limit grow, when requests queue up in the backend the short
+ * term latency increases and the limit shrinks. The limit does not grow while less than half of it is used.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class ConcurrencyLimiter {
+
+  private static final double SHORT_ALPHA = 0.2;
+  private static final double LONG_ALPHA = 2.0 / (600 + 1);
+  private static final double SMOOTHING = 0.2;
+
+  private final ConcurrencyLimitOptions options;
+  private double limit;
+  private double shortRtt;
+  private double longRtt;
+  private volatile int current;
+
+  ConcurrencyLimiter(ConcurrencyLimitOptions options) {
+    this.options = options;
+    this.limit = options.getInitialLimit();
+    this.current = options.getInitialLimit();
+  }
+
+  /**
+   * @return the current limit
+   */
+  int limit() {
+    return current;
+  }
+
+  /**
+   * Report the latency of a request.
+   *
+   * @param rtt the latency in nanoseconds
+   * @param inFlight the requests in flight when the request ended
+   */
+  synchronized void sample(long rtt, int inFlight) {
+    if (longRtt == 0) {
+      shortRtt = rtt;
+      longRtt = rtt;
+      return;
+    }
+    shortRtt += SHORT_ALPHA * (rtt - shortRtt);
+    longRtt += LONG_ALPHA * (rtt - longRtt);
+    if (longRtt / shortRtt > 2) {
+      // Latency dropped, e.g the backend recovered, let the long term average catch up
+      longRtt *= 0.95;
+    }
+    if (inFlight < limit / 2) {
+      return;
+    }
+    double gradient = Math.max(0.5, Math.min(1.0, options.getTolerance() * longRtt / shortRtt));
+    double newLimit = limit * gradient + Math.sqrt(limit);
+    newLimit = limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+    limit = Math.max(options.getMinLimit(), Math.min(options.getMaxLimit(), newLimit));
+    current = (int) limit;
+  }
+}
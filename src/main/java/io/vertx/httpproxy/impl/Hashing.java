@@ -0,0 +1,38 @@
+package io.vertx.httpproxy.impl;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Hash functions for placing keys on peers and backends.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+final class Hashing {
+
+  private Hashing() {
+  }
+
+  /**
+   * 64-bit FNV-1a.
+   */
+  static long hash(String s) {
+    long hash = 0xcbf29ce484222325L;
+    for (byte b : s.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b & 0xFF;
+      hash *= 0x100000001b3L;
+    }
+    return hash;
+  }
+
+  /**
+   * The murmur3 finalizer, spreads the bits of a hash.
+   */
+  static long mix(long h) {
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
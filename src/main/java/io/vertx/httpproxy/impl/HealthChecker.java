@@ -0,0 +1,96 @@
+package io.vertx.httpproxy.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.httpproxy.HealthCheckOptions;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Probes periodically the backends of a pool with the client of a proxy.
+ *
+ * <p> A healthy backend becomes unhealthy after {@link HealthCheckOptions#getUnhealthyThreshold()} consecutive
+ * failed probes, an unhealthy backend becomes healthy after {@link HealthCheckOptions#getHealthyThreshold()}
+ * consecutive successful probes. Probes run on a single context.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class HealthChecker {
+
+  private final Vertx vertx;
+  private final Context context;
+  private final HttpClient client;
+  private final HealthCheckOptions options;
+  private final Supplier<List<Backend>> backends;
+  private final Runnable onChange;
+  private long timerId = -1L;
+  private boolean closed;
+
+  HealthChecker(Vertx vertx, HttpClient client, HealthCheckOptions options, Supplier<List<Backend>> backends, Runnable onChange) {
+    this.vertx = vertx;
+    this.context = vertx.getOrCreateContext();
+    this.client = client;
+    this.options = options;
+    this.backends = backends;
+    this.onChange = onChange;
+  }
+
+  void start() {
+    context.runOnContext(v -> {
+      if (!closed) {
+        timerId = vertx.setPeriodic(options.getInterval(), id -> probe());
+        probe();
+      }
+    });
+  }
+
+  void close() {
+    context.runOnContext(v -> {
+      closed = true;
+      if (timerId != -1L) {
+        vertx.cancelTimer(timerId);
+      }
+    });
+  }
+
+  private void probe() {
+    for (Backend backend : backends.get()) {
+      RequestOptions requestOptions = new RequestOptions()
+        .setMethod(HttpMethod.GET)
+        .setServer(backend.address)
+        .setHost(backend.host)
+        .setPort(backend.port)
+        .setURI(options.getPath())
+        .setTimeout(options.getTimeout());
+      client.request(requestOptions)
+        .compose(req -> req.send().compose(resp -> resp.body().map(resp)))
+        .onComplete(ar -> report(backend, ar));
+    }
+  }
+
+  private void report(Backend backend, AsyncResult<HttpClientResponse> ar) {
+    if (closed) {
+      return;
+    }
+    boolean success = ar.succeeded() && options.isExpectedStatus(ar.result().statusCode());
+    if (success) {
+      backend.healthCheckFailures = 0;
+      if (!backend.healthy && ++backend.healthCheckSuccesses >= options.getHealthyThreshold()) {
+        backend.healthy = true;
+        onChange.run();
+      }
+    } else {
+      backend.healthCheckSuccesses = 0;
+      if (backend.healthy && ++backend.healthCheckFailures >= options.getUnhealthyThreshold()) {
+        backend.healthy = false;
+        onChange.run();
+      }
+    }
+  }
+}
@@ -1,57 +1,209 @@
 package io.vertx.httpproxy.impl;
 
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.Cookie;
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpClientResponse;
 import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.HttpVersion;
 import io.vertx.core.http.RequestOptions;
+import io.vertx.core.http.impl.Http1xServerConnection;
+import io.vertx.core.http.impl.HttpClientImpl;
+import io.vertx.core.net.NetSocket;
 import io.vertx.core.net.SocketAddress;
+import io.vertx.httpproxy.AdmissionOptions;
+import io.vertx.httpproxy.BackendPool;
 import io.vertx.httpproxy.Body;
+import io.vertx.httpproxy.CacheOptions;
 import io.vertx.httpproxy.HttpProxy;
 import io.vertx.httpproxy.ProxyRequest;
 import io.vertx.httpproxy.ProxyResponse;
+import io.vertx.httpproxy.RateLimitOptions;
+import io.vertx.httpproxy.RequestPriority;
+import io.vertx.httpproxy.RetryOptions;
+import io.vertx.httpproxy.RouteTable;
+import io.vertx.httpproxy.TimeoutOptions;
 
+import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.function.BiFunction;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 
 public class HttpProxyImpl implements HttpProxy {
 
-  private static final BiFunction<String, Resource, Resource> CACHE_GET_AND_VALIDATE = (key, resource) -> {
-    long now = System.currentTimeMillis();
-    long val = resource.timestamp + resource.maxAge;
-    return val < now ? null : resource;
+  /**
+   * Marks a request forwarded by a peer, such request is not forwarded again to a peer.
+   */
+  static final String PEER_HEADER = "x-proxy-peer";
+
+  private static final Function<ProxyRequest, String> DEFAULT_CACHE_TENANT = req -> {
+    String host = req.headers().get(HttpHeaders.HOST);
+    return host != null ? host : "";
   };
 
+  private final Vertx vertx;
   private final HttpClient client;
   private Function<HttpServerRequest, Future<SocketAddress>> selector = req -> Future.failedFuture("No target available");
-  private final Map<String, Resource> cache = new HashMap<>();
+  private BackendPoolImpl backendPool;
+  private RouteTableImpl routeTable;
+  private CacheOptions cacheOptions = new CacheOptions();
+  private ResourceCache cache = new ResourceCache(cacheOptions);
+  private Function<ProxyRequest, String> cacheTenant = DEFAULT_CACHE_TENANT;
+  private InvalidationBus invalidationBus;
+  private CachePeers cachePeers;
+  private final Set<HttpClientRequest> cancelled = new HashSet<>();
+  private AdmissionQueue admission;
+  private Function<HttpServerRequest, RequestPriority> priorityClassifier = req -> RequestPriority.NORMAL;
+  private RateLimiter rateLimiter;
+  private Function<HttpServerRequest, String> rateLimitKey = req -> req.remoteAddress() != null ? req.remoteAddress().host() : null;
+  private Function<HttpServerRequest, TimeoutOptions> timeoutSelector = req -> null;
 
-  public HttpProxyImpl(HttpClient client) {
+  public HttpProxyImpl(Vertx vertx, HttpClient client) {
+    this.vertx = vertx;
     this.client = client;
   }
 
+  /**
+   * @return the vertx instance of the current context or else the vertx instance owning the client
+   * @throws IllegalStateException when none is found
+   */
+  public static Vertx owner(HttpClient client) {
+    Context context = Vertx.currentContext();
+    if (context != null) {
+      return context.owner();
+    }
+    if (client instanceof HttpClientImpl) {
+      return ((HttpClientImpl) client).getVertx();
+    }
+    throw new IllegalStateException("No Vert.x instance found, use reverseProxy(Vertx, HttpClient) instead");
+  }
+
   @Override
   public HttpProxy selector(Function<HttpServerRequest, Future<SocketAddress>> selector) {
     this.selector = selector;
+    this.backendPool = null;
+    return this;
+  }
+
+  @Override
+  public HttpProxy backendPool(BackendPool pool) {
+    this.backendPool = (BackendPoolImpl) pool;
+    if (backendPool != null) {
+      backendPool.attach(client);
+    }
+    return this;
+  }
+
+  @Override
+  public HttpProxy routeTable(RouteTable table) {
+    routeTable = (RouteTableImpl) table;
+    if (routeTable != null) {
+      routeTable.attach(client);
+    }
     return this;
   }
 
+  @Override
+  public HttpProxy admission(AdmissionOptions options) {
+    admission = options != null ? new AdmissionQueue(vertx, options) : null;
+    return this;
+  }
+
+  @Override
+  public HttpProxy priorityClassifier(Function<HttpServerRequest, RequestPriority> classifier) {
+    priorityClassifier = classifier;
+    return this;
+  }
+
+  @Override
+  public HttpProxy rateLimit(RateLimitOptions options) {
+    rateLimiter = options != null ? new RateLimiter(options) : null;
+    return this;
+  }
+
+  @Override
+  public HttpProxy rateLimitKey(Function<HttpServerRequest, String> key) {
+    rateLimitKey = key;
+    return this;
+  }
+
+  @Override
+  public HttpProxy timeoutSelector(Function<HttpServerRequest, TimeoutOptions> selector) {
+    timeoutSelector = selector;
+    return this;
+  }
+
+  @Override
+  public HttpProxy cacheOptions(CacheOptions options) {
+    if (options == null) {
+      // The proxy always has a cache
+      throw new IllegalArgumentException("Cache options must not be null");
+    }
+    cacheOptions = new CacheOptions(options);
+    cache = new ResourceCache(cacheOptions);
+    if (invalidationBus != null) {
+      invalidationBus.close();
+      invalidationBus = null;
+    }
+    if (options.getInvalidationAddress() != null) {
+      invalidationBus = new InvalidationBus(vertx, options, cache::remove, cache::removeTag);
+    }
+    return this;
+  }
+
+  @Override
+  public HttpProxy cacheTenant(Function<ProxyRequest, String> tenant) {
+    cacheTenant = tenant;
+    return this;
+  }
+
+  @Override
+  public HttpProxy cachePeers(SocketAddress self, List<SocketAddress> peers) {
+    if (cachePeers != null) {
+      cachePeers.close();
+    }
+    cachePeers = peers != null && peers.size() > 0 ? new CachePeers(vertx, self, peers) : null;
+    return this;
+  }
+
+  @Override
+  public void invalidate(String key) {
+    cache.remove(key);
+    if (invalidationBus != null) {
+      invalidationBus.invalidate(key);
+    }
+  }
+
+  @Override
+  public void invalidateTag(String tag) {
+    cache.removeTag(tag);
+    if (invalidationBus != null) {
+      invalidationBus.invalidateTag(tag);
+    }
+  }
+
   @Override
   public void handle(HttpServerRequest frontRequest) {
     handleProxyRequest(frontRequest);
   }
 
-  private Future<HttpClientRequest> resolveTarget(HttpServerRequest frontRequest) {
+  private Future<HttpClientRequest> resolveTarget(ProxyRequest proxyRequest, HttpServerRequest frontRequest) {
+    if (((ProxyRequestImpl) proxyRequest).pool != null) {
+      return resolveBackend(proxyRequest, frontRequest);
+    }
     return selector.apply(frontRequest).flatMap(server -> {
       RequestOptions requestOptions = new RequestOptions();
       requestOptions.setServer(server);
@@ -59,6 +211,61 @@ public class HttpProxyImpl implements HttpProxy {
     });
   }
 
+  /**
+   * Select a backend of the pool, the request is in flight until the response of the backend is received
+   * or the request fails, i.e. when {@link ProxyRequest#send} completes.
+   */
+  private Future<HttpClientRequest> resolveBackend(ProxyRequest proxyRequest, HttpServerRequest frontRequest) {
+    ProxyRequestImpl impl = (ProxyRequestImpl) proxyRequest;
+    Backend backend = impl.pool.select(frontRequest);
+    if (backend == null) {
+      return Future.failedFuture("No backend available");
+    }
+    impl.backend = backend;
+    if (HttpUtils.isUpgrade(frontRequest.version(), frontRequest.headers())) {
+      // An HTTP/1.1 connection is upgraded, never an HTTP/2 one
+      return requestBackend(impl.pool, backend, client);
+    }
+    return requestBackend(impl.pool, backend);
+  }
+
+  private Future<HttpClientRequest> requestBackend(BackendPoolImpl pool, Backend backend) {
+    return requestBackend(pool, backend, pool.client() != null ? pool.client() : client);
+  }
+
+  private Future<HttpClientRequest> requestBackend(BackendPoolImpl pool, Backend backend, HttpClient c) {
+    return pool.acquire(backend).compose(v -> {
+      long startTime = System.nanoTime();
+      // The configured host name is used for the host header and the TLS server name
+      RequestOptions requestOptions = new RequestOptions()
+        .setHost(backend.host)
+        .setPort(backend.port)
+        .setServer(backend.address);
+      return c.request(requestOptions).onComplete(ar -> {
+        if (ar.succeeded()) {
+          HttpClientRequest request = ar.result();
+          request.onComplete(ar2 -> {
+            if (cancelled.remove(request)) {
+              ar2 = Future.failedFuture(BackendPoolImpl.CANCELLED);
+            }
+            pool.requestEnded(backend, startTime, ar2);
+          });
+        } else {
+          pool.connectionFailed(backend);
+        }
+      });
+    });
+  }
+
+  /**
+   * Reset a backend request the proxy does not need anymore, the backend is not blamed for it.
+   */
+  private void cancel(HttpClientRequest request) {
+    cancelled.add(request);
+    request.onComplete(ar -> cancelled.remove(request));
+    request.reset();
+  }
+
   boolean revalidateResource(ProxyResponse response, Resource resource) {
     if (resource.etag != null && response.etag() != null) {
       return resource.etag.equals(response.etag());
@@ -87,23 +294,291 @@ public class HttpProxyImpl implements HttpProxy {
       return;
     }
 
+    // Rate limit
+    if (rateLimiter != null) {
+      String key = rateLimitKey.apply(frontRequest);
+      if (key != null) {
+        long delay = rateLimiter.tryAcquire(key);
+        if (delay > 0) {
+          long retryAfter = Math.max(1, (delay + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+          proxyRequest
+            .release()
+            .response()
+            .setStatusCode(429)
+            .putHeader(HttpHeaders.CONTENT_LENGTH, "0")
+            .putHeader("retry-after", String.valueOf(retryAfter))
+            .setBody(null)
+            .send(ar -> {});
+          return;
+        }
+      }
+    }
+
+    // Route
+    ProxyRequestImpl impl = (ProxyRequestImpl) proxyRequest;
+    impl.vertx = vertx;
+    impl.pool = backendPool;
+    RouteTableImpl table = routeTable;
+    if (table != null) {
+      RouteTableImpl.Route route = table.match(frontRequest);
+      if (route != null) {
+        impl.pool = route.pool;
+        impl.timeouts = route.timeouts;
+      }
+    }
+
+    // The peer header is only trusted from a peer, it is never forwarded
+    boolean fromPeer = proxyRequest.headers().contains(PEER_HEADER) && cachePeers != null && cachePeers.isPeer(frontRequest.remoteAddress());
+    proxyRequest.headers().remove(PEER_HEADER);
+
+    if (HttpUtils.isUpgrade(frontRequest.version(), frontRequest.headers())) {
+      handleUpgrade(proxyRequest, frontRequest);
+      return;
+    }
+
     // Handle from cache
     HttpMethod method = frontRequest.method();
     if (method == HttpMethod.GET || method == HttpMethod.HEAD) {
       String cacheKey = proxyRequest.absoluteURI();
-      Resource resource = cache.computeIfPresent(cacheKey, CACHE_GET_AND_VALIDATE);
+      Resource resource = cache.get(cacheKey);
       if (resource != null) {
         if (tryHandleProxyRequestFromCache(proxyRequest, frontRequest, resource)) {
           return;
         }
+      } else if (cachePeers != null && !fromPeer && method == HttpMethod.GET && !chunked && proxyRequest.getBody().length() <= 0) {
+        SocketAddress owner = cachePeers.owner(cacheKey);
+        if (owner != null) {
+          admitProxyRequest(proxyRequest, frontRequest, owner);
+          return;
+        }
       }
     }
-    handleProxyRequestAndProxyResponse(proxyRequest, frontRequest);
+    admitProxyRequest(proxyRequest, frontRequest, null);
+  }
+
+  /**
+   * Forward an upgrade handshake to a backend. When the backend switches protocols the client and backend
+   * connections are spliced into a {@link Tunnel} closed after the idle timeout, otherwise the backend response
+   * is sent to the client.
+   *
+   * <p> The handshake goes through the admission queue like any request, the tunnel does not.
+   */
+  private void handleUpgrade(ProxyRequest proxyRequest, HttpServerRequest frontRequest) {
+    ProxyRequestImpl impl = (ProxyRequestImpl) proxyRequest;
+    if (!(frontRequest.connection() instanceof Http1xServerConnection)) {
+      // Only an HTTP/1.x connection can be spliced
+      reject(proxyRequest, frontRequest, 400);
+      return;
+    }
+    TimeoutOptions timeouts = impl.timeouts != null ? impl.timeouts : timeoutSelector.apply(frontRequest);
+    if (timeouts != null) {
+      impl.timeouts = timeouts;
+      impl.deadline = deadline(frontRequest, timeouts);
+    }
+    AdmissionQueue queue = admission;
+    if (queue == null) {
+      handleUpgrade(proxyRequest, frontRequest, null);
+      return;
+    }
+    queue.admit(priorityClassifier.apply(frontRequest)).onComplete(ar -> {
+      if (ar.succeeded()) {
+        handleUpgrade(proxyRequest, frontRequest, queue);
+      } else {
+        reject(proxyRequest, frontRequest, 503);
+      }
+    });
+  }
+
+  /**
+   * @param queue the queue that admitted the handshake, released when the backend responds or the handshake fails
+   */
+  private void handleUpgrade(ProxyRequest proxyRequest, HttpServerRequest frontRequest, AdmissionQueue queue) {
+    ProxyRequestImpl impl = (ProxyRequestImpl) proxyRequest;
+    long idleTimeout = impl.timeouts != null ? impl.timeouts.getIdleTimeout() : 0L;
+    connect(proxyRequest, resolveTarget(proxyRequest, frontRequest)).onComplete(ar1 -> {
+      if (ar1.failed()) {
+        if (queue != null) {
+          queue.release();
+        }
+        int sc = ar1.cause() instanceof TimeoutException ? 504 : impl.pool != null ? 503 : 404;
+        reject(proxyRequest, frontRequest, sc);
+        return;
+      }
+      impl.edgeRequest = ar1.result();
+      impl.sendUpgrade(ar2 -> {
+        if (queue != null) {
+          queue.release();
+        }
+        if (ar2.failed()) {
+          reject(proxyRequest, frontRequest, sendFailureStatus(ar2.cause()));
+          return;
+        }
+        HttpClientResponse response = ar2.result();
+        if (response.statusCode() != 101) {
+          response.pause();
+          handleProxyResponse(new ProxyResponseImpl(impl, frontRequest.response(), response), ar3 -> {});
+          return;
+        }
+        NetSocket back = response.netSocket();
+        frontRequest.resume();
+        ((Http1xServerConnection) frontRequest.connection()).netSocket().onComplete(ar3 -> {
+          if (ar3.succeeded()) {
+            NetSocket front = ar3.result();
+            front.write(HttpUtils.switchingProtocols(response));
+            new Tunnel(vertx, front, back, idleTimeout).start();
+          } else {
+            back.close();
+          }
+        });
+      });
+    });
   }
 
-  private void handleProxyRequestAndProxyResponse(ProxyRequest proxyRequest, HttpServerRequest frontRequest) {
+  /**
+   * Fetch the resource from the peer owning it, the peer fetches it from the origin when it does not have it.
+   * The peer request is bound by the timeouts and the deadline of the request, when the peer fails or times out
+   * the request is sent to the origin instead.
+   *
+   * @param queue the queue that admitted the request, released when the peer responds or by the origin request
+   */
+  private void handleProxyRequestFromPeer(ProxyRequest proxyRequest, HttpServerRequest frontRequest, SocketAddress peer, AdmissionQueue queue) {
+    // The request has no body, it can be sent twice
+    frontRequest.resume();
+    proxyRequest.setBody(Body.body(Buffer.buffer()));
+    proxyRequest.putHeader(PEER_HEADER, "true");
+    RequestOptions requestOptions = HttpUtils.requestOptions(frontRequest.host(), peer);
+    connect(proxyRequest, client.request(requestOptions)).onComplete(ar1 -> {
+      if (ar1.succeeded()) {
+        proxyRequest.send(ar1.result(), ar2 -> {
+          proxyRequest.headers().remove(PEER_HEADER);
+          if (ar2.succeeded()) {
+            ProxyResponse response = ar2.result();
+            if (response.getStatusCode() < 500) {
+              if (queue != null) {
+                queue.release();
+              }
+              // Only the owner caches the resource
+              handleProxyResponse(response, false, ar3 -> {});
+              return;
+            }
+            response.release();
+          }
+          handleProxyRequestAndProxyResponse(proxyRequest, frontRequest, queue);
+        });
+      } else {
+        proxyRequest.headers().remove(PEER_HEADER);
+        handleProxyRequestAndProxyResponse(proxyRequest, frontRequest, queue);
+      }
+    });
+  }
+
+  /**
+   * Resolve the timeouts of a request and admit it, the peer and origin requests are bound by them.
+   *
+   * @param peer the peer owning the resource or {@code null} when the request is sent to the origin
+   */
+  private void admitProxyRequest(ProxyRequest proxyRequest, HttpServerRequest frontRequest, SocketAddress peer) {
+    ProxyRequestImpl impl = (ProxyRequestImpl) proxyRequest;
+    TimeoutOptions timeouts = impl.timeouts != null ? impl.timeouts : timeoutSelector.apply(frontRequest);
+    if (timeouts != null) {
+      impl.timeouts = timeouts;
+      impl.deadline = deadline(frontRequest, timeouts);
+    }
+    AdmissionQueue queue = admission;
+    if (queue == null) {
+      handleAdmitted(proxyRequest, frontRequest, peer, null);
+      return;
+    }
+    queue.admit(priorityClassifier.apply(frontRequest)).onComplete(ar -> {
+      if (ar.succeeded()) {
+        handleAdmitted(proxyRequest, frontRequest, peer, queue);
+      } else {
+        reject(proxyRequest, frontRequest, 503);
+      }
+    });
+  }
+
+  private void handleAdmitted(ProxyRequest proxyRequest, HttpServerRequest frontRequest, SocketAddress peer, AdmissionQueue queue) {
+    if (peer != null) {
+      handleProxyRequestFromPeer(proxyRequest, frontRequest, peer, queue);
+    } else {
+      handleProxyRequestAndProxyResponse(proxyRequest, frontRequest, queue);
+    }
+  }
+
+  /**
+   * @return the deadline of a request as a nano time or {@code 0} when it has none, the deadline sent by the client
+   * is honored
+   */
+  private static long deadline(HttpServerRequest frontRequest, TimeoutOptions timeouts) {
+    long timeout = timeouts.getDeadline();
+    String header = timeouts.getDeadlineHeader() != null ? frontRequest.getHeader(timeouts.getDeadlineHeader()) : null;
+    if (header != null) {
+      try {
+        long value = Long.parseLong(header.trim());
+        if (value >= 0 && (timeout == 0 || value < timeout)) {
+          timeout = Math.max(1, value);
+        }
+      } catch (NumberFormatException ignore) {
+      }
+    }
+    return timeout > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout) : 0L;
+  }
+
+  /**
+   * Bound the time to obtain a backend request by the connect timeout and the deadline of a request, a backend
+   * request obtained after the timeout is reset.
+   */
+  private Future<HttpClientRequest> connect(ProxyRequest proxyRequest, Future<HttpClientRequest> fut) {
+    ProxyRequestImpl impl = (ProxyRequestImpl) proxyRequest;
+    if (impl.timeouts == null) {
+      return fut;
+    }
+    long timeout = impl.timeouts.getConnectTimeout();
+    if (impl.deadline != 0L) {
+      long left = Math.max(1L, TimeUnit.NANOSECONDS.toMillis(impl.deadline - System.nanoTime()));
+      timeout = timeout > 0 ? Math.min(timeout, left) : left;
+    }
+    if (timeout == 0) {
+      return fut;
+    }
+    Promise<HttpClientRequest> promise = Promise.promise();
+    long timerId = vertx.setTimer(timeout, id -> promise.tryFail(new TimeoutException("Connect timeout")));
+    fut.onComplete(ar -> {
+      vertx.cancelTimer(timerId);
+      if (ar.failed()) {
+        promise.tryFail(ar.cause());
+      } else if (!promise.tryComplete(ar.result())) {
+        cancel(ar.result());
+      }
+    });
+    return promise.future();
+  }
+
+  /**
+   * @return the status of a request that could not be sent to a backend or received no response
+   */
+  private static int sendFailureStatus(Throwable cause) {
+    return cause instanceof TimeoutException ? 504 : 502;
+  }
+
+  /**
+   * @param queue the queue that admitted the request, released when the backend responds or fails
+   */
+  private void handleProxyRequestAndProxyResponse(ProxyRequest proxyRequest, HttpServerRequest frontRequest, AdmissionQueue queue) {
     handleProxyRequest(proxyRequest, frontRequest, ar -> {
+      if (queue != null) {
+        queue.release();
+      }
       if (ar.succeeded()) {
+        ProxyRequestImpl impl = (ProxyRequestImpl) proxyRequest;
+        if (impl.backend != null && impl.pool != null) {
+          // Not part of the proxy response so it is never cached
+          Cookie cookie = impl.pool.affinityCookie(frontRequest, impl.backend);
+          if (cookie != null) {
+            frontRequest.response().addCookie(cookie);
+          }
+        }
         handleProxyResponse(ar.result(), ar2 -> {});
       } else {
         // TODO ???
@@ -112,35 +587,172 @@ public class HttpProxyImpl implements HttpProxy {
   }
 
   private void handleProxyRequest(ProxyRequest proxyRequest, HttpServerRequest frontRequest, Handler<AsyncResult<ProxyResponse>> handler) {
-    Future<HttpClientRequest> f = resolveTarget(frontRequest);
+    HttpMethod method = proxyRequest.getMethod();
+    BackendPoolImpl pool = ((ProxyRequestImpl) proxyRequest).pool;
+    if (pool != null && pool.hedgeOptions() != null && (method == HttpMethod.GET || method == HttpMethod.HEAD)) {
+      // Only a request without body can be hedged
+      bufferBody(proxyRequest, frontRequest, 0).onComplete(ar -> {
+        if (ar.failed()) {
+          handler.handle(Future.failedFuture(ar.cause()));
+        } else if (ar.result()) {
+          pool.hedgeBudget().deposit();
+          if (pool.retryBudget() != null) {
+            pool.retryBudget().deposit();
+          }
+          new Hedge(proxyRequest, frontRequest, handler).start();
+        } else {
+          handleProxyRequest(proxyRequest, frontRequest, connect(proxyRequest, resolveTarget(proxyRequest, frontRequest)), handler);
+        }
+      });
+      return;
+    }
+    RetryOptions retryOptions = pool != null ? pool.retryOptions() : null;
+    if (retryOptions != null && retryOptions.getMaxRetries() > 0 && HttpUtils.isIdempotent(proxyRequest.getMethod())) {
+      bufferBody(proxyRequest, frontRequest, retryOptions.getMaxBodySize()).onComplete(ar -> {
+        if (ar.failed()) {
+          // The client went away
+          handler.handle(Future.failedFuture(ar.cause()));
+        } else if (ar.result()) {
+          pool.retryBudget().deposit();
+          handleProxyRequestWithRetries(proxyRequest, frontRequest, retryOptions, new ArrayList<>(), 0, handler);
+        } else {
+          handleProxyRequest(proxyRequest, frontRequest, connect(proxyRequest, resolveTarget(proxyRequest, frontRequest)), handler);
+        }
+      });
+    } else {
+      handleProxyRequest(proxyRequest, frontRequest, connect(proxyRequest, resolveTarget(proxyRequest, frontRequest)), handler);
+    }
+  }
+
+  private void handleProxyRequest(ProxyRequest proxyRequest, HttpServerRequest frontRequest, Future<HttpClientRequest> f, Handler<AsyncResult<ProxyResponse>> handler) {
     f.onComplete(ar -> {
       if (ar.succeeded()) {
         handleProxyRequest(proxyRequest, frontRequest, ar.result(), handler);
       } else {
-        frontRequest.resume();
-        Promise<Void> promise = Promise.promise();
-        frontRequest.exceptionHandler(promise::tryFail);
-        frontRequest.endHandler(promise::tryComplete);
-        promise.future().onComplete(ar2 -> {
-          end(proxyRequest, 404);
-        });
+        // No target or no backend available
+        int sc;
+        if (ar.cause() instanceof TimeoutException) {
+          sc = 504;
+        } else {
+          sc = ((ProxyRequestImpl) proxyRequest).pool != null ? 503 : 404;
+        }
+        reject(proxyRequest, frontRequest, sc);
         handler.handle(Future.failedFuture(ar.cause()));
       }
     });
   }
 
+  /**
+   * Answer a request that is not sent to a backend once its body is received.
+   */
+  private void reject(ProxyRequest proxyRequest, HttpServerRequest frontRequest, int sc) {
+    if (frontRequest.isEnded()) {
+      end(proxyRequest, sc);
+    } else {
+      frontRequest.resume();
+      Promise<Void> promise = Promise.promise();
+      frontRequest.exceptionHandler(promise::tryFail);
+      frontRequest.endHandler(promise::tryComplete);
+      promise.future().onComplete(ar -> {
+        end(proxyRequest, sc);
+      });
+    }
+  }
+
+  /**
+   * Buffer the request body so the request can be sent several times.
+   *
+   * @return whether the body is buffered, a chunked body or a body larger than {@code maxSize} is not
+   */
+  private Future<Boolean> bufferBody(ProxyRequest proxyRequest, HttpServerRequest frontRequest, int maxSize) {
+    Body body = proxyRequest.getBody();
+    long len = body.length();
+    // An HTTP/1.x body is delimited by the content length or the chunked encoding, an HTTP/2 body is
+    // delimited by the end of the stream
+    if (len < 0 && frontRequest.version() != HttpVersion.HTTP_2 && !Boolean.TRUE.equals(HttpUtils.isChunked(frontRequest.headers()))) {
+      len = 0;
+    }
+    if (len == 0) {
+      frontRequest.resume();
+      proxyRequest.setBody(Body.body(Buffer.buffer()));
+      return Future.succeededFuture(true);
+    }
+    if (len < 0 || len > maxSize) {
+      return Future.succeededFuture(false);
+    }
+    Promise<Void> promise = Promise.promise();
+    BufferingWriteStream buffer = new BufferingWriteStream();
+    body.stream().pipeTo(buffer, promise);
+    return promise.future().map(v -> {
+      proxyRequest.setBody(Body.body(buffer.content()));
+      return true;
+    });
+  }
+
+  /**
+   * Send the request to a backend, the request is sent again to another backend on connection failure or when
+   * the response status is retried, as long as the retry budget allows it.
+   *
+   * @param tried the backends already tried, they are not selected again
+   * @param retries the number of retries already done
+   */
+  private void handleProxyRequestWithRetries(ProxyRequest proxyRequest, HttpServerRequest frontRequest, RetryOptions retryOptions, List<Backend> tried, int retries, Handler<AsyncResult<ProxyResponse>> handler) {
+    BackendPoolImpl pool = ((ProxyRequestImpl) proxyRequest).pool;
+    Backend backend = pool.select(frontRequest, tried);
+    if (backend == null) {
+      handleProxyRequest(proxyRequest, frontRequest, Future.failedFuture("No backend available"), handler);
+      return;
+    }
+    boolean canRetry = retries < retryOptions.getMaxRetries();
+    tried.add(backend);
+    ((ProxyRequestImpl) proxyRequest).backend = backend;
+    connect(proxyRequest, requestBackend(pool, backend)).onComplete(ar -> {
+      if (ar.failed()) {
+        if (canRetry && retryOptions.isRetryOnConnectionFailure() && pool.retryBudget().tryWithdraw()) {
+          handleProxyRequestWithRetries(proxyRequest, frontRequest, retryOptions, tried, retries + 1, handler);
+        } else {
+          handleProxyRequest(proxyRequest, frontRequest, Future.failedFuture(ar.cause()), handler);
+        }
+        return;
+      }
+      proxyRequest.send(ar.result(), ar2 -> {
+        if (ar2.succeeded()) {
+          ProxyResponse response = ar2.result();
+          if (canRetry && retryOptions.getRetryOn().contains(response.getStatusCode()) && pool.retryBudget().tryWithdraw()) {
+            response.release();
+            handleProxyRequestWithRetries(proxyRequest, frontRequest, retryOptions, tried, retries + 1, handler);
+          } else {
+            handler.handle(ar2);
+          }
+        } else if (canRetry && retryOptions.isRetryOnConnectionFailure() && pool.retryBudget().tryWithdraw()) {
+          handleProxyRequestWithRetries(proxyRequest, frontRequest, retryOptions, tried, retries + 1, handler);
+        } else {
+          frontRequest.response().setStatusCode(sendFailureStatus(ar2.cause())).end();
+          handler.handle(Future.failedFuture(ar2.cause()));
+        }
+      });
+    });
+  }
+
   private void handleProxyRequest(ProxyRequest proxyRequest, HttpServerRequest frontRequest, HttpClientRequest backRequest, Handler<AsyncResult<ProxyResponse>> handler) {
     proxyRequest.send(backRequest, ar2 -> {
       if (ar2.succeeded()) {
         handler.handle(ar2);
       } else {
-        frontRequest.response().setStatusCode(502).end();
+        frontRequest.response().setStatusCode(sendFailureStatus(ar2.cause())).end();
         handler.handle(Future.failedFuture(ar2.cause()));
       }
     });
   }
 
   private void handleProxyResponse(ProxyResponse response, Handler<AsyncResult<Void>> completionHandler) {
+    handleProxyResponse(response, true, completionHandler);
+  }
+
+  /**
+   * @param cacheable whether the response can be cached by this proxy
+   */
+  private void handleProxyResponse(ProxyResponse response, boolean cacheable, Handler<AsyncResult<Void>> completionHandler) {
 
     // Check validity
     Boolean chunked = HttpUtils.isChunked(response.headers());
@@ -162,7 +774,7 @@ public class HttpProxyImpl implements HttpProxy {
           if (ar.succeeded()) {
             Buffer content = buffer.content();
             response.setBody(Body.body(content));
-            continueHandleResponse(response, completionHandler);
+            continueHandleResponse(response, cacheable, completionHandler);
           } else {
             System.out.println("Not implemented");
           }
@@ -170,26 +782,31 @@ public class HttpProxyImpl implements HttpProxy {
         return;
       }
     }
-    continueHandleResponse(response, completionHandler);
+    continueHandleResponse(response, cacheable, completionHandler);
   }
 
-  private void continueHandleResponse(ProxyResponse response, Handler<AsyncResult<Void>> completionHandler) {
+  private void continueHandleResponse(ProxyResponse response, boolean cacheable, Handler<AsyncResult<Void>> completionHandler) {
     ProxyRequest request = response.request();
     Handler<AsyncResult<Void>> handler;
-    if (response.publicCacheControl() && response.maxAge() > 0) {
+    if (cacheable && response.publicCacheControl() && response.maxAge() > 0) {
       if (request.getMethod() == HttpMethod.GET) {
         String absoluteUri = request.absoluteURI();
+        String tenant = cacheTenant.apply(request);
         Resource res = new Resource(
           absoluteUri,
           response.getStatusCode(),
           response.headers(),
           System.currentTimeMillis(),
           response.maxAge());
-        response.bodyFilter(s -> new BufferingReadStream(s, res.content));
+        XXHash64 hash = cacheOptions.isGenerateEtags() && res.etag == null && res.lastModified == null ? new XXHash64() : null;
+        response.bodyFilter(s -> new BufferingReadStream(s, res.content, hash));
         handler = ar3 -> {
           completionHandler.handle(ar3);
           if (ar3.succeeded()) {
-            cache.put(absoluteUri, res);
+            if (hash != null) {
+              res.generatedEtag(String.format("\"%016x\"", hash.digest()));
+            }
+            cache.put(tenant, res);
           }
         };
       } else {
@@ -219,8 +836,8 @@ public class HttpProxyImpl implements HttpProxy {
         long now = System.currentTimeMillis();
         long currentAge = now - resource.timestamp;
         if (currentAge > cacheControl.maxAge() * 1000) {
-          String etag = resource.headers.get(HttpHeaders.ETAG);
-          if (etag != null) {
+          // Only a validator sent by the origin can revalidate the resource
+          if (resource.etag != null && !resource.generated) {
             proxyRequest.headers().set(HttpHeaders.IF_NONE_MATCH, resource.etag);
             handleProxyRequest(proxyRequest, frontRequest, ar -> {
               if (ar.succeeded()) {
@@ -251,6 +868,17 @@ public class HttpProxyImpl implements HttpProxy {
       }
     }
 
+    String ifNoneMatchHeader = frontRequest.getHeader(HttpHeaders.IF_NONE_MATCH);
+    if (ifNoneMatchHeader != null) {
+      if (resource.etag != null && HttpUtils.matchEtag(ifNoneMatchHeader, resource.etag)) {
+        frontRequest.response().setStatusCode(304).putHeader(HttpHeaders.ETAG, resource.etag).end();
+        return true;
+      }
+      // If-Modified-Since is ignored when If-None-Match is present
+      resource.sendTo(proxyRequest.response());
+      return true;
+    }
+
     //
     String ifModifiedSinceHeader = frontRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE);
     if ((frontRequest.method() == HttpMethod.GET || frontRequest.method() == HttpMethod.HEAD) && ifModifiedSinceHeader != null && resource.lastModified != null) {
@@ -264,4 +892,123 @@ public class HttpProxyImpl implements HttpProxy {
     resource.sendTo(proxyRequest.response());
     return true;
   }
+
+  /**
+   * A request sent to a backend and sent again to another backend when the response headers are not received
+   * after the hedge delay, the first response is used and the other request is reset.
+   *
+   * <p> The request is also sent to another backend when the first request fails before the delay. When every
+   * request fails and the pool retries requests on connection failure, the request is retried on the backends
+   * not tried yet.
+   */
+  private class Hedge {
+
+    private final ProxyRequest proxyRequest;
+    private final HttpServerRequest frontRequest;
+    private final BackendPoolImpl pool;
+    private final Handler<AsyncResult<ProxyResponse>> handler;
+    private final List<Backend> tried = new ArrayList<>();
+    private final List<HttpClientRequest> sent = new ArrayList<>();
+    private int pending;
+    private long timerId = -1L;
+    private boolean hedged;
+    private boolean done;
+
+    Hedge(ProxyRequest proxyRequest, HttpServerRequest frontRequest, Handler<AsyncResult<ProxyResponse>> handler) {
+      this.proxyRequest = proxyRequest;
+      this.frontRequest = frontRequest;
+      this.pool = ((ProxyRequestImpl) proxyRequest).pool;
+      this.handler = handler;
+    }
+
+    void start() {
+      Backend backend = pool.select(frontRequest);
+      if (backend == null) {
+        handleProxyRequest(proxyRequest, frontRequest, Future.failedFuture("No backend available"), handler);
+        return;
+      }
+      send(backend);
+      timerId = vertx.setTimer(pool.hedgeDelay(), id -> {
+        timerId = -1L;
+        hedge();
+      });
+    }
+
+    private void hedge() {
+      if (done || hedged) {
+        return;
+      }
+      Backend backend = pool.select(frontRequest, tried);
+      if (backend != null && !tried.contains(backend) && pool.hedgeBudget().tryWithdraw()) {
+        hedged = true;
+        send(backend);
+      }
+    }
+
+    private void send(Backend backend) {
+      tried.add(backend);
+      pending++;
+      connect(proxyRequest, requestBackend(pool, backend)).onComplete(ar1 -> {
+        if (ar1.failed()) {
+          failed(ar1.cause(), 503);
+          return;
+        }
+        HttpClientRequest request = ar1.result();
+        if (done) {
+          cancel(request);
+          return;
+        }
+        sent.add(request);
+        proxyRequest.send(request, ar2 -> {
+          sent.remove(request);
+          if (ar2.failed()) {
+            failed(ar2.cause(), sendFailureStatus(ar2.cause()));
+          } else if (done) {
+            // Both responses arrived, the backend request is already completed
+            request.reset();
+          } else {
+            done = true;
+            cancelTimer();
+            for (HttpClientRequest other : new ArrayList<>(sent)) {
+              cancel(other);
+            }
+            // The response is piped from the winner
+            ((ProxyRequestImpl) proxyRequest).edgeRequest = request;
+            ((ProxyRequestImpl) proxyRequest).backend = backend;
+            handler.handle(ar2);
+          }
+        });
+      });
+    }
+
+    private void failed(Throwable cause, int sc) {
+      pending--;
+      if (done) {
+        return;
+      }
+      if (!hedged) {
+        cancelTimer();
+        hedge();
+      }
+      if (pending == 0) {
+        done = true;
+        RetryOptions retryOptions = pool.retryOptions();
+        if (retryOptions != null && retryOptions.getMaxRetries() > 0 && retryOptions.isRetryOnConnectionFailure() && pool.retryBudget().tryWithdraw()) {
+          handleProxyRequestWithRetries(proxyRequest, frontRequest, retryOptions, tried, 1, handler);
+        } else if (sc == 503) {
+          handleProxyRequest(proxyRequest, frontRequest, Future.failedFuture(cause), handler);
+        } else {
+          frontRequest.response().setStatusCode(sc).end();
+          handler.handle(Future.failedFuture(cause));
+        }
+      }
+    }
+
+    private void cancelTimer() {
+      if (timerId != -1L) {
+        vertx.cancelTimer(timerId);
+        timerId = -1L;
+      }
+    }
+  }
 }
@@ -1,13 +1,95 @@
 package io.vertx.httpproxy.impl;
 
 import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClientResponse;
 import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.core.net.SocketAddress;
 
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 class HttpUtils {
 
+  /**
+   * The connection-specific headers, they are not forwarded and are forbidden in HTTP/2.
+   */
+  private static final Set<String> HOP_BY_HOP_HEADERS = new HashSet<>(Arrays.asList(
+    "connection", "keep-alive", "proxy-connection", "te", "transfer-encoding", "upgrade"));
+
+  /**
+   * @param name the header name
+   * @param value the header value
+   * @param headers the message headers
+   * @return whether the header is hop-by-hop: a connection-specific header or a header listed by the
+   * {@code connection} header, {@code te: trailers} is end-to-end
+   */
+  static boolean isHopByHop(String name, String value, MultiMap headers) {
+    String lowerCase = name.toLowerCase(Locale.ROOT);
+    if (HOP_BY_HOP_HEADERS.contains(lowerCase)) {
+      return !(lowerCase.equals("te") && value.trim().equalsIgnoreCase("trailers"));
+    }
+    for (String connection : headers.getAll(HttpHeaders.CONNECTION)) {
+      for (String token : connection.split(",")) {
+        if (token.trim().equalsIgnoreCase(name)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return whether the header is an HTTP/2 pseudo header, the pseudo headers are mapped by the request and
+   *         response line and are never copied
+   */
+  static boolean isPseudoHeader(String name) {
+    return name.length() > 0 && name.charAt(0) == ':';
+  }
+
+  /**
+   * @return whether the request asks the connection to switch to another protocol, e.g. a WebSocket handshake,
+   * only HTTP/1.1 connections can be upgraded
+   */
+  static boolean isUpgrade(HttpVersion version, MultiMap headers) {
+    if (version != HttpVersion.HTTP_1_1 || !headers.contains(HttpHeaders.UPGRADE)) {
+      return false;
+    }
+    for (String connection : headers.getAll(HttpHeaders.CONNECTION)) {
+      for (String token : connection.split(",")) {
+        if (token.trim().equalsIgnoreCase("upgrade")) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return the head of a {@code 101} response sent to the client, with the end-to-end headers of the backend
+   * response and the protocol it switched to
+   */
+  static Buffer switchingProtocols(HttpClientResponse response) {
+    StringBuilder head = new StringBuilder("HTTP/1.1 101 ").append(response.statusMessage()).append("\r\n");
+    response.headers().forEach(header -> {
+      String name = header.getKey();
+      String value = header.getValue();
+      if (!isHopByHop(name, value, response.headers())) {
+        head.append(name).append(": ").append(value).append("\r\n");
+      }
+    });
+    head.append("connection: upgrade\r\n");
+    head.append("upgrade: ").append(response.getHeader(HttpHeaders.UPGRADE)).append("\r\n\r\n");
+    return Buffer.buffer(head.toString(), "ISO-8859-1");
+  }
+
   static Boolean isChunked(MultiMap headers) {
     List<String> te = headers.getAll("transfer-encoding");
     if (te != null) {
@@ -42,4 +124,64 @@ class HttpUtils {
       return ParseUtils.parseHeaderDate(dateHeader);
     }
   }
+
+  /**
+   * Weak comparison of an {@code if-none-match} header value with an entity tag.
+   *
+   * @param header the header value, a list of entity tags or {@code *}
+   * @param etag the entity tag
+   * @return whether the entity tag matches
+   */
+  static boolean matchEtag(String header, String etag) {
+    String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+    for (String tag : header.split(",")) {
+      tag = tag.trim();
+      if (tag.equals("*")) {
+        return true;
+      }
+      if (tag.startsWith("W/")) {
+        tag = tag.substring(2);
+      }
+      if (tag.equals(opaque)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Create the request options targeting the {@code server} with the same {@code host} header.
+   *
+   * @param host the host header value
+   * @param server the server to connect to
+   * @return the request options
+   */
+  static RequestOptions requestOptions(String host, SocketAddress server) {
+    RequestOptions options = new RequestOptions().setServer(server);
+    if (host != null) {
+      int idx = host.lastIndexOf(':');
+      if (idx > host.lastIndexOf(']')) {
+        try {
+          options.setPort(Integer.parseInt(host.substring(idx + 1)));
+          host = host.substring(0, idx);
+        } catch (NumberFormatException ignore) {
+        }
+      } else {
+        options.setPort(80);
+      }
+      options.setHost(host);
+    }
+    return options;
+  }
+
+  /**
+   * @return whether a request with this method can be sent several times
+   */
+  static boolean isIdempotent(HttpMethod method) {
+    return method == HttpMethod.GET
+      || method == HttpMethod.HEAD
+      || method == HttpMethod.OPTIONS
+      || method == HttpMethod.PUT
+      || method == HttpMethod.DELETE;
+  }
 }
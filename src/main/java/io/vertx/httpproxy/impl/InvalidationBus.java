@@ -0,0 +1,102 @@
+package io.vertx.httpproxy.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.httpproxy.CacheOptions;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Broadcast cache invalidations to the proxies of a cluster over the event bus.
+ *
+ * <p> Invalidations are batched during a short delay, so a burst of invalidations results in a few messages.
+ * A message is a JSON object with {@code keys} and {@code tags} arrays, the optional {@code node} identifies
+ * the proxy that published it so it does not apply its own invalidations twice.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class InvalidationBus {
+
+  private final Vertx vertx;
+  private final String node = UUID.randomUUID().toString();
+  private final String address;
+  private final long batchDelay;
+  private final int maxBatchSize;
+  private final MessageConsumer<JsonObject> consumer;
+  private Set<String> keys = new LinkedHashSet<>();
+  private Set<String> tags = new LinkedHashSet<>();
+  private long timerId = -1L;
+
+  InvalidationBus(Vertx vertx, CacheOptions options, Handler<String> keyHandler, Handler<String> tagHandler) {
+    this.vertx = vertx;
+    this.address = options.getInvalidationAddress();
+    this.batchDelay = options.getInvalidationBatchDelay();
+    this.maxBatchSize = options.getInvalidationMaxBatchSize();
+    this.consumer = vertx.eventBus().consumer(address, msg -> {
+      JsonObject body = msg.body();
+      if (node.equals(body.getString("node"))) {
+        return;
+      }
+      JsonArray keys = body.getJsonArray("keys");
+      if (keys != null) {
+        keys.forEach(key -> keyHandler.handle((String) key));
+      }
+      JsonArray tags = body.getJsonArray("tags");
+      if (tags != null) {
+        tags.forEach(tag -> tagHandler.handle((String) tag));
+      }
+    });
+  }
+
+  void invalidate(String key) {
+    keys.add(key);
+    schedule();
+  }
+
+  void invalidateTag(String tag) {
+    tags.add(tag);
+    schedule();
+  }
+
+  void close() {
+    if (timerId != -1L) {
+      vertx.cancelTimer(timerId);
+    }
+    flush();
+    consumer.unregister();
+  }
+
+  private void schedule() {
+    if (keys.size() + tags.size() >= maxBatchSize) {
+      if (timerId != -1L) {
+        vertx.cancelTimer(timerId);
+        timerId = -1L;
+      }
+      flush();
+    } else if (timerId == -1L) {
+      timerId = vertx.setTimer(batchDelay, id -> {
+        timerId = -1L;
+        flush();
+      });
+    }
+  }
+
+  private void flush() {
+    if (keys.isEmpty() && tags.isEmpty()) {
+      return;
+    }
+    JsonObject msg = new JsonObject()
+      .put("node", node)
+      .put("keys", new JsonArray(new ArrayList<>(keys)))
+      .put("tags", new JsonArray(new ArrayList<>(tags)));
+    keys = new LinkedHashSet<>();
+    tags = new LinkedHashSet<>();
+    vertx.eventBus().publish(address, msg);
+  }
+}
@@ -0,0 +1,47 @@
+package io.vertx.httpproxy.impl;
+
+import java.util.Arrays;
+
+/**
+ * Estimates a percentile of the latest latencies.
+ *
+ * <p> Latencies are recorded in a window of the {@link #WINDOW} latest samples, the percentile is recomputed
+ * every {@link #REFRESH} samples so recording remains cheap.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class LatencyPercentile {
+
+  static final int WINDOW = 1000;
+  static final int REFRESH = 100;
+
+  private final double percentile;
+  private final long[] samples = new long[WINDOW];
+  private int count;
+  private volatile long value = -1L;
+
+  LatencyPercentile(double percentile) {
+    this.percentile = percentile;
+  }
+
+  synchronized void record(long latency) {
+    samples[count % WINDOW] = latency;
+    if (++count % REFRESH == 0) {
+      long[] sorted = Arrays.copyOf(samples, Math.min(count, WINDOW));
+      Arrays.sort(sorted);
+      // Nearest rank
+      int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+      value = sorted[Math.max(0, rank - 1)];
+      if (count >= 2 * WINDOW) {
+        count -= WINDOW;
+      }
+    }
+  }
+
+  /**
+   * @return the percentile or {@code -1} when not enough latencies were recorded
+   */
+  long value() {
+    return value;
+  }
+}
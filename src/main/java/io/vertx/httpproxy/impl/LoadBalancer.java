@@ -0,0 +1,242 @@
+package io.vertx.httpproxy.impl;
+
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.Cookie;
+import io.vertx.httpproxy.BackendPoolOptions;
+import io.vertx.httpproxy.LoadBalancing;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Selects the backend of a request among the available backends.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+interface LoadBalancer {
+
+  static LoadBalancer create(BackendPoolOptions options) {
+    LoadBalancing loadBalancing = options.getLoadBalancing();
+    switch (loadBalancing) {
+      case ROUND_ROBIN:
+        return new RoundRobin();
+      case LEAST_REQUESTS:
+        return new LeastRequests();
+      case POWER_OF_TWO_CHOICES:
+        return new PowerOfTwoChoices();
+      case CONSISTENT_HASH:
+        return new ConsistentHash(options);
+      default:
+        throw new IllegalArgumentException("Unsupported load balancing " + loadBalancing);
+    }
+  }
+
+  /**
+   * @param request the request
+   * @param backends the non empty list of available backends
+   * @return the selected backend
+   */
+  Backend select(HttpServerRequest request, List<Backend> backends);
+
+  /**
+   * Smooth weighted round robin: at each selection every backend gains its weight, the backend with the highest
+   * current weight is selected and loses the total weight. Heavier backends are selected more often and selections
+   * of a backend are spread over the sequence instead of being consecutive.
+   */
+  class RoundRobin implements LoadBalancer {
+    @Override
+    public synchronized Backend select(HttpServerRequest request, List<Backend> backends) {
+      Backend best = null;
+      double total = 0;
+      for (Backend backend : backends) {
+        double weight = backend.effectiveWeight();
+        backend.currentWeight += weight;
+        total += weight;
+        if (best == null || backend.currentWeight > best.currentWeight) {
+          best = backend;
+        }
+      }
+      best.currentWeight -= total;
+      return best;
+    }
+  }
+
+  /**
+   * Selects the backend with the least requests in flight relative to its weight, ties are broken by
+   * starting the scan at a random backend.
+   */
+  class LeastRequests implements LoadBalancer {
+    @Override
+    public Backend select(HttpServerRequest request, List<Backend> backends) {
+      int size = backends.size();
+      int offset = ThreadLocalRandom.current().nextInt(size);
+      Backend best = null;
+      long bestInFlight = 0;
+      double bestWeight = 0;
+      for (int i = 0;i < size;i++) {
+        Backend backend = backends.get((offset + i) % size);
+        long inFlight = backend.inFlight();
+        double weight = backend.effectiveWeight();
+        // inFlight / weight < bestInFlight / bestWeight
+        if (best == null || inFlight * bestWeight < bestInFlight * weight) {
+          best = backend;
+          bestInFlight = inFlight;
+          bestWeight = weight;
+        }
+      }
+      return best;
+    }
+  }
+
+  /**
+   * Power of two choices: compare two random backends and select the one with the least load. The load accounts
+   * for the latency so slow backends receive less traffic, the random picks avoid herding on the least loaded backend
+   * when the statistics are stale. A backend whose last requests failed loses against a backend with fewer failures,
+   * whatever their load, since the latency of a failure is not known.
+   */
+  class PowerOfTwoChoices implements LoadBalancer {
+
+    @Override
+    public Backend select(HttpServerRequest request, List<Backend> backends) {
+      int size = backends.size();
+      if (size == 1) {
+        return backends.get(0);
+      }
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      int i = random.nextInt(size);
+      int j = random.nextInt(size - 1);
+      if (j >= i) {
+        j++;
+      }
+      Backend a = backends.get(i);
+      Backend b = backends.get(j);
+      int failuresA = a.consecutiveFailures();
+      int failuresB = b.consecutiveFailures();
+      if (failuresA != failuresB) {
+        return failuresA < failuresB ? a : b;
+      }
+      return load(a) <= load(b) ? a : b;
+    }
+
+    static double load(Backend backend) {
+      // Add one so the latency of idle backends is still compared
+      return backend.latency() * (backend.inFlight() + 1) / backend.effectiveWeight();
+    }
+  }
+
+  /**
+   * Consistent hashing with bounded loads: each backend is placed on a ring at a number of points proportional to
+   * its weight, a request goes to the first backend following the hash of its key on the ring whose requests in flight
+   * are below {@code ceil(loadFactor * (total + 1) * weight / totalWeight)}.
+   *
+   * <p> Adding or removing a backend only remaps the keys of the ring arcs it owns.
+   */
+  class ConsistentHash implements LoadBalancer {
+
+    static final int POINTS_PER_WEIGHT = 100;
+
+    private static class Ring {
+
+      final long[] points;
+      final Backend[] owners;
+      final int totalWeight;
+
+      Ring(List<Backend> backends) {
+        int total = 0;
+        for (Backend backend : backends) {
+          total += backend.weight;
+        }
+        int size = total * POINTS_PER_WEIGHT;
+        long[] hashes = new long[size];
+        Backend[] pointOwners = new Backend[size];
+        int idx = 0;
+        for (Backend backend : backends) {
+          long seed = backend.seed;
+          for (int i = 0;i < backend.weight * POINTS_PER_WEIGHT;i++) {
+            hashes[idx] = Hashing.mix(seed + i);
+            pointOwners[idx++] = backend;
+          }
+        }
+        // Sort the points along with their owner
+        Integer[] order = new Integer[size];
+        for (int i = 0;i < size;i++) {
+          order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(hashes[a], hashes[b]));
+        this.points = new long[size];
+        this.owners = new Backend[size];
+        this.totalWeight = total;
+        for (int i = 0;i < size;i++) {
+          points[i] = hashes[order[i]];
+          owners[i] = pointOwners[order[i]];
+        }
+      }
+    }
+
+    /**
+     * The maximum number of cached rings, the pool provides one list per priority and zone.
+     */
+    static final int MAX_RINGS = 16;
+
+    private final String header;
+    private final String cookie;
+    private final double loadFactor;
+    private volatile Map<List<Backend>, Ring> rings = new IdentityHashMap<>();
+
+    ConsistentHash(BackendPoolOptions options) {
+      this.header = options.getHashHeader();
+      this.cookie = options.getHashCookie();
+      this.loadFactor = options.getHashLoadFactor();
+    }
+
+    String key(HttpServerRequest request) {
+      if (cookie != null) {
+        Cookie c = request.getCookie(cookie);
+        if (c != null) {
+          return c.getValue();
+        }
+      }
+      if (header != null) {
+        String value = request.getHeader(header);
+        if (value != null) {
+          return value;
+        }
+      }
+      return request.uri();
+    }
+
+    @Override
+    public Backend select(HttpServerRequest request, List<Backend> backends) {
+      Ring r = rings.get(backends);
+      if (r == null) {
+        // The pool provides the same lists until the available backends change
+        r = new Ring(backends);
+        Map<List<Backend>, Ring> copy = rings.size() < MAX_RINGS ? new IdentityHashMap<>(rings) : new IdentityHashMap<>();
+        copy.put(backends, r);
+        rings = copy;
+      }
+      long total = 0;
+      for (Backend backend : backends) {
+        total += backend.inFlight();
+      }
+      long hash = Hashing.mix(Hashing.hash(key(request)));
+      int idx = Arrays.binarySearch(r.points, hash);
+      if (idx < 0) {
+        idx = -idx - 1;
+      }
+      int size = r.points.length;
+      for (int i = 0;i < size;i++) {
+        Backend backend = r.owners[(idx + i) % size];
+        // The ring points do not follow the slow start, the capacity does
+        double capacity = Math.ceil(loadFactor * (total + 1) * backend.effectiveWeight() / r.totalWeight);
+        if (backend.inFlight() < capacity) {
+          return backend;
+        }
+      }
+      return r.owners[idx % size];
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package io.vertx.httpproxy.impl;
+
+import io.vertx.core.Vertx;
+import io.vertx.httpproxy.OutlierDetectionOptions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Ejects the backends of a pool according to the outcome of the requests they serve.
+ *
+ * <p> Consecutive server errors and connection failures eject a backend as soon as they are reported, latency outliers
+ * are detected by the periodic analysis. The analysis also returns to the pool the backends whose ejection time
+ * elapsed and decrements the ejection count of the backends that stayed in the pool for the base ejection time.
+ *
+ * <p> Outcomes are reported from any thread, the ejection state is guarded by this.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class OutlierDetector {
+
+  private final Vertx vertx;
+  private final OutlierDetectionOptions options;
+  private final Supplier<List<Backend>> backends;
+  private final Runnable onChange;
+  private long timerId = -1L;
+
+  OutlierDetector(Vertx vertx, OutlierDetectionOptions options, Supplier<List<Backend>> backends, Runnable onChange) {
+    this.vertx = vertx;
+    this.options = options;
+    this.backends = backends;
+    this.onChange = onChange;
+  }
+
+  synchronized void start() {
+    timerId = vertx.setPeriodic(options.getInterval(), id -> analyze());
+  }
+
+  synchronized void close() {
+    if (timerId != -1L) {
+      vertx.cancelTimer(timerId);
+      timerId = -1L;
+    }
+  }
+
+  void reportResponse(Backend backend, int statusCode) {
+    backend.consecutiveConnectionFailures.set(0);
+    if (statusCode >= 500) {
+      reportServerError(backend);
+    } else {
+      backend.consecutiveServerErrors.set(0);
+    }
+  }
+
+  void reportServerError(Backend backend) {
+    backend.consecutiveConnectionFailures.set(0);
+    int threshold = options.getConsecutiveServerErrors();
+    if (threshold > 0 && backend.consecutiveServerErrors.incrementAndGet() >= threshold) {
+      eject(backend);
+    }
+  }
+
+  void reportConnectionFailure(Backend backend) {
+    int threshold = options.getConsecutiveConnectionFailures();
+    if (threshold > 0 && backend.consecutiveConnectionFailures.incrementAndGet() >= threshold) {
+      eject(backend);
+    }
+  }
+
+  private void eject(Backend backend) {
+    boolean changed;
+    synchronized (this) {
+      changed = tryEject(backend, System.currentTimeMillis());
+    }
+    if (changed) {
+      onChange.run();
+    }
+  }
+
+  private boolean tryEject(Backend backend, long now) {
+    if (backend.ejected) {
+      return false;
+    }
+    List<Backend> list = backends.get();
+    int ejected = 0;
+    for (Backend b : list) {
+      if (b.ejected) {
+        ejected++;
+      }
+    }
+    int max = Math.max(1, list.size() * options.getMaxEjectionPercent() / 100);
+    if (ejected >= max) {
+      return false;
+    }
+    backend.ejections++;
+    long time = options.getBaseEjectionTime() << Math.min(backend.ejections - 1, 30);
+    backend.ejectedUntil = now + Math.min(time, options.getMaxEjectionTime());
+    backend.ejected = true;
+    backend.consecutiveServerErrors.set(0);
+    backend.consecutiveConnectionFailures.set(0);
+    return true;
+  }
+
+  void analyze() {
+    boolean changed = false;
+    synchronized (this) {
+      long now = System.currentTimeMillis();
+      List<Backend> list = backends.get();
+      for (Backend backend : list) {
+        if (backend.ejected) {
+          if (now >= backend.ejectedUntil) {
+            backend.resetLatency();
+            backend.ejected = false;
+            changed = true;
+          }
+        } else if (backend.ejections > 0 && now - backend.ejectedUntil >= options.getBaseEjectionTime()) {
+          // Decay once per base ejection time without ejection, ejectedUntil tracks the last decay
+          backend.ejections--;
+          backend.ejectedUntil = now;
+        }
+      }
+      double factor = options.getLatencyFactor();
+      if (factor > 0) {
+        List<Backend> sampled = new ArrayList<>();
+        List<Double> latencies = new ArrayList<>();
+        for (Backend backend : list) {
+          double latency = backend.latency();
+          if (backend.available() && latency > 0) {
+            sampled.add(backend);
+            latencies.add(latency);
+          }
+        }
+        if (sampled.size() >= 3) {
+          Collections.sort(latencies);
+          double median = latencies.get(latencies.size() / 2);
+          for (Backend backend : sampled) {
+            if (backend.latency() > factor * median) {
+              changed |= tryEject(backend, now);
+            }
+          }
+        }
+      }
+    }
+    if (changed) {
+      onChange.run();
+    }
+  }
+}
@@ -3,8 +3,10 @@ package io.vertx.httpproxy.impl;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpClientResponse;
 import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServerRequest;
@@ -15,7 +17,9 @@ import io.vertx.core.streams.ReadStream;
 import io.vertx.httpproxy.Body;
 import io.vertx.httpproxy.ProxyRequest;
 import io.vertx.httpproxy.ProxyResponse;
+import io.vertx.httpproxy.TimeoutOptions;
 
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 public class ProxyRequestImpl implements ProxyRequest {
@@ -29,6 +33,15 @@ public class ProxyRequestImpl implements ProxyRequest {
   HttpClientRequest edgeRequest;
   private HttpServerResponse edgeResponse;
 
+  // The timeouts of the backend requests and the deadline as a nano time, set by the proxy
+  Vertx vertx;
+  TimeoutOptions timeouts;
+  long deadline;
+
+  // The pool of the request and the pool backend of the response, set by the proxy
+  BackendPoolImpl pool;
+  Backend backend;
+
   public ProxyRequestImpl(HttpServerRequest edgeRequest) {
 
     // Determine content length
@@ -109,25 +122,25 @@ public class ProxyRequestImpl implements ProxyRequest {
 
   void sendRequest(Handler<AsyncResult<ProxyResponse>> responseHandler) {
 
+    HttpClientRequest request = edgeRequest;
+    long idleTimeout = timeouts != null ? timeouts.getIdleTimeout() : 0L;
     edgeRequest.<ProxyResponse>map(r -> {
       r.pause(); // Pause it
+      // The response timeout is cancelled when the headers are received, the body is only bound by the idle
+      // timeout and the deadline
+      if (idleTimeout > 0) {
+        request.setTimeout(idleTimeout);
+      }
+      if (deadline != 0L) {
+        long left = Math.max(1L, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+        long timerId = vertx.setTimer(left, id -> request.reset());
+        r.end().onComplete(ar -> vertx.cancelTimer(timerId));
+      }
       return new ProxyResponseImpl(this, edgeResponse, r);
     }).onComplete(responseHandler);
 
 
-    edgeRequest.setMethod(method);
-    edgeRequest.setURI(uri);
-
-    // Add all end-to-end headers
-    headers.forEach(header -> {
-      String name = header.getKey();
-      String value = header.getValue();
-      if (name.equalsIgnoreCase("host")) {
-        // Skip
-      } else {
-        edgeRequest.headers().add(name, value);
-      }
-    });
+    sendHead();
 
     long len = body.length();
     if (len >= 0) {
@@ -146,6 +159,57 @@ public class ProxyRequestImpl implements ProxyRequest {
     });
   }
 
+  private void sendHead() {
+    edgeRequest.setMethod(method);
+    edgeRequest.setURI(uri);
+
+    // Add all end-to-end headers
+    headers.forEach(header -> {
+      String name = header.getKey();
+      String value = header.getValue();
+      if (name.equalsIgnoreCase("host") || HttpUtils.isPseudoHeader(name) || HttpUtils.isHopByHop(name, value, headers)) {
+        // Skip
+      } else {
+        edgeRequest.headers().add(name, value);
+      }
+    });
+
+    if (timeouts != null) {
+      applyTimeouts(edgeRequest);
+    }
+  }
+
+  /**
+   * Send an upgrade request, the connection-specific headers asking for the upgrade are forwarded. The handler
+   * is called with the response head, the backend connection is switched to the new protocol when it is a
+   * {@code 101} response.
+   */
+  void sendUpgrade(Handler<AsyncResult<HttpClientResponse>> responseHandler) {
+    String upgrade = headers.get(HttpHeaders.UPGRADE);
+    sendHead();
+    edgeRequest.putHeader(HttpHeaders.CONNECTION, HttpHeaders.UPGRADE);
+    edgeRequest.putHeader(HttpHeaders.UPGRADE, upgrade);
+    edgeRequest.connect(responseHandler);
+  }
+
+  /**
+   * Bound the time to the response headers by the response timeout and the deadline, the backend request is reset
+   * when it expires. Once the headers are received the deadline is enforced by a timer of its own.
+   */
+  private void applyTimeouts(HttpClientRequest request) {
+    long timeout = timeouts.getResponseTimeout();
+    if (deadline != 0L) {
+      long left = Math.max(1L, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+      timeout = timeout > 0 ? Math.min(timeout, left) : left;
+      if (timeouts.getDeadlineHeader() != null) {
+        request.putHeader(timeouts.getDeadlineHeader(), Long.toString(left));
+      }
+    }
+    if (timeout > 0) {
+      request.setTimeout(timeout);
+    }
+  }
+
   @Override
   public ProxyRequestImpl putHeader(CharSequence name, CharSequence value) {
     headers.set(name, value);
@@ -180,7 +180,7 @@ class ProxyResponseImpl implements ProxyResponse {
     headers.forEach(header -> {
       String name = header.getKey();
       String value = header.getValue();
-      if (name.equalsIgnoreCase("date") || name.equalsIgnoreCase("warning") || name.equalsIgnoreCase("transfer-encoding")) {
+      if (name.equalsIgnoreCase("date") || name.equalsIgnoreCase("warning") || HttpUtils.isPseudoHeader(name) || HttpUtils.isHopByHop(name, value, headers)) {
         // Skip
       } else {
         edgeResponse.headers().add(name, value);
@@ -215,15 +215,28 @@ class ProxyResponseImpl implements ProxyResponse {
   }
 
   private void sendResponse(ReadStream<Buffer> body, Handler<AsyncResult<Void>> completionHandler) {
+    HttpClientResponse origin = originResponse;
     Pipe<Buffer> pipe = body.pipe();
-    pipe.endOnSuccess(true);
+    pipe.endOnSuccess(false);
     pipe.endOnFailure(false);
     pipe.to(edgeResponse, ar -> {
       if (ar.failed()) {
         request.edgeRequest.reset();
         edgeResponse.reset();
+        completionHandler.handle(ar);
+        return;
       }
-      completionHandler.handle(ar);
+      // The trailers are known once the origin response has ended, they are sent with HTTP/2
+      // and with chunked HTTP/1.1
+      if (origin != null) {
+        origin.trailers().forEach(trailer -> {
+          String name = trailer.getKey();
+          if (!HttpUtils.isPseudoHeader(name) && !HttpUtils.isHopByHop(name, trailer.getValue(), origin.trailers())) {
+            edgeResponse.trailers().add(name, trailer.getValue());
+          }
+        });
+      }
+      edgeResponse.end(completionHandler);
     });
   }
 }
@@ -0,0 +1,116 @@
+package io.vertx.httpproxy.impl;
+
+import io.vertx.httpproxy.RateLimitOptions;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token buckets of the clients of a proxy.
+ *
+ * <p> The buckets are spread over stripes locked independently, each stripe is a map in access order bounded to
+ * its share of the maximum number of clients: the least recently seen clients are evicted first, idle clients
+ * are evicted when the stripe is accessed.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class RateLimiter {
+
+  private static final int STRIPES = 16;
+
+  /**
+   * The maximum number of idle clients evicted by an access, it bounds the cost of an access.
+   */
+  private static final int MAX_EVICTIONS = 4;
+
+  private final double tokensPerNano;
+  private final double burst;
+  private final long idleTimeout;
+  private final Stripe[] stripes = new Stripe[STRIPES];
+
+  RateLimiter(RateLimitOptions options) {
+    this.tokensPerNano = options.getRate() / TimeUnit.SECONDS.toNanos(1);
+    this.burst = options.getBurst();
+    this.idleTimeout = TimeUnit.MILLISECONDS.toNanos(options.getIdleTimeout());
+    int maxSize = Math.max(1, options.getMaxClients() / STRIPES);
+    for (int i = 0;i < STRIPES;i++) {
+      stripes[i] = new Stripe(maxSize);
+    }
+  }
+
+  /**
+   * Take a token from the bucket of a client.
+   *
+   * @param key the client key
+   * @return {@code 0} when the request is allowed, otherwise the delay in nanoseconds until a token is available
+   */
+  long tryAcquire(String key) {
+    int h = key.hashCode();
+    Stripe stripe = stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    long now = System.nanoTime();
+    synchronized (stripe) {
+      stripe.evictIdle(now);
+      Bucket bucket = stripe.get(key);
+      if (bucket == null) {
+        bucket = new Bucket(burst, now);
+        stripe.put(key, bucket);
+      } else {
+        bucket.tokens = Math.min(burst, bucket.tokens + (now - bucket.lastSeen) * tokensPerNano);
+        bucket.lastSeen = now;
+      }
+      if (bucket.tokens >= 1) {
+        bucket.tokens -= 1;
+        return 0L;
+      }
+      return Math.max(1L, (long) Math.ceil((1 - bucket.tokens) / tokensPerNano));
+    }
+  }
+
+  private static class Bucket {
+
+    private double tokens;
+    private long lastSeen;
+
+    Bucket(double tokens, long lastSeen) {
+      this.tokens = tokens;
+      this.lastSeen = lastSeen;
+    }
+  }
+
+  private class Stripe {
+
+    private final LinkedHashMap<String, Bucket> buckets = new LinkedHashMap<>(16, 0.75f, true);
+    private final int maxSize;
+
+    Stripe(int maxSize) {
+      this.maxSize = maxSize;
+    }
+
+    Bucket get(String key) {
+      return buckets.get(key);
+    }
+
+    void put(String key, Bucket bucket) {
+      buckets.put(key, bucket);
+      if (buckets.size() > maxSize) {
+        Iterator<Bucket> it = buckets.values().iterator();
+        it.next();
+        it.remove();
+      }
+    }
+
+    /**
+     * The eldest entries are the least recently seen.
+     */
+    void evictIdle(long now) {
+      Iterator<Bucket> it = buckets.values().iterator();
+      for (int i = 0;i < MAX_EVICTIONS && it.hasNext();i++) {
+        if (now - it.next().lastSeen < idleTimeout) {
+          break;
+        }
+        it.remove();
+      }
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package io.vertx.httpproxy.impl;
+
+/**
+ * A token bucket limiting the extra requests, i.e retries or hedges, to a ratio of the requests.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class RequestBudget {
+
+  private final double ratio;
+  private final double capacity;
+  private double tokens;
+
+  RequestBudget(double ratio, int capacity) {
+    this.ratio = ratio;
+    this.capacity = capacity;
+    this.tokens = capacity;
+  }
+
+  /**
+   * Report a request, the request adds its share of tokens.
+   */
+  synchronized void deposit() {
+    tokens = Math.min(capacity, tokens + ratio);
+  }
+
+  /**
+   * @return whether an extra request is allowed, the request takes a token
+   */
+  synchronized boolean tryWithdraw() {
+    if (tokens >= 1) {
+      tokens -= 1;
+      return true;
+    }
+    return false;
+  }
+}
@@ -7,6 +7,7 @@ import io.vertx.httpproxy.Body;
 import io.vertx.httpproxy.ProxyResponse;
 
 import java.util.Date;
+import java.util.Map;
 
 class Resource {
 
@@ -16,20 +17,49 @@ class Resource {
   final long timestamp;
   final long maxAge;
   final Date lastModified;
-  final String etag;
+  String etag;
+  // Whether the etag is generated by the proxy, such an etag is unknown to the origin
+  boolean generated;
   final Buffer content = Buffer.buffer();
+  private long size = -1L;
 
   Resource(String absoluteUri, int statusCode, MultiMap headers, long timestamp, long maxAge) {
     String lastModifiedHeader = headers.get(HttpHeaders.LAST_MODIFIED);
     this.absoluteUri = absoluteUri;
     this.statusCode = statusCode;
-    this.headers = headers;
+    this.headers = MultiMap.caseInsensitiveMultiMap().addAll(headers);
     this.timestamp = timestamp;
     this.maxAge = maxAge;
     this.lastModified = lastModifiedHeader != null ? ParseUtils.parseHeaderDate(lastModifiedHeader) : null;
     this.etag = headers.get(HttpHeaders.ETAG);
   }
 
+  /**
+   * Set a generated validator, when the origin response has none. It is only used to answer the conditional
+   * requests of the clients, a stale resource is never revalidated with it.
+   *
+   * @param etag the strong entity tag
+   */
+  void generatedEtag(String etag) {
+    this.etag = etag;
+    this.generated = true;
+    headers.set(HttpHeaders.ETAG, etag);
+  }
+
+  /**
+   * @return the approximate memory footprint of the resource, it should only be called once the content is complete
+   */
+  long size() {
+    if (size < 0L) {
+      long s = content.length();
+      for (Map.Entry<String, String> header : headers) {
+        s += header.getKey().length() + header.getValue().length();
+      }
+      size = s;
+    }
+    return size;
+  }
+
   void sendTo(ProxyResponse proxyResponse) {
     proxyResponse.setStatusCode(200);
     proxyResponse.headers().addAll(headers);
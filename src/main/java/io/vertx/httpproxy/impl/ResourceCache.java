@@ -0,0 +1,214 @@
+package io.vertx.httpproxy.impl;
+
+import io.vertx.httpproxy.CacheOptions;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A cache of resources partitioned by tenant.
+ *
+ * <p> Each tenant owns a partition with a guaranteed quota, bytes beyond the quota are accounted
+ * in a pool shared by all tenants. When a tenant needs room, the least recently used entries of
+ * this tenant are evicted first, then the entries other tenants keep in the shared pool.
+ *
+ * <p> Resources are indexed by the tags listed in their tag header so they can be removed together.
+ *
+ * <p> This class is not thread safe.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class ResourceCache {
+
+  private static class Partition {
+
+    private final String tenant;
+    private final long quota;
+    private final LinkedHashMap<String, Resource> resources = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+
+    Partition(String tenant, long quota) {
+      this.tenant = tenant;
+      this.quota = quota;
+    }
+
+    long overflow() {
+      return Math.max(0L, size - quota);
+    }
+  }
+
+  private final CacheOptions options;
+  private final Map<String, Partition> partitions = new HashMap<>();
+  private final Map<String, Partition> owners = new HashMap<>();
+  private final Map<String, Set<String>> tagged = new HashMap<>();
+  private long sharedUsage;
+
+  ResourceCache(CacheOptions options) {
+    this.options = new CacheOptions(options);
+  }
+
+  /**
+   * Lookup a fresh resource, a stale resource is removed.
+   *
+   * @param key the resource key
+   * @return the resource or {@code null}
+   */
+  Resource get(String key) {
+    Partition partition = owners.get(key);
+    if (partition == null) {
+      return null;
+    }
+    Resource resource = partition.resources.get(key);
+    long now = System.currentTimeMillis();
+    if (resource.timestamp + resource.maxAge < now) {
+      remove(key);
+      return null;
+    }
+    return resource;
+  }
+
+  /**
+   * Cache a resource for the given tenant, evicting entries to make room when needed.
+   *
+   * @param tenant the tenant
+   * @param resource the resource
+   * @return whether the resource has been cached
+   */
+  boolean put(String tenant, Resource resource) {
+    String key = resource.absoluteUri;
+    remove(key);
+    Partition partition = partitions.get(tenant);
+    if (partition == null) {
+      partition = new Partition(tenant, options.tenantQuota(tenant));
+    }
+    long size = resource.size();
+    if (size > partition.quota + options.getSharedPoolSize()) {
+      return false;
+    }
+    // Evict within the tenant first
+    while (!fits(partition, size) && partition.resources.size() > 0) {
+      evictEldest(partition);
+    }
+    // Then reclaim the shared pool from other tenants
+    while (!fits(partition, size)) {
+      Partition victim = largestOverflow(partition);
+      if (victim == null) {
+        return false;
+      }
+      evictEldest(victim);
+    }
+    long overflow = partition.overflow();
+    partition.resources.put(key, resource);
+    partition.size += size;
+    sharedUsage += partition.overflow() - overflow;
+    partitions.put(tenant, partition);
+    owners.put(key, partition);
+    for (String tag : tags(resource)) {
+      tagged.computeIfAbsent(tag, t -> new HashSet<>()).add(key);
+    }
+    return true;
+  }
+
+  /**
+   * Remove a resource.
+   *
+   * @param key the resource key
+   * @return the removed resource or {@code null}
+   */
+  Resource remove(String key) {
+    Partition partition = owners.remove(key);
+    if (partition == null) {
+      return null;
+    }
+    Resource resource = partition.resources.remove(key);
+    release(partition, resource);
+    return resource;
+  }
+
+  /**
+   * Remove all the resources carrying a tag.
+   *
+   * @param tag the tag
+   * @return the number of removed resources
+   */
+  int removeTag(String tag) {
+    Set<String> keys = tagged.remove(tag);
+    if (keys == null) {
+      return 0;
+    }
+    int count = 0;
+    for (String key : keys.toArray(new String[0])) {
+      if (remove(key) != null) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * @return the number of bytes used by the {@code tenant}
+   */
+  long size(String tenant) {
+    Partition partition = partitions.get(tenant);
+    return partition != null ? partition.size : 0L;
+  }
+
+  private boolean fits(Partition partition, long size) {
+    long overflow = Math.max(0L, partition.size + size - partition.quota);
+    return sharedUsage - partition.overflow() + overflow <= options.getSharedPoolSize();
+  }
+
+  private Partition largestOverflow(Partition exclude) {
+    Partition victim = null;
+    for (Partition partition : partitions.values()) {
+      if (partition != exclude && partition.overflow() > 0 && (victim == null || partition.overflow() > victim.overflow())) {
+        victim = partition;
+      }
+    }
+    return victim;
+  }
+
+  private void evictEldest(Partition partition) {
+    Iterator<Map.Entry<String, Resource>> it = partition.resources.entrySet().iterator();
+    Map.Entry<String, Resource> eldest = it.next();
+    it.remove();
+    owners.remove(eldest.getKey());
+    release(partition, eldest.getValue());
+  }
+
+  private void release(Partition partition, Resource resource) {
+    long overflow = partition.overflow();
+    partition.size -= resource.size();
+    sharedUsage -= overflow - partition.overflow();
+    if (partition.resources.isEmpty()) {
+      partitions.remove(partition.tenant);
+    }
+    for (String tag : tags(resource)) {
+      Set<String> keys = tagged.get(tag);
+      if (keys != null) {
+        keys.remove(resource.absoluteUri);
+        if (keys.isEmpty()) {
+          tagged.remove(tag);
+        }
+      }
+    }
+  }
+
+  private List<String> tags(Resource resource) {
+    List<String> tags = new ArrayList<>();
+    for (String header : resource.headers.getAll(options.getTagHeader())) {
+      for (String tag : header.split("[,\\s]+")) {
+        if (tag.length() > 0) {
+          tags.add(tag);
+        }
+      }
+    }
+    return tags;
+  }
+}
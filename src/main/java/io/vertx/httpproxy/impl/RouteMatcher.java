@@ -0,0 +1,149 @@
+package io.vertx.httpproxy.impl;
+
+import io.vertx.core.http.HttpMethod;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The compiled form of a list of routes: a hash of the route hosts to a radix tree of the route path prefixes.
+ *
+ * <p> A lookup costs a hash of the host and a walk of the path, whatever the number of routes. The routes of
+ * a host take precedence over the routes of any host, then the longest path prefix wins and finally the first
+ * route declared accepting the method.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class RouteMatcher {
+
+  private final Map<String, Node> hosts = new HashMap<>();
+  private final Node anyHost = new Node("");
+
+  RouteMatcher(List<RouteTableImpl.Route> routes) {
+    for (RouteTableImpl.Route route : routes) {
+      Node root = route.host != null ? hosts.computeIfAbsent(route.host, h -> new Node("")) : anyHost;
+      root.insert(route.pathPrefix, route);
+    }
+    for (Node root : hosts.values()) {
+      root.freeze();
+    }
+    anyHost.freeze();
+  }
+
+  /**
+   * @param host the lower case host without port or {@code null}
+   * @return the matching route or {@code null}
+   */
+  RouteTableImpl.Route match(String host, String path, HttpMethod method) {
+    if (host != null) {
+      Node root = hosts.get(host);
+      if (root != null) {
+        RouteTableImpl.Route route = root.match(path, method);
+        if (route != null) {
+          return route;
+        }
+      }
+    }
+    return anyHost.match(path, method);
+  }
+
+  /**
+   * A node of the radix tree, the children labels start with distinct chars.
+   */
+  private static class Node {
+
+    private String label;
+    private List<Node> children = new ArrayList<>();
+    private final List<RouteTableImpl.Route> routes = new ArrayList<>();
+
+    // The frozen children sorted by first char
+    private char[] keys;
+    private Node[] nodes;
+
+    Node(String label) {
+      this.label = label;
+    }
+
+    void insert(String key, RouteTableImpl.Route route) {
+      if (key.isEmpty()) {
+        routes.add(route);
+        return;
+      }
+      for (int i = 0;i < children.size();i++) {
+        Node child = children.get(i);
+        int len = commonPrefixLength(child.label, key);
+        if (len == 0) {
+          continue;
+        }
+        if (len < child.label.length()) {
+          // Split the edge
+          Node split = new Node(child.label.substring(0, len));
+          child.label = child.label.substring(len);
+          split.children.add(child);
+          children.set(i, split);
+          child = split;
+        }
+        child.insert(key.substring(len), route);
+        return;
+      }
+      Node leaf = new Node(key);
+      leaf.routes.add(route);
+      children.add(leaf);
+    }
+
+    void freeze() {
+      children.sort((n1, n2) -> Character.compare(n1.label.charAt(0), n2.label.charAt(0)));
+      keys = new char[children.size()];
+      nodes = children.toArray(new Node[0]);
+      for (int i = 0;i < nodes.length;i++) {
+        keys[i] = nodes[i].label.charAt(0);
+        nodes[i].freeze();
+      }
+      children = null;
+    }
+
+    RouteTableImpl.Route match(String path, HttpMethod method) {
+      RouteTableImpl.Route match = route(method);
+      Node node = this;
+      int pos = 0;
+      while (pos < path.length()) {
+        int idx = Arrays.binarySearch(node.keys, path.charAt(pos));
+        if (idx < 0) {
+          break;
+        }
+        Node child = node.nodes[idx];
+        if (!path.startsWith(child.label, pos)) {
+          break;
+        }
+        pos += child.label.length();
+        node = child;
+        RouteTableImpl.Route route = node.route(method);
+        if (route != null) {
+          match = route;
+        }
+      }
+      return match;
+    }
+
+    private RouteTableImpl.Route route(HttpMethod method) {
+      for (RouteTableImpl.Route route : routes) {
+        if (route.accepts(method)) {
+          return route;
+        }
+      }
+      return null;
+    }
+
+    private static int commonPrefixLength(String s1, String s2) {
+      int len = Math.min(s1.length(), s2.length());
+      int i = 0;
+      while (i < len && s1.charAt(i) == s2.charAt(i)) {
+        i++;
+      }
+      return i;
+    }
+  }
+}
@@ -0,0 +1,216 @@
+package io.vertx.httpproxy.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.impl.logging.Logger;
+import io.vertx.core.impl.logging.LoggerFactory;
+import io.vertx.core.json.JsonObject;
+import io.vertx.httpproxy.RouteOptions;
+import io.vertx.httpproxy.RouteTable;
+import io.vertx.httpproxy.RouteTableOptions;
+import io.vertx.httpproxy.TimeoutOptions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The routes are an immutable snapshot read without locking by the event loops, an update replaces the snapshot.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class RouteTableImpl implements RouteTable {
+
+  private static final Logger log = LoggerFactory.getLogger(RouteTableImpl.class);
+
+  private static final Snapshot EMPTY = new Snapshot(Collections.emptyList());
+
+  private final Vertx vertx;
+  private volatile Snapshot snapshot = EMPTY;
+  private final List<HttpClient> clients = new ArrayList<>();
+  private long watchTimerId = -1L;
+  private volatile String watchedVersion;
+  private volatile boolean watchedMissing;
+  private boolean closed;
+
+  public RouteTableImpl(Vertx vertx) {
+    this.vertx = vertx;
+  }
+
+  /**
+   * Attach the pools of the table to the client of a proxy, see {@link BackendPoolImpl#attach}. A table can be
+   * shared by several proxies, the pools of the next updates are attached to the client of each proxy.
+   */
+  synchronized void attach(HttpClient client) {
+    if (!clients.contains(client)) {
+      clients.add(client);
+    }
+    for (Route route : snapshot.routes) {
+      route.pool.attach(client);
+    }
+  }
+
+  /**
+   * @return the route of a request or {@code null} when no route matches
+   */
+  Route match(HttpServerRequest request) {
+    return snapshot.matcher.match(host(request.host()), request.path(), request.method());
+  }
+
+  /**
+   * @return the lower case host name without port of a host header value
+   */
+  static String host(String value) {
+    if (value == null) {
+      return null;
+    }
+    int end;
+    if (value.startsWith("[")) {
+      // IPv6 literal
+      end = value.indexOf(']') + 1;
+    } else {
+      end = value.indexOf(':');
+    }
+    return (end > 0 ? value.substring(0, end) : value).toLowerCase(Locale.ROOT);
+  }
+
+  @Override
+  public synchronized RouteTable update(RouteTableOptions options) {
+    if (closed) {
+      return this;
+    }
+    // The pools of the routes which did not change are kept
+    Map<String, BackendPoolImpl> previous = new HashMap<>();
+    for (Route route : snapshot.routes) {
+      previous.putIfAbsent(route.key, route.pool);
+    }
+    List<Route> routes = new ArrayList<>();
+    for (RouteOptions options2 : options.getRoutes()) {
+      String key = options2.getPool().toJson().encode();
+      BackendPoolImpl pool = previous.remove(key);
+      if (pool == null) {
+        pool = new BackendPoolImpl(vertx, options2.getPool());
+        for (HttpClient client : clients) {
+          pool.attach(client);
+        }
+      }
+      routes.add(new Route(options2, key, pool));
+    }
+    snapshot = new Snapshot(routes);
+    // The requests in flight to the removed pools complete normally
+    for (BackendPoolImpl pool : previous.values()) {
+      pool.close();
+    }
+    return this;
+  }
+
+  @Override
+  public Future<Void> load(String path) {
+    return vertx.fileSystem()
+      .readFile(path)
+      .map(buffer -> {
+        update(new RouteTableOptions(new JsonObject(buffer)));
+        return null;
+      });
+  }
+
+  @Override
+  public synchronized RouteTable watch(String path, long interval) {
+    if (closed) {
+      return this;
+    }
+    if (watchTimerId != -1L) {
+      vertx.cancelTimer(watchTimerId);
+    }
+    watchedVersion = null;
+    watchedMissing = false;
+    watchTimerId = vertx.setPeriodic(interval, id -> check(path));
+    check(path);
+    return this;
+  }
+
+  /**
+   * Reload the routes when the modification time or the size of the watched file changed, the failures are
+   * logged since nobody waits for the result.
+   */
+  private void check(String path) {
+    vertx.fileSystem().props(path).onComplete(ar -> {
+      if (ar.failed()) {
+        // Logged once until the file can be read again
+        if (!watchedMissing) {
+          watchedMissing = true;
+          log.warn("Cannot check the routes file " + path, ar.cause());
+        }
+        return;
+      }
+      watchedMissing = false;
+      String version = ar.result().lastModifiedTime() + ":" + ar.result().size();
+      if (!version.equals(watchedVersion)) {
+        watchedVersion = version;
+        load(path).onFailure(err -> log.warn("Cannot reload the routes from " + path + ", the current routes are kept", err));
+      }
+    });
+  }
+
+  @Override
+  public synchronized void close() {
+    closed = true;
+    if (watchTimerId != -1L) {
+      vertx.cancelTimer(watchTimerId);
+      watchTimerId = -1L;
+    }
+    for (Route route : snapshot.routes) {
+      route.pool.close();
+    }
+    snapshot = EMPTY;
+  }
+
+  static class Route {
+
+    final String name;
+    final String host;
+    final String pathPrefix;
+    final Set<HttpMethod> methods;
+    final BackendPoolImpl pool;
+    final TimeoutOptions timeouts;
+
+    // The identity of the pool options
+    private final String key;
+
+    Route(RouteOptions options, String key, BackendPoolImpl pool) {
+      this.name = options.getName();
+      this.host = options.getHost() != null ? options.getHost().toLowerCase(Locale.ROOT) : null;
+      this.pathPrefix = options.getPathPrefix();
+      this.methods = options.getMethods().isEmpty() ? null : new HashSet<>(options.getMethods());
+      this.pool = pool;
+      this.timeouts = options.getTimeouts() != null ? new TimeoutOptions(options.getTimeouts()) : null;
+      this.key = key;
+    }
+
+    boolean accepts(HttpMethod method) {
+      return methods == null || methods.contains(method);
+    }
+  }
+
+  /**
+   * The routes of the table and their compiled form.
+   */
+  static class Snapshot {
+
+    final List<Route> routes;
+    final RouteMatcher matcher;
+
+    Snapshot(List<Route> routes) {
+      this.routes = routes;
+      this.matcher = new RouteMatcher(routes);
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package io.vertx.httpproxy.impl;
+
+import io.vertx.core.http.Cookie;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.httpproxy.AffinityOptions;
+
+import java.util.List;
+
+/**
+ * Maps a request to its backend without shared state: the proxy cookie carries the backend identifier and a
+ * session value is mapped with rendezvous hashing, i.e the backend with the highest weighted score for the value.
+ * A session only moves when its backend leaves the pool.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class SessionAffinity {
+
+  private final AffinityOptions options;
+
+  SessionAffinity(AffinityOptions options) {
+    this.options = new AffinityOptions(options);
+  }
+
+  /**
+   * @return the name of the proxy cookie or {@code null}
+   */
+  String cookie() {
+    return options.getCookie();
+  }
+
+  /**
+   * @return the backend identifier carried by the proxy cookie of a request or {@code null}
+   */
+  String backendId(HttpServerRequest request) {
+    if (options.getCookie() != null) {
+      Cookie c = request.getCookie(options.getCookie());
+      if (c != null) {
+        return c.getValue();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @param backends all the backends of the pool
+   * @return the backend of a request or {@code null} when the request has no affinity or its backend is not available
+   */
+  Backend lookup(HttpServerRequest request, List<Backend> backends) {
+    String id = backendId(request);
+    if (id != null) {
+      for (Backend backend : backends) {
+        if (backend.id.equals(id)) {
+          return backend.available() ? backend : null;
+        }
+      }
+    }
+    String session = session(request);
+    if (session != null) {
+      Backend best = null;
+      double bestScore = 0;
+      long hash = Hashing.hash(session);
+      for (Backend backend : backends) {
+        // Uniform in (0, 1)
+        double u = ((Hashing.mix(hash ^ backend.seed) >>> 11) + 0.5) / (1L << 53);
+        double score = -backend.weight / Math.log(u);
+        if (best == null || score > bestScore) {
+          best = backend;
+          bestScore = score;
+        }
+      }
+      return best != null && best.available() ? best : null;
+    }
+    return null;
+  }
+
+  private String session(HttpServerRequest request) {
+    if (options.getSessionCookie() != null) {
+      Cookie c = request.getCookie(options.getSessionCookie());
+      if (c != null) {
+        return c.getValue();
+      }
+    }
+    if (options.getSessionHeader() != null) {
+      return request.getHeader(options.getSessionHeader());
+    }
+    return null;
+  }
+}
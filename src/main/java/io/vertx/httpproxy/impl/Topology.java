@@ -0,0 +1,154 @@
+package io.vertx.httpproxy.impl;
+
+import io.vertx.httpproxy.BackendPoolOptions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The available backends of a pool grouped by priority and zone, it is rebuilt when the availability changes.
+ *
+ * <p> Each priority receives a share of the requests equal to its available weight ratio multiplied by the
+ * overprovisioning factor, the remaining share fails over to the next priorities. When all the priorities are
+ * degraded, the shares are normalized.
+ *
+ * <p> Within a priority, requests stay in the local zone while the available ratio of the local weight is above the
+ * threshold, below they spill proportionally to the other zones.
+ *
+ * <p> The lists are the same instances until the next rebuild, load balancers can keep state derived from them.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class Topology {
+
+  private static class Level {
+
+    final List<Backend> local;
+    final List<Backend> remote;
+    final double localShare;
+
+    Level(List<Backend> local, List<Backend> remote, double localShare) {
+      this.local = local;
+      this.remote = remote;
+      this.localShare = localShare;
+    }
+
+    List<Backend> route(ThreadLocalRandom random) {
+      if (localShare >= 1) {
+        return local;
+      }
+      if (localShare <= 0 || random.nextDouble() >= localShare) {
+        return remote;
+      }
+      return local;
+    }
+  }
+
+  final List<Backend> available;
+  private final Level[] levels;
+  private final double[] cumulativeShares;
+
+  Topology(List<Backend> backends, BackendPoolOptions options) {
+    TreeMap<Integer, List<Backend>> byPriority = new TreeMap<>();
+    List<Backend> all = new ArrayList<>();
+    for (Backend backend : backends) {
+      byPriority.computeIfAbsent(backend.priority, p -> new ArrayList<>()).add(backend);
+      if (backend.available()) {
+        all.add(backend);
+      }
+    }
+    List<Level> list = new ArrayList<>();
+    List<Double> shares = new ArrayList<>();
+    double remaining = 1;
+    for (List<Backend> members : byPriority.values()) {
+      Level level = level(members, options);
+      if (level == null) {
+        continue;
+      }
+      double share = Math.min(remaining, Math.min(1, ratio(members, null) * options.getOverprovisioningFactor()));
+      remaining -= share;
+      if (share > 0) {
+        list.add(level);
+        shares.add(share);
+      }
+    }
+    double total = 1 - remaining;
+    this.available = Collections.unmodifiableList(all);
+    this.levels = list.toArray(new Level[0]);
+    this.cumulativeShares = new double[levels.length];
+    double acc = 0;
+    for (int i = 0;i < levels.length;i++) {
+      // Normalize when the priorities are degraded
+      acc += shares.get(i) / total;
+      cumulativeShares[i] = acc;
+    }
+  }
+
+  /**
+   * @return the backends to balance a request over, {@code null} when none is available
+   */
+  List<Backend> route() {
+    int size = levels.length;
+    if (size == 0) {
+      return null;
+    }
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    Level level = levels[size - 1];
+    if (size > 1) {
+      double r = random.nextDouble();
+      for (int i = 0;i < size;i++) {
+        if (r < cumulativeShares[i]) {
+          level = levels[i];
+          break;
+        }
+      }
+    }
+    return level.route(random);
+  }
+
+  private static Level level(List<Backend> members, BackendPoolOptions options) {
+    List<Backend> available = new ArrayList<>();
+    List<Backend> local = new ArrayList<>();
+    List<Backend> remote = new ArrayList<>();
+    String zone = options.getLocalZone();
+    for (Backend backend : members) {
+      if (backend.available()) {
+        available.add(backend);
+        if (zone != null && zone.equals(backend.zone)) {
+          local.add(backend);
+        } else {
+          remote.add(backend);
+        }
+      }
+    }
+    if (available.isEmpty()) {
+      return null;
+    }
+    available = Collections.unmodifiableList(available);
+    if (local.isEmpty() || remote.isEmpty()) {
+      return new Level(available, available, 1);
+    }
+    double localShare = Math.min(1, ratio(members, zone) / options.getLocalZoneThreshold());
+    return new Level(Collections.unmodifiableList(local), Collections.unmodifiableList(remote), localShare);
+  }
+
+  /**
+   * @return the available weight ratio of the backends of a zone or of all the backends when {@code zone} is {@code null}
+   */
+  private static double ratio(List<Backend> members, String zone) {
+    long total = 0;
+    long available = 0;
+    for (Backend backend : members) {
+      if (zone == null || zone.equals(backend.zone)) {
+        total += backend.weight;
+        if (backend.available()) {
+          available += backend.weight;
+        }
+      }
+    }
+    return total == 0 ? 0 : (double) available / total;
+  }
+}
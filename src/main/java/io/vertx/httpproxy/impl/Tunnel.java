@@ -0,0 +1,91 @@
+package io.vertx.httpproxy.impl;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.net.NetSocket;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relays the bytes of an upgraded connection between the client and the backend until either side closes
+ * the connection or the tunnel is idle for too long.
+ *
+ * <p> The buffers read from a socket are written as is to the other socket, they are neither decoded nor
+ * accumulated by the proxy. A socket is not read while the other socket write queue is full.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class Tunnel {
+
+  private final Vertx vertx;
+  private final NetSocket front;
+  private final NetSocket back;
+  private final long idleTimeout;
+  private volatile long lastActivity;
+  private long timerId = -1L;
+  private boolean closed;
+
+  /**
+   * @param idleTimeout the time in ms after which a tunnel relaying no bytes is closed, {@code 0} means no timeout
+   */
+  Tunnel(Vertx vertx, NetSocket front, NetSocket back, long idleTimeout) {
+    this.vertx = vertx;
+    this.front = front;
+    this.back = back;
+    this.idleTimeout = idleTimeout;
+  }
+
+  void start() {
+    lastActivity = System.nanoTime();
+    relay(front, back);
+    relay(back, front);
+    front.closeHandler(v -> close());
+    back.closeHandler(v -> close());
+    front.exceptionHandler(err -> close());
+    back.exceptionHandler(err -> close());
+    if (idleTimeout > 0) {
+      checkIdle(idleTimeout);
+    }
+  }
+
+  private void relay(NetSocket from, NetSocket to) {
+    to.drainHandler(v -> from.resume());
+    from.handler(buffer -> {
+      lastActivity = System.nanoTime();
+      to.write(buffer);
+      if (to.writeQueueFull()) {
+        from.pause();
+        // The sockets can be on different event loops, the queue may have drained in between
+        if (!to.writeQueueFull()) {
+          from.resume();
+        }
+      }
+    });
+  }
+
+  private synchronized void checkIdle(long delay) {
+    if (!closed) {
+      timerId = vertx.setTimer(delay, id -> {
+        long idle = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastActivity);
+        if (idle >= idleTimeout) {
+          close();
+        } else {
+          checkIdle(idleTimeout - idle);
+        }
+      });
+    }
+  }
+
+  private void close() {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      if (timerId != -1L) {
+        vertx.cancelTimer(timerId);
+      }
+    }
+    front.close();
+    back.close();
+  }
+}
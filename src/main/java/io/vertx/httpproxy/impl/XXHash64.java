@@ -0,0 +1,112 @@
+package io.vertx.httpproxy.impl;
+
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * Streaming <a href="https://github.com/Cyan4973/xxHash">xxHash64</a> with a zero seed.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class XXHash64 {
+
+  private static final long P1 = 0x9E3779B185EBCA87L;
+  private static final long P2 = 0xC2B2AE3D27D4EB4FL;
+  private static final long P3 = 0x165667B19E3779F9L;
+  private static final long P4 = 0x85EBCA77C2B2AE63L;
+  private static final long P5 = 0x27D4EB2F165667C5L;
+
+  private long v1 = P1 + P2;
+  private long v2 = P2;
+  private long v3 = 0;
+  private long v4 = -P1;
+  private final byte[] mem = new byte[32];
+  private int memSize;
+  private long length;
+
+  public XXHash64 update(Buffer data) {
+    int len = data.length();
+    int pos = 0;
+    length += len;
+    if (memSize + len < 32) {
+      data.getBytes(0, len, mem, memSize);
+      memSize += len;
+      return this;
+    }
+    if (memSize > 0) {
+      pos = 32 - memSize;
+      data.getBytes(0, pos, mem, memSize);
+      v1 = round(v1, getLong(mem, 0));
+      v2 = round(v2, getLong(mem, 8));
+      v3 = round(v3, getLong(mem, 16));
+      v4 = round(v4, getLong(mem, 24));
+      memSize = 0;
+    }
+    while (pos + 32 <= len) {
+      v1 = round(v1, data.getLongLE(pos));
+      v2 = round(v2, data.getLongLE(pos + 8));
+      v3 = round(v3, data.getLongLE(pos + 16));
+      v4 = round(v4, data.getLongLE(pos + 24));
+      pos += 32;
+    }
+    if (pos < len) {
+      data.getBytes(pos, len, mem, 0);
+      memSize = len - pos;
+    }
+    return this;
+  }
+
+  public long digest() {
+    long h;
+    if (length >= 32) {
+      h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+      h = mergeRound(h, v1);
+      h = mergeRound(h, v2);
+      h = mergeRound(h, v3);
+      h = mergeRound(h, v4);
+    } else {
+      h = P5;
+    }
+    h += length;
+    int pos = 0;
+    while (pos + 8 <= memSize) {
+      h ^= round(0, getLong(mem, pos));
+      h = Long.rotateLeft(h, 27) * P1 + P4;
+      pos += 8;
+    }
+    if (pos + 4 <= memSize) {
+      h ^= (getInt(mem, pos) & 0xFFFFFFFFL) * P1;
+      h = Long.rotateLeft(h, 23) * P2 + P3;
+      pos += 4;
+    }
+    while (pos < memSize) {
+      h ^= (mem[pos] & 0xFF) * P5;
+      h = Long.rotateLeft(h, 11) * P1;
+      pos++;
+    }
+    h ^= h >>> 33;
+    h *= P2;
+    h ^= h >>> 29;
+    h *= P3;
+    h ^= h >>> 32;
+    return h;
+  }
+
+  private static long round(long acc, long input) {
+    acc += input * P2;
+    acc = Long.rotateLeft(acc, 31);
+    return acc * P1;
+  }
+
+  private static long mergeRound(long acc, long val) {
+    acc ^= round(0, val);
+    return acc * P1 + P4;
+  }
+
+  private static long getLong(byte[] b, int i) {
+    return (getInt(b, i) & 0xFFFFFFFFL) | ((long) getInt(b, i + 4) << 32);
+  }
+
+  private static int getInt(byte[] b, int i) {
+    return (b[i] & 0xFF) | (b[i + 1] & 0xFF) << 8 | (b[i + 2] & 0xFF) << 16 | (b[i + 3] & 0xFF) << 24;
+  }
+}
@@ -0,0 +1,111 @@
+package io.vertx.httpproxy;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import org.junit.Test;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class AdmissionTest extends ProxyTestBase {
+
+  private void startBackend(TestContext ctx) {
+    startHttpBackend(ctx, 8081, req -> vertx.setTimer(300, id -> req.response().end()));
+  }
+
+  private void startProxy(AdmissionOptions admission) {
+    startProxy(proxyOptions, proxy -> proxy
+      .target(8081, "localhost")
+      .admission(admission)
+      .priorityClassifier(req -> {
+        String priority = req.getHeader("x-priority");
+        return priority != null ? RequestPriority.valueOf(priority) : RequestPriority.NORMAL;
+      }));
+  }
+
+  private Future<Integer> get(long delay, RequestPriority priority) {
+    Promise<Void> promise = Promise.promise();
+    vertx.setTimer(delay, id -> promise.complete());
+    return promise.future().compose(v -> client.request(new RequestOptions()
+      .setMethod(HttpMethod.GET)
+      .setPort(8080)
+      .setHost("localhost")
+      .setURI("/")
+      .putHeader("x-priority", priority.name())))
+      .compose(req -> req.send().compose(resp -> resp.body().map(resp.statusCode())));
+  }
+
+  @Test
+  public void testQueueFull(TestContext ctx) {
+    startBackend(ctx);
+    startProxy(new AdmissionOptions().setMaxConcurrency(1).setMaxQueueSize(1));
+    Async async = ctx.async(3);
+    get(1, RequestPriority.NORMAL).onComplete(ctx.asyncAssertSuccess(sc -> {
+      ctx.assertEquals(200, sc);
+      async.countDown();
+    }));
+    get(50, RequestPriority.NORMAL).onComplete(ctx.asyncAssertSuccess(sc -> {
+      ctx.assertEquals(200, sc);
+      async.countDown();
+    }));
+    get(100, RequestPriority.NORMAL).onComplete(ctx.asyncAssertSuccess(sc -> {
+      ctx.assertEquals(503, sc);
+      async.countDown();
+    }));
+  }
+
+  @Test
+  public void testQueueWait(TestContext ctx) {
+    startBackend(ctx);
+    startProxy(new AdmissionOptions().setMaxConcurrency(1).setMaxQueueWait(50));
+    Async async = ctx.async(2);
+    get(1, RequestPriority.NORMAL).onComplete(ctx.asyncAssertSuccess(sc -> {
+      ctx.assertEquals(200, sc);
+      async.countDown();
+    }));
+    get(50, RequestPriority.NORMAL).onComplete(ctx.asyncAssertSuccess(sc -> {
+      ctx.assertEquals(503, sc);
+      async.countDown();
+    }));
+  }
+
+  @Test
+  public void testHighPriorityEvictsNormal(TestContext ctx) {
+    startBackend(ctx);
+    startProxy(new AdmissionOptions().setMaxConcurrency(1).setMaxQueueSize(1));
+    Async async = ctx.async(3);
+    get(1, RequestPriority.NORMAL).onComplete(ctx.asyncAssertSuccess(sc -> {
+      ctx.assertEquals(200, sc);
+      async.countDown();
+    }));
+    get(50, RequestPriority.NORMAL).onComplete(ctx.asyncAssertSuccess(sc -> {
+      ctx.assertEquals(503, sc);
+      async.countDown();
+    }));
+    get(100, RequestPriority.HIGH).onComplete(ctx.asyncAssertSuccess(sc -> {
+      ctx.assertEquals(200, sc);
+      async.countDown();
+    }));
+  }
+
+  @Test
+  public void testLowPriorityShed(TestContext ctx) {
+    startBackend(ctx);
+    startProxy(new AdmissionOptions().setMaxConcurrency(1));
+    Async async = ctx.async(2);
+    get(1, RequestPriority.NORMAL).onComplete(ctx.asyncAssertSuccess(sc -> {
+      ctx.assertEquals(200, sc);
+      async.countDown();
+    }));
+    long now = System.currentTimeMillis();
+    get(50, RequestPriority.LOW).onComplete(ctx.asyncAssertSuccess(sc -> {
+      ctx.assertEquals(503, sc);
+      ctx.assertTrue(System.currentTimeMillis() - now < 250);
+      async.countDown();
+    }));
+  }
+}
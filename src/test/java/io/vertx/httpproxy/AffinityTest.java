@@ -0,0 +1,118 @@
+package io.vertx.httpproxy;
+
+import io.vertx.core.Future;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class AffinityTest extends ProxyTestBase {
+
+  private AtomicBoolean healthy1 = new AtomicBoolean(true);
+  private AtomicInteger probes1 = new AtomicInteger();
+
+  private void startBackends(TestContext ctx, AffinityOptions affinity) {
+    startHttpBackend(ctx, 8081, req -> {
+      if (req.path().equals("/health")) {
+        probes1.incrementAndGet();
+        req.response().setStatusCode(healthy1.get() ? 200 : 503).end();
+      } else {
+        req.response().end("8081");
+      }
+    });
+    startHttpBackend(ctx, 8082, req -> req.response().end("8082"));
+    startProxy(proxyOptions, proxy -> proxy.backendPool(BackendPool.create(vertx, new BackendPoolOptions()
+      .setAffinity(affinity)
+      .setHealthCheck(new HealthCheckOptions().setInterval(20).setHealthyThreshold(1).setUnhealthyThreshold(1))
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8081))
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8082)))));
+  }
+
+  /**
+   * @return the response body followed by the set-cookie header
+   */
+  private Future<String[]> get(String header, String value) {
+    RequestOptions options = new RequestOptions().setMethod(HttpMethod.GET).setPort(8080).setHost("localhost").setURI("/");
+    if (header != null) {
+      options.putHeader(header, value);
+    }
+    return client.request(options).compose(req -> req.send().compose(resp -> resp.body().map(body -> {
+      List<String> cookies = resp.cookies();
+      return new String[] { body.toString(), cookies.isEmpty() ? null : cookies.get(0) };
+    })));
+  }
+
+  @Test
+  public void testProxyCookie(TestContext ctx) {
+    startBackends(ctx, new AffinityOptions().setCookie("backend"));
+    Async async = ctx.async();
+    get(null, null).compose(res1 -> {
+      ctx.assertNotNull(res1[1]);
+      String cookie = res1[1].substring(0, res1[1].indexOf(';'));
+      ctx.assertTrue(cookie.startsWith("backend="));
+      return fetch(new RequestOptions().putHeader(HttpHeaders.COOKIE, cookie), 10).map(HashSet::new).compose(set -> {
+        ctx.assertEquals(1, set.size());
+        ctx.assertTrue(set.contains(res1[0]));
+        // The cookie is not set again
+        return get(HttpHeaders.COOKIE.toString(), cookie);
+      });
+    }).onComplete(ctx.asyncAssertSuccess(res -> {
+      ctx.assertNull(res[1]);
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testUnavailableBackendFallback(TestContext ctx) {
+    startBackends(ctx, new AffinityOptions().setCookie("backend"));
+    Async async = ctx.async();
+    // Find the cookie of the first backend
+    Future.succeededFuture()
+      .compose(v -> get(null, null))
+      .compose(res -> res[0].equals("8081") ? Future.succeededFuture(res) : get(null, null))
+      .compose(res1 -> {
+        ctx.assertEquals("8081", res1[0]);
+        String cookie = res1[1].substring(0, res1[1].indexOf(';'));
+        healthy1.set(false);
+        return awaitProbes(probes1, 2).compose(v -> get(HttpHeaders.COOKIE.toString(), cookie));
+      })
+      .onComplete(ctx.asyncAssertSuccess(res2 -> {
+        ctx.assertEquals("8082", res2[0]);
+        // The client is moved to the other backend
+        ctx.assertNotNull(res2[1]);
+        async.complete();
+      }));
+  }
+
+  @Test
+  public void testSessionHeader(TestContext ctx) {
+    startBackends(ctx, new AffinityOptions().setSessionHeader("x-session"));
+    Async async = ctx.async();
+    Set<String> backends = new HashSet<>();
+    Future<Void> fut = Future.succeededFuture();
+    for (int i = 0;i < 10;i++) {
+      String session = "session-" + i;
+      fut = fut.compose(v -> fetch(new RequestOptions().putHeader("x-session", session), 5).map(HashSet::new).map(set -> {
+        ctx.assertEquals(1, set.size());
+        backends.addAll(set);
+        return null;
+      }));
+    }
+    fut.onComplete(ctx.asyncAssertSuccess(v -> {
+      // Sessions are spread over the backends
+      ctx.assertEquals(2, backends.size());
+      async.complete();
+    }));
+  }
+}
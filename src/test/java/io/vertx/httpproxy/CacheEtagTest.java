@@ -0,0 +1,170 @@
+package io.vertx.httpproxy;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.httpproxy.impl.ParseUtils;
+import io.vertx.httpproxy.impl.XXHash64;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class CacheEtagTest extends ProxyTestBase {
+
+  private AtomicInteger hits = new AtomicInteger();
+
+  @Override
+  public void setUp() {
+    super.setUp();
+    hits.set(0);
+  }
+
+  @Test
+  public void testHash() {
+    Assert.assertEquals(0xEF46DB3751D8E999L, new XXHash64().digest());
+    Assert.assertEquals(0xD24EC4F1A98C6E5BL, new XXHash64().update(Buffer.buffer("a")).digest());
+    Assert.assertEquals(0x44BC2CF5AD770999L, new XXHash64().update(Buffer.buffer("abc")).digest());
+    String s = "Nobody inspects the spammish repetition";
+    Assert.assertEquals(0xFBCEA83C8A378BF1L, new XXHash64().update(Buffer.buffer(s)).digest());
+    for (int i = 0;i < s.length();i++) {
+      XXHash64 hash = new XXHash64()
+        .update(Buffer.buffer(s.substring(0, i)))
+        .update(Buffer.buffer(s.substring(i)));
+      Assert.assertEquals(0xFBCEA83C8A378BF1L, hash.digest());
+    }
+  }
+
+  private Future<HttpClientResponse> get(String ifNoneMatch) {
+    return client.request(HttpMethod.GET, 8080, "localhost", "/").compose(req -> {
+      if (ifNoneMatch != null) {
+        req.putHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+      }
+      return req.send().compose(resp -> resp.body().map(resp));
+    });
+  }
+
+  @Test
+  public void testGeneratedEtag(TestContext ctx) {
+    SocketAddress backend = startHttpBackend(ctx, 8081, req -> {
+      hits.incrementAndGet();
+      req.response()
+        .putHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=100")
+        .end("content");
+    });
+    startProxy(proxyOptions, proxy -> proxy
+      .selector(req -> Future.succeededFuture(backend))
+      .cacheOptions(new CacheOptions().setGenerateEtags(true)));
+    String expected = String.format("\"%016x\"", new XXHash64().update(Buffer.buffer("content")).digest());
+    Async async = ctx.async();
+    get(null)
+      .compose(resp -> {
+        ctx.assertEquals(200, resp.statusCode());
+        return get(null);
+      })
+      .compose(resp -> {
+        ctx.assertEquals(200, resp.statusCode());
+        ctx.assertEquals(expected, resp.getHeader(HttpHeaders.ETAG));
+        return get("\"other\", " + expected);
+      })
+      .compose(resp -> {
+        ctx.assertEquals(304, resp.statusCode());
+        ctx.assertEquals(expected, resp.getHeader(HttpHeaders.ETAG));
+        return get("\"other\"");
+      })
+      .onComplete(ctx.asyncAssertSuccess(resp -> {
+        ctx.assertEquals(200, resp.statusCode());
+        ctx.assertEquals(1, hits.get());
+        async.complete();
+      }));
+  }
+
+  @Test
+  public void testStaleGeneratedEtag(TestContext ctx) {
+    SocketAddress backend = startHttpBackend(ctx, 8081, req -> {
+      if (hits.incrementAndGet() == 1) {
+        req.response()
+          .putHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=100")
+          .end("content");
+      } else {
+        // The generated etag is never sent to the origin
+        ctx.assertNull(req.getHeader(HttpHeaders.IF_NONE_MATCH));
+        req.response().setStatusCode(500).end();
+      }
+    });
+    startProxy(proxyOptions, proxy -> proxy
+      .selector(req -> Future.succeededFuture(backend))
+      .cacheOptions(new CacheOptions().setGenerateEtags(true)));
+    Async async = ctx.async();
+    get(null)
+      .compose(resp -> {
+        Promise<Void> promise = Promise.promise();
+        vertx.setTimer(10, id -> promise.complete());
+        return promise.future();
+      })
+      .compose(v -> client.request(HttpMethod.GET, 8080, "localhost", "/").compose(req -> req
+        .putHeader(HttpHeaders.CACHE_CONTROL, "max-age=0")
+        .send()))
+      .onComplete(ctx.asyncAssertSuccess(resp -> {
+        // The stale resource is fetched again from the origin
+        ctx.assertEquals(500, resp.statusCode());
+        ctx.assertEquals(2, hits.get());
+        async.complete();
+      }));
+  }
+
+  @Test
+  public void testOriginValidator(TestContext ctx) {
+    String lastModified = ParseUtils.formatHttpDate(new Date());
+    SocketAddress backend = startHttpBackend(ctx, 8081, req -> {
+      hits.incrementAndGet();
+      req.response()
+        .putHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=100")
+        .putHeader(HttpHeaders.LAST_MODIFIED, lastModified)
+        .end("content");
+    });
+    startProxy(proxyOptions, proxy -> proxy
+      .selector(req -> Future.succeededFuture(backend))
+      .cacheOptions(new CacheOptions().setGenerateEtags(true)));
+    Async async = ctx.async();
+    get(null)
+      .compose(resp -> get(null))
+      .onComplete(ctx.asyncAssertSuccess(resp -> {
+        ctx.assertEquals(200, resp.statusCode());
+        ctx.assertNull(resp.getHeader(HttpHeaders.ETAG));
+        ctx.assertEquals(1, hits.get());
+        async.complete();
+      }));
+  }
+
+  @Test
+  public void testOriginEtag(TestContext ctx) {
+    SocketAddress backend = startHttpBackend(ctx, 8081, req -> {
+      hits.incrementAndGet();
+      req.response()
+        .putHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=100")
+        .putHeader(HttpHeaders.ETAG, "W/\"tag\"")
+        .end("content");
+    });
+    startProxy(backend);
+    Async async = ctx.async();
+    get(null)
+      .compose(resp -> get("\"tag\""))
+      .onComplete(ctx.asyncAssertSuccess(resp -> {
+        ctx.assertEquals(304, resp.statusCode());
+        ctx.assertEquals("W/\"tag\"", resp.getHeader(HttpHeaders.ETAG));
+        ctx.assertEquals(1, hits.get());
+        async.complete();
+      }));
+  }
+}
@@ -0,0 +1,202 @@
+package io.vertx.httpproxy;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.test.fakecluster.FakeClusterManager;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class CacheInvalidationTest extends ProxyTestBase {
+
+  private static final String ADDRESS = "proxy.invalidations";
+
+  private AtomicInteger hits = new AtomicInteger();
+  private List<Vertx> nodes = new ArrayList<>();
+
+  @Override
+  public void setUp() {
+    super.setUp();
+    hits.set(0);
+  }
+
+  @Override
+  public void tearDown(TestContext ctx) {
+    for (Vertx node : nodes) {
+      Async async = ctx.async();
+      node.close(ctx.asyncAssertSuccess(v -> async.complete()));
+      async.awaitSuccess(10000);
+    }
+    FakeClusterManager.reset();
+    super.tearDown(ctx);
+  }
+
+  private SocketAddress startBackend(TestContext ctx) {
+    return startHttpBackend(ctx, 8081, req -> {
+      hits.incrementAndGet();
+      req.response()
+        .putHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=100")
+        .putHeader("cache-tag", "all, " + req.path().substring(1))
+        .end("content");
+    });
+  }
+
+  private Future<Buffer> get(int port, String uri) {
+    return client.request(new RequestOptions()
+      .setMethod(HttpMethod.GET)
+      .setServer(SocketAddress.inetSocketAddress(port, "localhost"))
+      .setHost("example.com")
+      .setPort(80)
+      .setURI(uri)).compose(req -> req.send().compose(HttpClientResponse::body));
+  }
+
+  private Context startProxy(Vertx node, int port, SocketAddress backend, CacheOptions options, AtomicReference<HttpProxy> ref) {
+    AtomicReference<Context> context = new AtomicReference<>();
+    startProxy(node, new HttpServerOptions().setPort(port).setHost("localhost"), proxy -> {
+      context.set(Vertx.currentContext());
+      ref.set(proxy
+        .selector(req -> Future.succeededFuture(backend))
+        .cacheOptions(options));
+    });
+    return context.get();
+  }
+
+  private Vertx clusteredVertx(TestContext ctx) {
+    AtomicReference<Vertx> ref = new AtomicReference<>();
+    Async async = ctx.async();
+    Vertx.clusteredVertx(new VertxOptions().setClusterManager(new FakeClusterManager()), ctx.asyncAssertSuccess(node -> {
+      ref.set(node);
+      async.complete();
+    }));
+    async.awaitSuccess(20000);
+    nodes.add(ref.get());
+    return ref.get();
+  }
+
+  @Test
+  public void testInvalidateKey(TestContext ctx) {
+    SocketAddress backend = startBackend(ctx);
+    AtomicReference<HttpProxy> proxy = new AtomicReference<>();
+    Context context = startProxy(vertx, 8080, backend, new CacheOptions(), proxy);
+    Async async = ctx.async();
+    get(8080, "/a")
+      .compose(body -> get(8080, "/a"))
+      .compose(body -> {
+        ctx.assertEquals(1, hits.get());
+        context.runOnContext(v -> proxy.get().invalidate("http://example.com/a"));
+        return delay(50);
+      })
+      .compose(v -> get(8080, "/a"))
+      .onComplete(ctx.asyncAssertSuccess(body -> {
+        ctx.assertEquals(2, hits.get());
+        async.complete();
+      }));
+  }
+
+  @Test
+  public void testInvalidateTag(TestContext ctx) {
+    SocketAddress backend = startBackend(ctx);
+    AtomicReference<HttpProxy> proxy = new AtomicReference<>();
+    Context context = startProxy(vertx, 8080, backend, new CacheOptions(), proxy);
+    Async async = ctx.async();
+    get(8080, "/a")
+      .compose(body -> get(8080, "/b"))
+      .compose(body -> {
+        ctx.assertEquals(2, hits.get());
+        context.runOnContext(v -> proxy.get().invalidateTag("b"));
+        return delay(50);
+      })
+      .compose(v -> get(8080, "/a"))
+      .compose(v -> {
+        ctx.assertEquals(2, hits.get());
+        return get(8080, "/b");
+      })
+      .compose(v -> {
+        ctx.assertEquals(3, hits.get());
+        context.runOnContext(v2 -> proxy.get().invalidateTag("all"));
+        return delay(50);
+      })
+      .compose(v -> get(8080, "/a"))
+      .compose(v -> get(8080, "/b"))
+      .onComplete(ctx.asyncAssertSuccess(body -> {
+        ctx.assertEquals(5, hits.get());
+        async.complete();
+      }));
+  }
+
+  @Test
+  public void testBatchInvalidations(TestContext ctx) {
+    SocketAddress backend = startBackend(ctx);
+    AtomicReference<HttpProxy> proxy = new AtomicReference<>();
+    Context context = startProxy(vertx, 8080, backend, new CacheOptions()
+      .setInvalidationAddress(ADDRESS)
+      .setInvalidationBatchDelay(100)
+      .setInvalidationMaxBatchSize(10), proxy);
+    AtomicInteger messages = new AtomicInteger();
+    Async async = ctx.async();
+    vertx.eventBus().consumer(ADDRESS, msg -> messages.incrementAndGet()).completionHandler(ctx.asyncAssertSuccess(v1 -> {
+      context.runOnContext(v2 -> {
+        for (int i = 0;i < 25;i++) {
+          proxy.get().invalidate("http://example.com/" + i);
+        }
+        proxy.get().invalidateTag("all");
+      });
+      vertx.setTimer(500, id -> {
+        // 2 full batches and 1 batch flushed after the delay
+        ctx.assertEquals(3, messages.get());
+        async.complete();
+      });
+    }));
+  }
+
+  @Test
+  public void testClusteredInvalidation(TestContext ctx) {
+    SocketAddress backend = startBackend(ctx);
+    Vertx node1 = clusteredVertx(ctx);
+    Vertx node2 = clusteredVertx(ctx);
+    CacheOptions options = new CacheOptions().setInvalidationAddress(ADDRESS);
+    AtomicReference<HttpProxy> proxy1 = new AtomicReference<>();
+    AtomicReference<HttpProxy> proxy2 = new AtomicReference<>();
+    Context context1 = startProxy(node1, 8080, backend, options, proxy1);
+    Context context2 = startProxy(node2, 8090, backend, options, proxy2);
+    Async async = ctx.async();
+    get(8080, "/a")
+      .compose(body -> get(8090, "/a"))
+      .compose(body -> get(8080, "/b"))
+      .compose(body -> get(8090, "/b"))
+      .compose(body -> {
+        ctx.assertEquals(4, hits.get());
+        context1.runOnContext(v -> proxy1.get().invalidate("http://example.com/a"));
+        return delay(500);
+      })
+      .compose(v -> get(8090, "/a"))
+      .compose(v -> get(8080, "/a"))
+      .compose(v -> {
+        ctx.assertEquals(6, hits.get());
+        context2.runOnContext(v2 -> proxy2.get().invalidateTag("b"));
+        return delay(500);
+      })
+      .compose(v -> get(8080, "/b"))
+      .onComplete(ctx.asyncAssertSuccess(body -> {
+        ctx.assertEquals(7, hits.get());
+        async.complete();
+      }));
+  }
+}
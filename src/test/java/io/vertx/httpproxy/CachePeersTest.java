@@ -0,0 +1,207 @@
+package io.vertx.httpproxy;
+
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import org.junit.Test;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class CachePeersTest extends ProxyTestBase {
+
+  private static final SocketAddress PEER1 = SocketAddress.inetSocketAddress(8080, "localhost");
+  private static final SocketAddress PEER2 = SocketAddress.inetSocketAddress(8090, "localhost");
+
+  private AtomicInteger hits = new AtomicInteger();
+
+  @Override
+  public void setUp() {
+    super.setUp();
+    hits.set(0);
+  }
+
+  private SocketAddress startBackend(TestContext ctx) {
+    return startHttpBackend(ctx, 8081, req -> {
+      hits.incrementAndGet();
+      ctx.assertNull(req.getHeader("x-proxy-peer"));
+      req.response()
+        .putHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=100")
+        .end("content" + req.path());
+    });
+  }
+
+  private Closeable startPeer(SocketAddress self, List<SocketAddress> peers, SocketAddress backend) {
+    return startProxy(new HttpServerOptions().setPort(self.port()).setHost(self.host()), proxy -> proxy
+      .selector(req -> Future.succeededFuture(backend))
+      .cachePeers(self, peers));
+  }
+
+  private Future<Buffer> get(TestContext ctx, SocketAddress peer, String uri) {
+    return get(ctx, client, peer, new RequestOptions().setURI(uri));
+  }
+
+  /**
+   * Get a resource from a client that is not a peer, pretending to be a peer.
+   */
+  private Future<Buffer> getFromOther(TestContext ctx, HttpClient other, SocketAddress peer, String uri) {
+    return get(ctx, other, peer, new RequestOptions().setURI(uri).putHeader("x-proxy-peer", "true"));
+  }
+
+  private Future<Buffer> get(TestContext ctx, HttpClient client, SocketAddress peer, RequestOptions options) {
+    return client.request(options
+      .setMethod(HttpMethod.GET)
+      .setServer(peer)
+      .setHost("example.com")
+      .setPort(80)).compose(req -> req.send().compose(resp -> {
+        ctx.assertEquals(200, resp.statusCode());
+        return resp.body();
+      }));
+  }
+
+  @Test
+  public void testFetchOncePerObject(TestContext ctx) {
+    SocketAddress backend = startBackend(ctx);
+    List<SocketAddress> peers = Arrays.asList(PEER1, PEER2);
+    startPeer(PEER1, peers, backend);
+    startPeer(PEER2, peers, backend);
+    int num = 10;
+    Future<Buffer> fut = Future.succeededFuture();
+    for (int i = 0;i < num;i++) {
+      String uri = "/" + i;
+      fut = fut
+        .compose(v -> get(ctx, PEER1, uri))
+        .compose(body -> {
+          ctx.assertEquals("content" + uri, body.toString());
+          return get(ctx, PEER2, uri);
+        })
+        .compose(body -> {
+          ctx.assertEquals("content" + uri, body.toString());
+          return get(ctx, PEER1, uri);
+        });
+    }
+    Async async = ctx.async();
+    fut.onComplete(ctx.asyncAssertSuccess(v -> {
+      ctx.assertEquals(num, hits.get());
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testPeerFailure(TestContext ctx) {
+    SocketAddress backend = startBackend(ctx);
+    // PEER2 is not started
+    startPeer(PEER1, Arrays.asList(PEER1, PEER2), backend);
+    int num = 10;
+    Future<Buffer> fut = Future.succeededFuture();
+    for (int i = 0;i < num;i++) {
+      String uri = "/" + i;
+      fut = fut.compose(v -> get(ctx, PEER1, uri)).compose(body -> {
+        ctx.assertEquals("content" + uri, body.toString());
+        return get(ctx, PEER1, uri);
+      });
+    }
+    Async async = ctx.async();
+    fut.onComplete(ctx.asyncAssertSuccess(v -> {
+      // Cached locally after the origin fallback
+      ctx.assertEquals(num, hits.get());
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testPeerHeaderFromClient(TestContext ctx) {
+    SocketAddress backend = startBackend(ctx);
+    List<SocketAddress> peers = Arrays.asList(PEER1, PEER2);
+    startPeer(PEER1, peers, backend);
+    startPeer(PEER2, peers, backend);
+    // Not a peer host, the peer header it sends is ignored
+    HttpClient other = vertx.createHttpClient(new HttpClientOptions().setLocalAddress("127.0.0.2"));
+    int num = 10;
+    Future<Buffer> fut = Future.succeededFuture();
+    for (int i = 0;i < num;i++) {
+      String uri = "/" + i;
+      fut = fut
+        .compose(v -> getFromOther(ctx, other, PEER1, uri))
+        .compose(body -> getFromOther(ctx, other, PEER2, uri));
+    }
+    Async async = ctx.async();
+    fut.onComplete(ctx.asyncAssertSuccess(v -> {
+      ctx.assertEquals(num, hits.get());
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testOnlyOwnerCaches(TestContext ctx) throws Exception {
+    SocketAddress backend = startBackend(ctx);
+    List<SocketAddress> peers = Arrays.asList(PEER1, PEER2);
+    startPeer(PEER1, peers, backend);
+    Closeable peer2 = startPeer(PEER2, peers, backend);
+    HttpClient other = vertx.createHttpClient(new HttpClientOptions().setLocalAddress("127.0.0.2"));
+    int num = 10;
+    Future<Buffer> fut = Future.succeededFuture();
+    for (int i = 0;i < num;i++) {
+      String uri = "/" + i;
+      fut = fut.compose(v -> getFromOther(ctx, other, PEER1, uri));
+    }
+    Async first = ctx.async();
+    fut.onComplete(ctx.asyncAssertSuccess(v -> first.complete()));
+    first.awaitSuccess(10000);
+    ctx.assertEquals(num, hits.get());
+    // The resources owned by PEER2 are fetched again from the origin
+    peer2.close();
+    Future<Buffer> fut2 = Future.succeededFuture();
+    for (int i = 0;i < num;i++) {
+      String uri = "/" + i;
+      fut2 = fut2.compose(v -> getFromOther(ctx, other, PEER1, uri));
+    }
+    Async async = ctx.async();
+    fut2.onComplete(ctx.asyncAssertSuccess(v -> {
+      ctx.assertTrue(hits.get() > num);
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testPeerTimeout(TestContext ctx) {
+    SocketAddress backend = startBackend(ctx);
+    // PEER2 accepts the requests and never responds
+    Async listen = ctx.async();
+    vertx.createHttpServer().requestHandler(req -> {}).listen(PEER2.port(), PEER2.host(), ctx.asyncAssertSuccess(s -> listen.complete()));
+    listen.awaitSuccess();
+    startProxy(new HttpServerOptions().setPort(PEER1.port()).setHost(PEER1.host()), proxy -> proxy
+      .selector(req -> Future.succeededFuture(backend))
+      .timeoutSelector(req -> new TimeoutOptions().setResponseTimeout(100))
+      .cachePeers(PEER1, Arrays.asList(PEER1, PEER2)));
+    int num = 10;
+    Future<Buffer> fut = Future.succeededFuture();
+    for (int i = 0;i < num;i++) {
+      String uri = "/" + i;
+      fut = fut.compose(v -> get(ctx, PEER1, uri)).map(body -> {
+        ctx.assertEquals("content" + uri, body.toString());
+        return body;
+      });
+    }
+    Async async = ctx.async();
+    fut.onComplete(ctx.asyncAssertSuccess(v -> {
+      // The resources owned by PEER2 are fetched from the origin after the timeout
+      ctx.assertEquals(num, hits.get());
+      async.complete();
+    }));
+    async.awaitSuccess(5000);
+  }
+}
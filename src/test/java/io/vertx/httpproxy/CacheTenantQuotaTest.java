@@ -0,0 +1,105 @@
+package io.vertx.httpproxy;
+
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class CacheTenantQuotaTest extends ProxyTestBase {
+
+  private static final String CONTENT = new String(new char[1000]).replace('\0', 'x');
+
+  private AtomicInteger hits = new AtomicInteger();
+
+  @Override
+  public void setUp() {
+    super.setUp();
+    hits.set(0);
+  }
+
+  private Future<Buffer> get(String host, String uri) {
+    return client.request(new RequestOptions()
+      .setMethod(HttpMethod.GET)
+      .setServer(SocketAddress.inetSocketAddress(8080, "localhost"))
+      .setHost(host)
+      .setPort(8080)
+      .setURI(uri)).compose(req -> req.send().compose(HttpClientResponse::body));
+  }
+
+  @Test
+  public void testEvictWithinTenant(TestContext ctx) {
+    SocketAddress backend = startHttpBackend(ctx, 8081, req -> {
+      hits.incrementAndGet();
+      req.response()
+        .putHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=100")
+        .end(CONTENT);
+    });
+    startProxy(proxyOptions, proxy -> proxy
+      .selector(req -> Future.succeededFuture(backend))
+      .cacheOptions(new CacheOptions()
+        .setSharedPoolSize(0)
+        .addTenantQuota("a.example:8080", 1500)
+        .addTenantQuota("b.example:8080", 1500)));
+    Async async = ctx.async();
+    get("a.example", "/1")
+      .compose(body -> get("b.example", "/1"))
+      .compose(body -> get("b.example", "/2"))
+      .compose(body -> {
+        ctx.assertEquals(3, hits.get());
+        return get("a.example", "/1");
+      })
+      .compose(body -> {
+        // Still cached, the noisy tenant evicted its own entry
+        ctx.assertEquals(3, hits.get());
+        ctx.assertEquals(CONTENT, body.toString());
+        return get("b.example", "/1");
+      })
+      .onComplete(ctx.asyncAssertSuccess(body -> {
+        ctx.assertEquals(4, hits.get());
+        ctx.assertEquals(CONTENT, body.toString());
+        async.complete();
+      }));
+  }
+
+  @Test
+  public void testSharedPool(TestContext ctx) {
+    SocketAddress backend = startHttpBackend(ctx, 8081, req -> {
+      hits.incrementAndGet();
+      req.response()
+        .putHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=100")
+        .end(CONTENT);
+    });
+    startProxy(proxyOptions, proxy -> proxy
+      .selector(req -> Future.succeededFuture(backend))
+      .cacheTenant(req -> "tenant")
+      .cacheOptions(new CacheOptions()
+        .setDefaultTenantQuota(1500)
+        .setSharedPoolSize(1500)));
+    Async async = ctx.async();
+    get("a.example", "/1")
+      .compose(body -> get("a.example", "/2"))
+      .compose(body -> get("a.example", "/1"))
+      .compose(body -> get("a.example", "/2"))
+      .compose(body -> {
+        ctx.assertEquals(2, hits.get());
+        return get("a.example", "/3");
+      })
+      .compose(body -> get("a.example", "/1"))
+      .onComplete(ctx.asyncAssertSuccess(body -> {
+        // The least recently used entry has been evicted
+        ctx.assertEquals(4, hits.get());
+        async.complete();
+      }));
+  }
+}
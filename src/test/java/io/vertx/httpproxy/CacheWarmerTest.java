@@ -0,0 +1,134 @@
+package io.vertx.httpproxy;
+
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class CacheWarmerTest extends ProxyTestBase {
+
+  private AtomicInteger hits = new AtomicInteger();
+
+  @Override
+  public void setUp() {
+    super.setUp();
+    hits.set(0);
+  }
+
+  @Test
+  public void testWarmUrls(TestContext ctx) {
+    SocketAddress backend = startHttpBackend(ctx, 8081, req -> {
+      hits.incrementAndGet();
+      req.response()
+        .putHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=100")
+        .end("content" + req.path());
+    });
+    startProxy(backend);
+    CacheWarmer warmer = CacheWarmer.create(vertx, new CacheWarmerOptions()
+      .addUrl("http://localhost:8080/a")
+      .addUrl("https://localhost:8080/c")
+      .addUrl("http://localhost:8080/b?q=1"));
+    Async async = ctx.async();
+    warmer.warm().compose(v -> {
+      // The https URL is skipped
+      ctx.assertEquals(2, hits.get());
+      return client.request(HttpMethod.GET, 8080, "localhost", "/b?q=1")
+        .compose(req -> req.send().compose(HttpClientResponse::body));
+    }).onComplete(ctx.asyncAssertSuccess(body -> {
+      ctx.assertEquals("content/b", body.toString());
+      ctx.assertEquals(2, hits.get());
+      warmer.close();
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testWarmSitemap(TestContext ctx) throws Exception {
+    SocketAddress backend = startHttpBackend(ctx, 8081, req -> {
+      hits.incrementAndGet();
+      req.response()
+        .putHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=100")
+        .end("content");
+    });
+    startProxy(backend);
+    File manifest = File.createTempFile("sitemap", ".xml");
+    manifest.deleteOnExit();
+    Files.write(manifest.toPath(), Arrays.asList(
+      "<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+      "<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">",
+      "  <url><loc>http://localhost:8080/a</loc></url>",
+      "  <url><loc>http://localhost:8080/b?x=1&amp;y=2</loc></url>",
+      "</urlset>"));
+    CacheWarmer warmer = CacheWarmer.create(vertx, new CacheWarmerOptions().setManifest(manifest.getAbsolutePath()));
+    Async async = ctx.async();
+    warmer.warm().compose(v -> {
+      ctx.assertEquals(2, hits.get());
+      return client.request(HttpMethod.GET, 8080, "localhost", "/b?x=1&y=2")
+        .compose(req -> req.send().compose(HttpClientResponse::body));
+    }).onComplete(ctx.asyncAssertSuccess(body -> {
+      ctx.assertEquals(2, hits.get());
+      warmer.close();
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testMaxConcurrency(TestContext ctx) {
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    SocketAddress backend = startHttpBackend(ctx, 8081, req -> {
+      int val = inFlight.incrementAndGet();
+      maxInFlight.accumulateAndGet(val, Math::max);
+      vertx.setTimer(20, id -> {
+        inFlight.decrementAndGet();
+        req.response()
+          .putHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=100")
+          .end("content");
+      });
+    });
+    startProxy(backend);
+    CacheWarmerOptions options = new CacheWarmerOptions().setMaxConcurrency(2);
+    for (int i = 0;i < 10;i++) {
+      options.addUrl("http://localhost:8080/" + i);
+    }
+    CacheWarmer warmer = CacheWarmer.create(vertx, options);
+    warmer.warm().onComplete(ctx.asyncAssertSuccess(v -> {
+      ctx.assertEquals(2, maxInFlight.get());
+      warmer.close();
+    }));
+  }
+
+  @Test
+  public void testPeriodicWarming(TestContext ctx) {
+    SocketAddress backend = startHttpBackend(ctx, 8081, req -> {
+      hits.incrementAndGet();
+      req.response()
+        .putHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=1")
+        .end("content");
+    });
+    startProxy(backend);
+    CacheWarmer warmer = CacheWarmer.create(vertx, new CacheWarmerOptions()
+      .addUrl("http://localhost:8080/a")
+      .setPeriod(500))
+      .start();
+    Async async = ctx.async();
+    vertx.setTimer(2700, id -> {
+      // Refreshed once expired, fresh entries are served from the cache
+      int val = hits.get();
+      ctx.assertTrue(val >= 2 && val <= 3, "Unexpected hits " + val);
+      warmer.close();
+      async.complete();
+    });
+  }
+}
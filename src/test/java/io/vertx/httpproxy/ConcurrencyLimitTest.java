@@ -0,0 +1,86 @@
+package io.vertx.httpproxy;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class ConcurrencyLimitTest extends ProxyTestBase {
+
+  private AtomicInteger inFlight = new AtomicInteger();
+  private AtomicInteger maxInFlight = new AtomicInteger();
+
+  private void startBackend(TestContext ctx, long delay) {
+    startHttpBackend(ctx, 8081, req -> {
+      int current = inFlight.incrementAndGet();
+      maxInFlight.accumulateAndGet(current, Math::max);
+      vertx.setTimer(delay, id -> {
+        inFlight.decrementAndGet();
+        req.response().end("8081");
+      });
+    });
+  }
+
+  private void startProxy(ConcurrencyLimitOptions concurrencyLimit) {
+    startProxy(proxyOptions, proxy -> proxy.backendPool(BackendPool.create(vertx, new BackendPoolOptions()
+      .setConcurrencyLimit(concurrencyLimit)
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8081)))));
+  }
+
+  private Future<List<Integer>> get(int num) {
+    List<Future<Integer>> futures = new ArrayList<>();
+    for (int i = 0;i < num;i++) {
+      futures.add(client.request(HttpMethod.GET, 8080, "localhost", "/")
+        .compose(req -> req.send().compose(resp -> resp.body().map(resp.statusCode()))));
+    }
+    return CompositeFuture.all(new ArrayList<>(futures)).map(CompositeFuture::list);
+  }
+
+  @Test
+  public void testShed(TestContext ctx) {
+    startBackend(ctx, 300);
+    startProxy(new ConcurrencyLimitOptions().setInitialLimit(2).setMaxLimit(2).setMaxQueueSize(0));
+    Async async = ctx.async();
+    get(4).onComplete(ctx.asyncAssertSuccess(list -> {
+      ctx.assertEquals(2, (int) list.stream().filter(sc -> sc == 200).count());
+      ctx.assertEquals(2, (int) list.stream().filter(sc -> sc == 503).count());
+      ctx.assertEquals(2, maxInFlight.get());
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testQueue(TestContext ctx) {
+    startBackend(ctx, 50);
+    startProxy(new ConcurrencyLimitOptions().setInitialLimit(1).setMaxLimit(1).setMaxQueueSize(10).setMaxQueueWait(2000));
+    Async async = ctx.async();
+    get(4).onComplete(ctx.asyncAssertSuccess(list -> {
+      for (int sc : list) {
+        ctx.assertEquals(200, sc);
+      }
+      ctx.assertEquals(1, maxInFlight.get());
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testQueueWait(TestContext ctx) {
+    startBackend(ctx, 500);
+    startProxy(new ConcurrencyLimitOptions().setInitialLimit(1).setMaxQueueSize(10).setMaxQueueWait(50));
+    Async async = ctx.async();
+    get(2).onComplete(ctx.asyncAssertSuccess(list -> {
+      ctx.assertTrue(list.contains(200));
+      ctx.assertTrue(list.contains(503));
+      async.complete();
+    }));
+  }
+}
@@ -0,0 +1,82 @@
+package io.vertx.httpproxy;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class DnsResolutionTest extends ProxyTestBase {
+
+  /**
+   * @return a future completed once no backend of the pool has a host name
+   */
+  private Future<List<SocketAddress>> awaitResolution(BackendPool pool) {
+    Promise<List<SocketAddress>> promise = Promise.promise();
+    vertx.setPeriodic(10, id -> {
+      List<SocketAddress> backends = pool.backends();
+      if (backends.stream().noneMatch(address -> address.host().equals("localhost"))) {
+        vertx.cancelTimer(id);
+        promise.complete(backends);
+      }
+    });
+    return promise.future();
+  }
+
+  @Test
+  public void testResolveBackends(TestContext ctx) {
+    startHttpBackend(ctx, 8081, req -> req.response().end("8081"));
+    startHttpBackend(ctx, 8082, req -> req.response().end("8082"));
+    BackendPool pool = BackendPool.create(vertx, new BackendPoolOptions()
+      .setDns(new DnsOptions().setRefreshInterval(50))
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8081))
+      .addBackend(new BackendOptions().setHost("127.0.0.1").setPort(8082)));
+    startProxy(proxyOptions, proxy -> proxy.backendPool(pool));
+    Async async = ctx.async();
+    awaitResolution(pool)
+      .compose(backends -> {
+        ctx.assertTrue(backends.contains(SocketAddress.inetSocketAddress(8081, "127.0.0.1")));
+        ctx.assertTrue(backends.contains(SocketAddress.inetSocketAddress(8082, "127.0.0.1")));
+        return fetch(10);
+      })
+      .onComplete(ctx.asyncAssertSuccess(list -> {
+        ctx.assertEquals(2, new HashSet<>(list).size());
+        pool.close();
+        async.complete();
+      }));
+  }
+
+  @Test
+  public void testHostHeader(TestContext ctx) {
+    startHttpBackend(ctx, 8081, req -> req.response().end(req.host()));
+    BackendPool pool = BackendPool.create(vertx, new BackendPoolOptions()
+      .setDns(new DnsOptions().setRefreshInterval(50))
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8081)));
+    startProxy(proxyOptions, proxy -> proxy.backendPool(pool));
+    Async async = ctx.async();
+    awaitResolution(pool)
+      .compose(backends -> fetch(1))
+      .onComplete(ctx.asyncAssertSuccess(list -> {
+        // The backend is connected with its resolved address and still sees its host name
+        ctx.assertEquals(Collections.singletonList("localhost:8081"), list);
+        pool.close();
+        async.complete();
+      }));
+  }
+
+  @Test
+  public void testNoResolution(TestContext ctx) {
+    BackendPool pool = BackendPool.create(vertx, new BackendPoolOptions()
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8081)));
+    ctx.assertEquals("localhost", pool.backends().get(0).host());
+    pool.close();
+  }
+}
@@ -0,0 +1,86 @@
+package io.vertx.httpproxy;
+
+import io.vertx.core.Future;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class HealthCheckTest extends ProxyTestBase {
+
+  private AtomicBoolean healthy1 = new AtomicBoolean(true);
+  private AtomicBoolean healthy2 = new AtomicBoolean(true);
+  private AtomicInteger probes2 = new AtomicInteger();
+
+  private void startBackends(TestContext ctx) {
+    startHttpBackend(ctx, 8081, req -> {
+      if (req.path().equals("/health")) {
+        req.response().setStatusCode(healthy1.get() ? 200 : 503).end();
+      } else {
+        req.response().end("8081");
+      }
+    });
+    startHttpBackend(ctx, 8082, req -> {
+      if (req.path().equals("/health")) {
+        probes2.incrementAndGet();
+        req.response().setStatusCode(healthy2.get() ? 200 : 503).end();
+      } else {
+        req.response().end("8082");
+      }
+    });
+    startProxy(proxyOptions, proxy -> proxy.backendPool(BackendPool.create(vertx, new BackendPoolOptions()
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8081))
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8082))
+      .setHealthCheck(new HealthCheckOptions()
+        .setInterval(20)
+        .setHealthyThreshold(2)
+        .setUnhealthyThreshold(2)))));
+  }
+
+  private Future<HttpClientResponse> get() {
+    return client.request(HttpMethod.GET, 8080, "localhost", "/")
+      .compose(req -> req.send().compose(resp -> resp.body().map(resp)));
+  }
+
+  @Test
+  public void testUnhealthyBackendIsSkipped(TestContext ctx) {
+    startBackends(ctx);
+    Async async = ctx.async();
+    healthy2.set(false);
+    awaitProbes(probes2, 3)
+      .compose(v -> fetch(10).map(HashSet::new))
+      .compose(set -> {
+        ctx.assertEquals(1, set.size());
+        ctx.assertTrue(set.contains("8081"));
+        healthy2.set(true);
+        return awaitProbes(probes2, 3);
+      })
+      .compose(v -> fetch(10).map(HashSet::new))
+      .onComplete(ctx.asyncAssertSuccess(set -> {
+        ctx.assertEquals(2, set.size());
+        async.complete();
+      }));
+  }
+
+  @Test
+  public void testNoBackendAvailable(TestContext ctx) {
+    startBackends(ctx);
+    Async async = ctx.async();
+    healthy1.set(false);
+    healthy2.set(false);
+    awaitProbes(probes2, 3)
+      .compose(v -> get())
+      .onComplete(ctx.asyncAssertSuccess(resp -> {
+        ctx.assertEquals(503, resp.statusCode());
+        async.complete();
+      }));
+  }
+}
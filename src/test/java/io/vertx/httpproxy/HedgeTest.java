@@ -0,0 +1,99 @@
+package io.vertx.httpproxy;
+
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class HedgeTest extends ProxyTestBase {
+
+  private AtomicInteger resets = new AtomicInteger();
+
+  private void startBackends(TestContext ctx) {
+    startHttpBackend(ctx, 8081, req -> {
+      req.connection().closeHandler(v -> resets.incrementAndGet());
+      vertx.setTimer(500, id -> {
+        if (!req.response().closed()) {
+          req.response().end("8081");
+        }
+      });
+    });
+    startHttpBackend(ctx, 8082, req -> req.response().end("8082"));
+  }
+
+  private void startProxy(HedgeOptions hedge) {
+    startProxy(proxyOptions, proxy -> proxy.backendPool(BackendPool.create(vertx, new BackendPoolOptions()
+      .setHedge(hedge)
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8081))
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8082)))));
+  }
+
+  @Test
+  public void testHedge(TestContext ctx) {
+    startBackends(ctx);
+    startProxy(new HedgeOptions().setPercentile(0).setDelay(50));
+    Async async = ctx.async();
+    long now = System.currentTimeMillis();
+    fetch(4).onComplete(ctx.asyncAssertSuccess(list -> {
+      for (String body : list) {
+        ctx.assertEquals("8082", body);
+      }
+      ctx.assertTrue(System.currentTimeMillis() - now < 1000);
+      // The slow requests are reset
+      vertx.setPeriodic(10, id -> {
+        if (resets.get() > 0) {
+          vertx.cancelTimer(id);
+          async.complete();
+        }
+      });
+    }));
+  }
+
+  @Test
+  public void testHedgeBudget(TestContext ctx) {
+    startBackends(ctx);
+    startProxy(new HedgeOptions().setPercentile(0).setDelay(50).setBudgetCapacity(1).setBudgetRatio(0));
+    Async async = ctx.async();
+    fetch(4).onComplete(ctx.asyncAssertSuccess(list -> {
+      ctx.assertTrue(list.contains("8081"));
+      ctx.assertEquals("8082", list.get(0));
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testNotHedged(TestContext ctx) {
+    startBackends(ctx);
+    startProxy(new HedgeOptions().setPercentile(0).setDelay(50));
+    Async async = ctx.async();
+    client.request(HttpMethod.POST, 8080, "localhost", "/")
+      .compose(req -> req.send("body").compose(resp -> resp.body()))
+      .onComplete(ctx.asyncAssertSuccess(body -> {
+        // Round robin starts with the slow backend
+        ctx.assertEquals("8081", body.toString());
+        async.complete();
+      }));
+  }
+
+  @Test
+  public void testRetryWhenHedgesFail(TestContext ctx) {
+    startHttpBackend(ctx, 8082, req -> req.response().end("8082"));
+    startProxy(proxyOptions, proxy -> proxy.backendPool(BackendPool.create(vertx, new BackendPoolOptions()
+      .setHedge(new HedgeOptions().setPercentile(0).setDelay(50))
+      .setRetry(new RetryOptions())
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8083))
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8084))
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8082)))));
+    Async async = ctx.async();
+    // The request and its hedge fail, the request is retried on the last backend
+    fetch(1).onComplete(ctx.asyncAssertSuccess(list -> {
+      ctx.assertEquals("8082", list.get(0));
+      async.complete();
+    }));
+  }
+}
@@ -0,0 +1,102 @@
+package io.vertx.httpproxy;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.core.net.JksOptions;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class Http2BackendTest extends ProxyTestBase {
+
+  private AtomicInteger connections = new AtomicInteger();
+
+  private Future<List<String>> get(int num) {
+    List<Future<String>> futures = new ArrayList<>();
+    for (int i = 0;i < num;i++) {
+      RequestOptions options = new RequestOptions()
+        .setMethod(HttpMethod.GET)
+        .setPort(8080)
+        .setHost("localhost")
+        .setURI("/")
+        .putHeader("keep-alive", "timeout=5")
+        .putHeader("connection", "keep-alive, x-hop")
+        .putHeader("x-hop", "value")
+        .putHeader("x-custom", "value");
+      futures.add(client.request(options).compose(req -> req.send().compose(resp -> resp.body())).map(body -> body.toString()));
+    }
+    return CompositeFuture.all(new ArrayList<>(futures)).map(CompositeFuture::list);
+  }
+
+  @Test
+  public void testClearText(TestContext ctx) {
+    HttpServerOptions options = new HttpServerOptions().setPort(8081).setHost("localhost");
+    startHttpServerCountingConnections(ctx, options);
+    startProxy(proxyOptions, proxy -> proxy.backendPool(BackendPool.create(vertx, new BackendPoolOptions()
+      .setHttp2(new Http2Options())
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8081)))));
+    Async async = ctx.async();
+    get(20).onComplete(ctx.asyncAssertSuccess(list -> {
+      for (String body : list) {
+        // Connection specific headers are not forwarded
+        ctx.assertEquals("HTTP_2:null:value", body);
+      }
+      // The requests are multiplexed on a single connection
+      ctx.assertEquals(1, connections.get());
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testAlpn(TestContext ctx) {
+    HttpServerOptions options = new HttpServerOptions()
+      .setPort(8081)
+      .setHost("localhost")
+      .setSsl(true)
+      .setUseAlpn(true)
+      .setKeyStoreOptions(new JksOptions().setPath("server-keystore.jks").setPassword("wibble"));
+    startHttpServerCountingConnections(ctx, options);
+    startProxy(proxyOptions, proxy -> proxy.backendPool(BackendPool.create(vertx, new BackendPoolOptions()
+      .setHttp2(new Http2Options().setSsl(true).setTrustAll(true))
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8081)))));
+    Async async = ctx.async();
+    get(20).onComplete(ctx.asyncAssertSuccess(list -> {
+      for (String body : list) {
+        ctx.assertEquals("HTTP_2:null:value", body);
+      }
+      ctx.assertEquals(1, connections.get());
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testHttp1HopByHopHeaders(TestContext ctx) {
+    startHttpServerCountingConnections(ctx, new HttpServerOptions().setPort(8081).setHost("localhost"));
+    startProxy(proxyOptions, proxy -> proxy.backendPool(BackendPool.create(vertx, new BackendPoolOptions()
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8081)))));
+    Async async = ctx.async();
+    get(1).onComplete(ctx.asyncAssertSuccess(list -> {
+      ctx.assertEquals("HTTP_1_1:null:value", list.get(0));
+      async.complete();
+    }));
+  }
+
+  private void startHttpServerCountingConnections(TestContext ctx, HttpServerOptions options) {
+    Async listen = ctx.async();
+    vertx.createHttpServer(options)
+      .connectionHandler(conn -> connections.incrementAndGet())
+      .requestHandler(req -> req.response().end(req.version().name() + ":" + req.getHeader("keep-alive") + ":" + req.getHeader("x-custom") + (req.getHeader("x-hop") != null ? ":x-hop" : "")))
+      .listen(ctx.asyncAssertSuccess(s -> listen.complete()));
+    listen.awaitSuccess();
+  }
+}
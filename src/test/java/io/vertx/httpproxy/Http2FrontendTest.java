@@ -0,0 +1,94 @@
+package io.vertx.httpproxy;
+
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import org.junit.Test;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class Http2FrontendTest extends ProxyTestBase {
+
+  @Override
+  public void setUp() {
+    super.setUp();
+    client = vertx.createHttpClient(new HttpClientOptions()
+      .setProtocolVersion(HttpVersion.HTTP_2)
+      .setHttp2ClearTextUpgrade(false));
+  }
+
+  /**
+   * Echo the request body with connection-specific headers and a trailer.
+   */
+  private void echo(HttpServerRequest req) {
+    req.body().onSuccess(body -> {
+      HttpServerResponse resp = req.response();
+      if (req.version() != HttpVersion.HTTP_2) {
+        resp.putHeader("connection", "keep-alive").putHeader("keep-alive", "timeout=5");
+      }
+      resp
+        .setChunked(true)
+        .putHeader("x-version", req.version().name())
+        .putHeader("x-content-length", String.valueOf(req.getHeader("content-length")));
+      resp.trailers().add("x-checksum", String.valueOf(body.length()));
+      resp.end(body);
+    });
+  }
+
+  private void post(TestContext ctx, HttpMethod method, String expectedVersion) {
+    Async async = ctx.async();
+    RequestOptions options = new RequestOptions().setMethod(method).setPort(8080).setHost("localhost").setURI("/");
+    client.request(options).onComplete(ctx.asyncAssertSuccess(req -> {
+      // The body is sent without content length, it is delimited by the end of the stream
+      req.setChunked(true);
+      req.write("hello ");
+      req.end("world");
+      req.onComplete(ctx.asyncAssertSuccess(resp -> {
+        ctx.assertEquals(HttpVersion.HTTP_2, resp.version());
+        ctx.assertEquals(expectedVersion, resp.getHeader("x-version"));
+        ctx.assertNull(resp.getHeader(HttpHeaders.CONNECTION));
+        ctx.assertNull(resp.getHeader("keep-alive"));
+        ctx.assertNull(resp.getHeader(HttpHeaders.TRANSFER_ENCODING));
+        resp.body().onComplete(ctx.asyncAssertSuccess(body -> {
+          ctx.assertEquals("hello world", body.toString());
+          ctx.assertEquals("11", resp.trailers().get("x-checksum"));
+          async.complete();
+        }));
+      }));
+    }));
+  }
+
+  @Test
+  public void testHttp1Backend(TestContext ctx) {
+    startHttpBackend(ctx, 8081, this::echo);
+    startProxy(proxyOptions, proxy -> proxy.backendPool(BackendPool.create(vertx, new BackendPoolOptions()
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8081)))));
+    post(ctx, HttpMethod.POST, "HTTP_1_1");
+  }
+
+  @Test
+  public void testHttp2Backend(TestContext ctx) {
+    startHttpBackend(ctx, 8081, this::echo);
+    startProxy(proxyOptions, proxy -> proxy.backendPool(BackendPool.create(vertx, new BackendPoolOptions()
+      .setHttp2(new Http2Options())
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8081)))));
+    post(ctx, HttpMethod.POST, "HTTP_2");
+  }
+
+  @Test
+  public void testRetriedBody(TestContext ctx) {
+    startHttpBackend(ctx, 8081, this::echo);
+    startProxy(proxyOptions, proxy -> proxy.backendPool(BackendPool.create(vertx, new BackendPoolOptions()
+      .setRetry(new RetryOptions())
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8081)))));
+    // The body of an idempotent request is buffered for the retries
+    post(ctx, HttpMethod.PUT, "HTTP_1_1");
+  }
+}
@@ -0,0 +1,215 @@
+package io.vertx.httpproxy;
+
+import io.vertx.core.Future;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import org.junit.Test;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class LoadBalancingTest extends ProxyTestBase {
+
+  private void startBackends(TestContext ctx, int... ports) {
+    for (int port : ports) {
+      startHttpBackend(ctx, port, req -> req.response().end("" + port));
+    }
+  }
+
+  private Future<String> get(String uri) {
+    return client.request(HttpMethod.GET, 8080, "localhost", uri)
+      .compose(req -> req.send().compose(resp -> resp.body()))
+      .map(body -> body.toString());
+  }
+
+  private BackendPool pool(LoadBalancing loadBalancing, int... weights) {
+    BackendPoolOptions options = new BackendPoolOptions().setLoadBalancing(loadBalancing);
+    for (int i = 0;i < weights.length;i++) {
+      options.addBackend(new BackendOptions().setHost("localhost").setPort(8081 + i).setWeight(weights[i]));
+    }
+    return BackendPool.create(vertx, options);
+  }
+
+  @Test
+  public void testWeightedRoundRobin(TestContext ctx) {
+    startBackends(ctx, 8081, 8082, 8083);
+    startProxy(proxyOptions, proxy -> proxy.backendPool(pool(LoadBalancing.ROUND_ROBIN, 5, 1, 1)));
+    Async async = ctx.async();
+    fetch(14).onComplete(ctx.asyncAssertSuccess(list -> {
+      // Smooth: the heavy backend is interleaved with the others
+      List<String> expected = new ArrayList<>();
+      for (int i = 0;i < 2;i++) {
+        expected.add("8081");
+        expected.add("8081");
+        expected.add("8082");
+        expected.add("8081");
+        expected.add("8083");
+        expected.add("8081");
+        expected.add("8081");
+      }
+      ctx.assertEquals(expected, list);
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testRemovePool(TestContext ctx) {
+    startBackends(ctx, 8081, 8082);
+    startProxy(proxyOptions, proxy -> proxy
+      .target(8082, "localhost")
+      .backendPool(pool(LoadBalancing.ROUND_ROBIN, 1))
+      .backendPool(null));
+    Async async = ctx.async();
+    fetch(2).onComplete(ctx.asyncAssertSuccess(list -> {
+      // The selector is used again
+      ctx.assertEquals("8082", list.get(0));
+      ctx.assertEquals("8082", list.get(1));
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testLeastRequests(TestContext ctx) {
+    Map<String, HttpServerRequest> pending = new ConcurrentHashMap<>();
+    for (int port = 8081;port <= 8083;port++) {
+      String name = "" + port;
+      startHttpBackend(ctx, port, req -> {
+        if (req.path().equals("/slow")) {
+          pending.put(name, req);
+        } else {
+          req.response().end(name);
+        }
+      });
+    }
+    startProxy(proxyOptions, proxy -> proxy.backendPool(pool(LoadBalancing.LEAST_REQUESTS, 1, 1, 1)));
+    Async async = ctx.async();
+    get("/slow");
+    get("/slow");
+    vertx.setPeriodic(10, id -> {
+      if (pending.size() == 2) {
+        vertx.cancelTimer(id);
+        fetch(10).onComplete(ctx.asyncAssertSuccess(list -> {
+          String idle = list.get(0);
+          ctx.assertFalse(pending.containsKey(idle));
+          for (String body : list) {
+            ctx.assertEquals(idle, body);
+          }
+          pending.values().forEach(req -> req.response().end());
+          async.complete();
+        }));
+      }
+    });
+  }
+
+  @Test
+  public void testPowerOfTwoChoices(TestContext ctx) {
+    startHttpBackend(ctx, 8081, req -> vertx.setTimer(200, id -> req.response().end("8081")));
+    startBackends(ctx, 8082, 8083);
+    startProxy(proxyOptions, proxy -> proxy.backendPool(pool(LoadBalancing.POWER_OF_TWO_CHOICES, 1, 1, 1)));
+    Async async = ctx.async();
+    fetch(40).onComplete(ctx.asyncAssertSuccess(list -> {
+      // The slow backend loses every comparison once its latency is known
+      long slow = list.stream().filter("8081"::equals).count();
+      ctx.assertTrue(slow <= 2, "Unexpected slow backend selections " + slow);
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testPowerOfTwoChoicesFailingBackend(TestContext ctx) {
+    // The failing backend answers faster than the others
+    startHttpBackend(ctx, 8081, req -> req.connection().close());
+    startHttpBackend(ctx, 8082, req -> vertx.setTimer(20, id -> req.response().end("8082")));
+    startHttpBackend(ctx, 8083, req -> vertx.setTimer(20, id -> req.response().end("8083")));
+    startProxy(proxyOptions, proxy -> proxy.backendPool(pool(LoadBalancing.POWER_OF_TWO_CHOICES, 1, 1, 1)));
+    Async async = ctx.async();
+    fetch(40).onComplete(ctx.asyncAssertSuccess(list -> {
+      long failed = list.stream().filter(body -> !body.equals("8082") && !body.equals("8083")).count();
+      ctx.assertTrue(failed <= 2, "Unexpected failing backend selections " + failed);
+      async.complete();
+    }));
+  }
+
+  private Future<Map<String, String>> getKeys(String header, int num) {
+    Map<String, String> map = new HashMap<>();
+    Future<Void> fut = Future.succeededFuture();
+    for (int i = 0;i < num;i++) {
+      String key = "key-" + i;
+      fut = fut.compose(v -> client.request(HttpMethod.GET, 8080, "localhost", "/")
+        .compose(req -> req.putHeader(header, key).send().compose(resp -> resp.body()))
+        .map(body -> {
+          map.put(key, body.toString());
+          return null;
+        }));
+    }
+    return fut.map(map);
+  }
+
+  @Test
+  public void testConsistentHash(TestContext ctx) throws Exception {
+    startBackends(ctx, 8081, 8082, 8083);
+    Closeable proxy1 = startProxy(proxyOptions, proxy -> proxy.backendPool(BackendPool.create(vertx, new BackendPoolOptions()
+      .setLoadBalancing(LoadBalancing.CONSISTENT_HASH)
+      .setHashHeader("x-key")
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8081))
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8082))
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8083)))));
+    Map<String, String> before = getKeys("x-key", 60).toCompletionStage().toCompletableFuture().get(20, TimeUnit.SECONDS);
+    ctx.assertEquals(before, getKeys("x-key", 60).toCompletionStage().toCompletableFuture().get(20, TimeUnit.SECONDS));
+    ctx.assertEquals(3, new HashSet<>(before.values()).size());
+    proxy1.close();
+    startProxy(proxyOptions, proxy -> proxy.backendPool(BackendPool.create(vertx, new BackendPoolOptions()
+      .setLoadBalancing(LoadBalancing.CONSISTENT_HASH)
+      .setHashHeader("x-key")
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8081))
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8082)))));
+    Map<String, String> after = getKeys("x-key", 60).toCompletionStage().toCompletableFuture().get(20, TimeUnit.SECONDS);
+    // Only the keys of the removed backend move
+    before.forEach((key, backend) -> {
+      if (!backend.equals("8083")) {
+        ctx.assertEquals(backend, after.get(key));
+      }
+    });
+  }
+
+  @Test
+  public void testConsistentHashCookie(TestContext ctx) {
+    startBackends(ctx, 8081, 8082, 8083);
+    startProxy(proxyOptions, proxy -> proxy.backendPool(BackendPool.create(vertx, new BackendPoolOptions()
+      .setLoadBalancing(LoadBalancing.CONSISTENT_HASH)
+      .setHashCookie("session")
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8081))
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8082))
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8083)))));
+    Async async = ctx.async();
+    Future<Void> fut = Future.succeededFuture();
+    for (int i = 0;i < 20;i++) {
+      String session = "session=" + i;
+      fut = fut.compose(v -> getWithCookie("/a", session + "; other=a")
+        .compose(backend -> getWithCookie("/b", "other=b; " + session)
+          .map(backend2 -> {
+            ctx.assertEquals(backend, backend2);
+            return null;
+          })));
+    }
+    fut.onComplete(ctx.asyncAssertSuccess(v -> async.complete()));
+  }
+
+  private Future<String> getWithCookie(String uri, String cookie) {
+    return client.request(HttpMethod.GET, 8080, "localhost", uri)
+      .compose(req -> req.putHeader(HttpHeaders.COOKIE, cookie).send().compose(resp -> resp.body()))
+      .map(body -> body.toString());
+  }
+}
@@ -0,0 +1,107 @@
+package io.vertx.httpproxy;
+
+import io.vertx.core.Future;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class OutlierDetectionTest extends ProxyTestBase {
+
+  private void startBackend(TestContext ctx, int port, int status) {
+    startHttpBackend(ctx, port, req -> req.response().setStatusCode(status).end("" + port));
+  }
+
+  private void startProxy(OutlierDetectionOptions outlierDetection, int... ports) {
+    BackendPoolOptions options = new BackendPoolOptions().setOutlierDetection(outlierDetection);
+    for (int port : ports) {
+      options.addBackend(new BackendOptions().setHost("localhost").setPort(port));
+    }
+    startProxy(proxyOptions, proxy -> proxy.backendPool(BackendPool.create(vertx, options)));
+  }
+
+  /**
+   * @return the {@code status:body} of each response
+   */
+  private Future<List<String>> getStatuses(int num) {
+    return send(new RequestOptions(), null, num, (resp, body) -> resp.statusCode() + ":" + body);
+  }
+
+  @Test
+  public void testConsecutiveServerErrors(TestContext ctx) {
+    startBackend(ctx, 8081, 500);
+    startBackend(ctx, 8082, 200);
+    startProxy(new OutlierDetectionOptions()
+      .setConsecutiveServerErrors(3)
+      .setMaxEjectionPercent(50)
+      .setInterval(20)
+      .setBaseEjectionTime(500), 8081, 8082);
+    Async async = ctx.async();
+    getStatuses(10).compose(list -> {
+      ctx.assertEquals(3, (int) list.stream().filter("500:8081"::equals).count());
+      ctx.assertEquals("200:8082", list.get(9));
+      ctx.assertEquals("200:8082", list.get(8));
+      return delay(700).compose(v -> getStatuses(2));
+    }).onComplete(ctx.asyncAssertSuccess(list -> {
+      // Returned to the pool
+      ctx.assertTrue(list.contains("500:8081"));
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testConsecutiveConnectionFailures(TestContext ctx) {
+    startBackend(ctx, 8081, 200);
+    startProxy(new OutlierDetectionOptions()
+      .setConsecutiveConnectionFailures(2)
+      .setMaxEjectionPercent(50), 8081, 8082);
+    Async async = ctx.async();
+    getStatuses(10).onComplete(ctx.asyncAssertSuccess(list -> {
+      ctx.assertEquals(8, (int) list.stream().filter("200:8081"::equals).count());
+      for (int i = 4;i < 10;i++) {
+        ctx.assertEquals("200:8081", list.get(i));
+      }
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testMaxEjectionPercent(TestContext ctx) {
+    startBackend(ctx, 8081, 500);
+    startBackend(ctx, 8082, 500);
+    startBackend(ctx, 8083, 500);
+    startProxy(new OutlierDetectionOptions()
+      .setConsecutiveServerErrors(1)
+      .setMaxEjectionPercent(10), 8081, 8082, 8083);
+    Async async = ctx.async();
+    getStatuses(20).onComplete(ctx.asyncAssertSuccess(list -> {
+      // At least one backend, at most 10% of three backends
+      ctx.assertEquals(2, new HashSet<>(list.subList(10, 20)).size());
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testLatencyOutlier(TestContext ctx) {
+    startBackend(ctx, 8081, 200);
+    startBackend(ctx, 8082, 200);
+    startHttpBackend(ctx, 8083, req -> vertx.setTimer(300, id -> req.response().end("8083")));
+    startProxy(new OutlierDetectionOptions()
+      .setLatencyFactor(5)
+      .setInterval(20), 8081, 8082, 8083);
+    Async async = ctx.async();
+    getStatuses(6)
+      .compose(list -> delay(100))
+      .compose(v -> getStatuses(6))
+      .onComplete(ctx.asyncAssertSuccess(list -> {
+        ctx.assertFalse(list.contains("200:8083"));
+        async.complete();
+      }));
+  }
+}
@@ -54,4 +54,27 @@ public class ProxyTest extends ProxyTestBase {
       });
     }
   }
+
+  @SuppressWarnings("deprecation")
+  @Test
+  public void testReverseProxyWithoutContext(TestContext ctx) {
+    startHttpBackend(ctx, 8081, req -> req.response().end("hello"));
+    // Not on a Vert.x context, the proxy uses the vertx instance of the client
+    HttpProxy proxy = HttpProxy.reverseProxy2(vertx.createHttpClient()).target(8081, "localhost");
+    Async listen = ctx.async();
+    vertx.createHttpServer().requestHandler(proxy).listen(8080, "localhost", ctx.asyncAssertSuccess(s -> listen.complete()));
+    listen.awaitSuccess();
+    Async async = ctx.async();
+    vertx.createHttpClient().request(HttpMethod.GET, 8080, "localhost", "/")
+      .compose(req -> req.send().compose(HttpClientResponse::body))
+      .onComplete(ctx.asyncAssertSuccess(body -> {
+        ctx.assertEquals("hello", body.toString());
+        async.complete();
+      }));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullCacheOptions() {
+    HttpProxy.reverseProxy(vertx, vertx.createHttpClient()).cacheOptions(null);
+  }
 }
@@ -5,11 +5,14 @@ import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpClientResponse;
 import io.vertx.core.http.HttpServer;
 import io.vertx.core.http.HttpServerOptions;
 import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.RequestOptions;
 import io.vertx.core.net.NetServer;
 import io.vertx.core.net.NetSocket;
 import io.vertx.core.net.SocketAddress;
@@ -22,7 +25,12 @@ import org.junit.Before;
 import org.junit.runner.RunWith;
 
 import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
@@ -34,14 +42,15 @@ public class ProxyTestBase {
   protected HttpServerOptions proxyOptions;
   protected HttpClientOptions clientOptions;
 
-
   protected Vertx vertx;
+  protected HttpClient client;
 
   @Before
   public void setUp() {
     proxyOptions = new HttpServerOptions().setPort(8080).setHost("localhost");
     clientOptions = new HttpClientOptions();
     vertx = Vertx.vertx();
+    client = vertx.createHttpClient();
   }
 
   @After
@@ -54,14 +63,22 @@ public class ProxyTestBase {
   }
 
   protected Closeable startProxy(Function<HttpServerRequest, Future<SocketAddress>> selector) {
+    return startProxy(proxyOptions, proxy -> proxy.selector(selector));
+  }
+
+  protected Closeable startProxy(HttpServerOptions options, Consumer<HttpProxy> configurer) {
+    return startProxy(vertx, options, configurer);
+  }
+
+  protected Closeable startProxy(Vertx vertx, HttpServerOptions options, Consumer<HttpProxy> configurer) {
     CompletableFuture<Closeable> res = new CompletableFuture<>();
     vertx.deployVerticle(new AbstractVerticle() {
       @Override
       public void start(Promise<Void> startFuture) {
         HttpClient proxyClient = vertx.createHttpClient(new HttpClientOptions(clientOptions));
-        HttpServer proxyServer = vertx.createHttpServer(new HttpServerOptions(proxyOptions));
-        HttpProxy proxy = HttpProxy.reverseProxy2(proxyClient);
-        proxy.selector(selector);
+        HttpServer proxyServer = vertx.createHttpServer(new HttpServerOptions(options));
+        HttpProxy proxy = HttpProxy.reverseProxy(vertx, proxyClient);
+        configurer.accept(proxy);
         proxyServer.requestHandler(proxy);
         proxyServer.listen(ar -> startFuture.handle(ar.mapEmpty()));
       }
@@ -124,4 +141,63 @@ public class ProxyTestBase {
     return new SocketAddressImpl(port, "localhost");
   }
 
+  /**
+   * Send {@code num} {@code GET /} requests to the proxy one after the other.
+   *
+   * @return the response bodies
+   */
+  protected Future<List<String>> fetch(int num) {
+    return fetch(new RequestOptions(), num);
+  }
+
+  /**
+   * Like {@link #fetch(int)} with the method, URI and headers of {@code options}.
+   */
+  protected Future<List<String>> fetch(RequestOptions options, int num) {
+    return send(options, null, num, (resp, body) -> body.toString());
+  }
+
+  /**
+   * Send {@code num} requests to the proxy one after the other, the port and host of {@code options}
+   * are replaced by the proxy ones.
+   *
+   * @param body the request body or {@code null}
+   * @param mapper maps each response and its body to a result
+   * @return the results in the order of the requests
+   */
+  protected <T> Future<List<T>> send(RequestOptions options, Buffer body, int num, BiFunction<HttpClientResponse, Buffer, T> mapper) {
+    RequestOptions request = new RequestOptions(options).setPort(proxyOptions.getPort()).setHost(proxyOptions.getHost());
+    List<T> list = new ArrayList<>();
+    Future<Void> fut = Future.succeededFuture();
+    for (int i = 0;i < num;i++) {
+      fut = fut.compose(v -> client.request(request)
+        .compose(req -> body != null ? req.send(body) : req.send())
+        .compose(resp -> resp.body().map(b -> {
+          list.add(mapper.apply(resp, b));
+          return null;
+        })));
+    }
+    return fut.map(list);
+  }
+
+  /**
+   * @return a future completed once {@code probes} has been incremented {@code num} times
+   */
+  protected Future<Void> awaitProbes(AtomicInteger probes, int num) {
+    int target = probes.get() + num;
+    Promise<Void> promise = Promise.promise();
+    vertx.setPeriodic(10, id -> {
+      if (probes.get() >= target) {
+        vertx.cancelTimer(id);
+        promise.complete();
+      }
+    });
+    return promise.future();
+  }
+
+  protected Future<Void> delay(long ms) {
+    Promise<Void> promise = Promise.promise();
+    vertx.setTimer(ms, id -> promise.complete());
+    return promise.future();
+  }
 }
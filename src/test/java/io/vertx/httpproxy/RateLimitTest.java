@@ -0,0 +1,81 @@
+package io.vertx.httpproxy;
+
+import io.vertx.core.Future;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class RateLimitTest extends ProxyTestBase {
+
+  private AtomicInteger hits = new AtomicInteger();
+
+  private void startBackend(TestContext ctx) {
+    startHttpBackend(ctx, 8081, req -> {
+      hits.incrementAndGet();
+      req.response().end();
+    });
+  }
+
+  /**
+   * @return the {@code status[:retry-after]} of each response
+   */
+  private Future<List<String>> get(String apiKey, int num) {
+    RequestOptions options = new RequestOptions();
+    if (apiKey != null) {
+      options.putHeader("x-api-key", apiKey);
+    }
+    return send(options, null, num, (resp, body) -> {
+      String retryAfter = resp.getHeader("retry-after");
+      return resp.statusCode() + (retryAfter != null ? ":" + retryAfter : "");
+    });
+  }
+
+  @Test
+  public void testRateLimit(TestContext ctx) {
+    startBackend(ctx);
+    startProxy(proxyOptions, proxy -> proxy
+      .target(8081, "localhost")
+      .rateLimit(new RateLimitOptions().setRate(0.5).setBurst(2)));
+    Async async = ctx.async();
+    get(null, 3).onComplete(ctx.asyncAssertSuccess(list -> {
+      ctx.assertEquals("200", list.get(0));
+      ctx.assertEquals("200", list.get(1));
+      ctx.assertEquals("429:2", list.get(2));
+      ctx.assertEquals(2, hits.get());
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testRateLimitKey(TestContext ctx) {
+    startBackend(ctx);
+    startProxy(proxyOptions, proxy -> proxy
+      .target(8081, "localhost")
+      .rateLimit(new RateLimitOptions().setRate(1).setBurst(1))
+      .rateLimitKey(req -> req.getHeader("x-api-key")));
+    Async async = ctx.async();
+    get("key1", 2)
+      .compose(list1 -> get("key2", 2).map(list2 -> {
+        ctx.assertEquals("200", list1.get(0));
+        ctx.assertEquals("429:1", list1.get(1));
+        ctx.assertEquals("200", list2.get(0));
+        ctx.assertEquals("429:1", list2.get(1));
+        return null;
+      }))
+      .compose(v -> get(null, 3))
+      .onComplete(ctx.asyncAssertSuccess(list -> {
+        // Requests without key are not limited
+        for (String s : list) {
+          ctx.assertEquals("200", s);
+        }
+        async.complete();
+      }));
+  }
+}
@@ -0,0 +1,120 @@
+package io.vertx.httpproxy;
+
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class RetryTest extends ProxyTestBase {
+
+  private AtomicInteger hits1 = new AtomicInteger();
+
+  private void startBackends(TestContext ctx) {
+    startHttpBackend(ctx, 8081, req -> {
+      hits1.incrementAndGet();
+      req.response().setStatusCode(503).end();
+    });
+    startHttpBackend(ctx, 8082, req -> req.body().onSuccess(body -> req.response().end("8082:" + body)));
+  }
+
+  private void startProxy(RetryOptions retry, int... ports) {
+    BackendPoolOptions options = new BackendPoolOptions().setRetry(retry);
+    for (int port : ports) {
+      options.addBackend(new BackendOptions().setHost("localhost").setPort(port));
+    }
+    startProxy(proxyOptions, proxy -> proxy.backendPool(BackendPool.create(vertx, options)));
+  }
+
+  /**
+   * @return the {@code status:body} of each response
+   */
+  private Future<List<String>> request(HttpMethod method, String body, int num) {
+    return send(new RequestOptions().setMethod(method), body != null ? Buffer.buffer(body) : null, num, (resp, b) -> resp.statusCode() + ":" + b);
+  }
+
+  @Test
+  public void testRetryStatus(TestContext ctx) {
+    startBackends(ctx);
+    startProxy(new RetryOptions(), 8081, 8082);
+    Async async = ctx.async();
+    request(HttpMethod.GET, null, 10).onComplete(ctx.asyncAssertSuccess(list -> {
+      for (String s : list) {
+        ctx.assertEquals("200:8082:", s);
+      }
+      ctx.assertTrue(hits1.get() > 0);
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testRetryConnectionFailure(TestContext ctx) {
+    startBackends(ctx);
+    startProxy(new RetryOptions(), 8082, 8083);
+    Async async = ctx.async();
+    request(HttpMethod.GET, null, 10).onComplete(ctx.asyncAssertSuccess(list -> {
+      for (String s : list) {
+        ctx.assertEquals("200:8082:", s);
+      }
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testRetryBufferedBody(TestContext ctx) {
+    startBackends(ctx);
+    startProxy(new RetryOptions(), 8081, 8082);
+    Async async = ctx.async();
+    request(HttpMethod.PUT, "the-body", 4).onComplete(ctx.asyncAssertSuccess(list -> {
+      for (String s : list) {
+        ctx.assertEquals("200:8082:the-body", s);
+      }
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testBodyTooLarge(TestContext ctx) {
+    startBackends(ctx);
+    startProxy(new RetryOptions().setMaxBodySize(4), 8081, 8082);
+    Async async = ctx.async();
+    request(HttpMethod.PUT, "the-body", 4).onComplete(ctx.asyncAssertSuccess(list -> {
+      ctx.assertTrue(list.contains("503:"));
+      ctx.assertTrue(list.contains("200:8082:the-body"));
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testNonIdempotentRequest(TestContext ctx) {
+    startBackends(ctx);
+    startProxy(new RetryOptions(), 8081, 8082);
+    Async async = ctx.async();
+    request(HttpMethod.POST, "the-body", 4).onComplete(ctx.asyncAssertSuccess(list -> {
+      ctx.assertTrue(list.contains("503:"));
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testRetryBudget(TestContext ctx) {
+    startBackends(ctx);
+    startProxy(new RetryOptions().setBudgetCapacity(2).setBudgetRatio(0), 8081, 8082);
+    Async async = ctx.async();
+    request(HttpMethod.GET, null, 10).onComplete(ctx.asyncAssertSuccess(list -> {
+      long failures = list.stream().filter("503:"::equals).count();
+      ctx.assertTrue(failures > 0);
+      // Two requests were retried
+      ctx.assertEquals(failures + 2, (long) hits1.get());
+      async.complete();
+    }));
+  }
+}
@@ -0,0 +1,195 @@
+package io.vertx.httpproxy;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class RouteTableTest extends ProxyTestBase {
+
+  private void startBackends(TestContext ctx, int... ports) {
+    for (int port : ports) {
+      startHttpBackend(ctx, port, req -> req.response().end("" + port));
+    }
+  }
+
+  private static RouteOptions route(String host, String pathPrefix, int port) {
+    return new RouteOptions()
+      .setHost(host)
+      .setPathPrefix(pathPrefix)
+      .setPool(new BackendPoolOptions().addBackend(new BackendOptions().setHost("localhost").setPort(port)));
+  }
+
+  private Future<HttpClientResponse> get(String host, String uri) {
+    RequestOptions options = new RequestOptions()
+      .setMethod(HttpMethod.GET)
+      .setPort(8080)
+      .setHost("localhost")
+      .setURI(uri)
+      .putHeader(HttpHeaders.HOST, host);
+    return client.request(options).compose(req -> req.send());
+  }
+
+  private Future<String> body(String host, String uri) {
+    return get(host, uri).compose(resp -> resp.body()).map(body -> body.toString());
+  }
+
+  @Test
+  public void testRoutes(TestContext ctx) {
+    startBackends(ctx, 8081, 8082, 8083);
+    RouteTable table = RouteTable.create(vertx, new RouteTableOptions()
+      .addRoute(route(null, "/", 8083))
+      .addRoute(route(null, "/api", 8082))
+      .addRoute(route("example.com", "/", 8081)));
+    startProxy(proxyOptions, proxy -> proxy.routeTable(table));
+    Async async = ctx.async();
+    body("Example.com:8080", "/api/foo")
+      .compose(body -> {
+        // The host routes take precedence
+        ctx.assertEquals("8081", body);
+        return body("localhost:8080", "/api/foo");
+      })
+      .compose(body -> {
+        // The longest prefix wins
+        ctx.assertEquals("8082", body);
+        return body("localhost:8080", "/other");
+      })
+      .onComplete(ctx.asyncAssertSuccess(body -> {
+        ctx.assertEquals("8083", body);
+        async.complete();
+      }));
+  }
+
+  @Test
+  public void testMethodRoutes(TestContext ctx) {
+    startBackends(ctx, 8081, 8082, 8083);
+    RouteTable table = RouteTable.create(vertx, new RouteTableOptions()
+      .addRoute(route(null, "/app", 8083))
+      .addRoute(route(null, "/api", 8082).addMethod(HttpMethod.POST))
+      .addRoute(route(null, "/api", 8081).addMethod(HttpMethod.GET).addMethod(HttpMethod.HEAD)));
+    startProxy(proxyOptions, proxy -> proxy.routeTable(table));
+    Async async = ctx.async();
+    body("localhost:8080", "/api/foo")
+      .compose(body -> {
+        ctx.assertEquals("8081", body);
+        return body("localhost:8080", "/application");
+      })
+      .compose(body -> {
+        ctx.assertEquals("8083", body);
+        RequestOptions options = new RequestOptions().setMethod(HttpMethod.POST).setPort(8080).setHost("localhost").setURI("/api/foo");
+        return client.request(options).compose(req -> req.send("data")).compose(resp -> resp.body());
+      })
+      .compose(body -> {
+        ctx.assertEquals("8082", body.toString());
+        // No route accepts the method
+        RequestOptions options = new RequestOptions().setMethod(HttpMethod.PUT).setPort(8080).setHost("localhost").setURI("/api/foo");
+        return client.request(options).compose(req -> req.send("data"));
+      })
+      .onComplete(ctx.asyncAssertSuccess(resp -> {
+        ctx.assertEquals(404, resp.statusCode());
+        async.complete();
+      }));
+  }
+
+  @Test
+  public void testNoRoute(TestContext ctx) {
+    RouteTable table = RouteTable.create(vertx, new RouteTableOptions()
+      .addRoute(route(null, "/api", 8081)));
+    startProxy(proxyOptions, proxy -> proxy.routeTable(table));
+    Async async = ctx.async();
+    get("localhost:8080", "/other").onComplete(ctx.asyncAssertSuccess(resp -> {
+      ctx.assertEquals(404, resp.statusCode());
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testRouteTimeouts(TestContext ctx) {
+    startHttpBackend(ctx, 8081, req -> vertx.setTimer(300, id -> {
+      if (!req.response().closed()) {
+        req.response().end();
+      }
+    }));
+    RouteTable table = RouteTable.create(vertx, new RouteTableOptions()
+      .addRoute(route(null, "/fast", 8081).setTimeouts(new TimeoutOptions().setResponseTimeout(100)))
+      .addRoute(route(null, "/", 8081)));
+    startProxy(proxyOptions, proxy -> proxy.routeTable(table));
+    Async async = ctx.async();
+    get("localhost:8080", "/fast")
+      .compose(resp -> {
+        ctx.assertEquals(504, resp.statusCode());
+        return get("localhost:8080", "/slow");
+      })
+      .onComplete(ctx.asyncAssertSuccess(resp -> {
+        ctx.assertEquals(200, resp.statusCode());
+        async.complete();
+      }));
+  }
+
+  /**
+   * @return a future completed once the proxy answers the expected body
+   */
+  private Future<Void> awaitBody(String expected) {
+    Promise<Void> promise = Promise.promise();
+    vertx.setPeriodic(20, id -> body("localhost:8080", "/").onSuccess(body -> {
+      if (body.equals(expected) && promise.tryComplete()) {
+        vertx.cancelTimer(id);
+      }
+    }));
+    return promise.future();
+  }
+
+  @Test
+  public void testWatchFile(TestContext ctx) throws Exception {
+    startBackends(ctx, 8081, 8082);
+    File file = File.createTempFile("routes", ".json");
+    file.deleteOnExit();
+    Files.write(file.toPath(), new RouteTableOptions().addRoute(route(null, "/", 8081)).toJson().encode().getBytes());
+    RouteTable table = RouteTable.create(vertx).watch(file.getAbsolutePath(), 20);
+    startProxy(proxyOptions, proxy -> proxy.routeTable(table));
+    Async async = ctx.async();
+    awaitBody("8081")
+      .compose(v -> {
+        // An invalid file is ignored
+        return vertx.fileSystem().writeFile(file.getAbsolutePath(), Buffer.buffer("{"));
+      })
+      .compose(v -> body("localhost:8080", "/"))
+      .compose(body -> {
+        ctx.assertEquals("8081", body);
+        return vertx.fileSystem().writeFile(file.getAbsolutePath(), new RouteTableOptions()
+          .addRoute(route(null, "/", 8082)).toJson().toBuffer());
+      })
+      .compose(v -> awaitBody("8082"))
+      .onComplete(ctx.asyncAssertSuccess(v -> {
+        table.close();
+        async.complete();
+      }));
+  }
+
+  @Test
+  public void testJson() {
+    RouteTableOptions options = new RouteTableOptions()
+      .addRoute(route("example.com", "/api", 8081).setName("api").setTimeouts(new TimeoutOptions().setDeadline(500)));
+    RouteTableOptions copy = new RouteTableOptions(options.toJson());
+    RouteOptions route = copy.getRoutes().get(0);
+    assertEquals("api", route.getName());
+    assertEquals("example.com", route.getHost());
+    assertEquals("/api", route.getPathPrefix());
+    assertEquals(8081, route.getPool().getBackends().get(0).getPort());
+    assertEquals(500, route.getTimeouts().getDeadline());
+  }
+}
@@ -0,0 +1,79 @@
+package io.vertx.httpproxy;
+
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class SlowStartTest extends ProxyTestBase {
+
+  private AtomicBoolean healthy2 = new AtomicBoolean(false);
+  private AtomicInteger probes2 = new AtomicInteger();
+  private AtomicInteger hits2 = new AtomicInteger();
+
+  private void startBackends(TestContext ctx, SlowStartOptions slowStart) {
+    startHttpBackend(ctx, 8081, req -> req.response().end("8081"));
+    startHttpBackend(ctx, 8082, req -> {
+      if (req.path().equals("/health")) {
+        probes2.incrementAndGet();
+        req.response().setStatusCode(healthy2.get() ? 200 : 503).end();
+      } else {
+        hits2.incrementAndGet();
+        req.response().end("8082");
+      }
+    });
+    startProxy(proxyOptions, proxy -> proxy.backendPool(BackendPool.create(vertx, new BackendPoolOptions()
+      .setSlowStart(slowStart)
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8081))
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8082))
+      .setHealthCheck(new HealthCheckOptions()
+        .setInterval(20)
+        .setHealthyThreshold(1)
+        .setUnhealthyThreshold(1)))));
+  }
+
+  @Test
+  public void testRecoveredBackendRampsUp(TestContext ctx) {
+    startBackends(ctx, new SlowStartOptions().setWindow(2000).setMinWeightPercent(10));
+    Async async = ctx.async();
+    awaitProbes(probes2, 2)
+      .compose(v -> {
+        healthy2.set(true);
+        return awaitProbes(probes2, 2);
+      })
+      .compose(v -> fetch(20))
+      .compose(v -> {
+        // The recovered backend receives a fraction of its share
+        ctx.assertTrue(hits2.get() < 6, "Unexpected hits " + hits2.get());
+        hits2.set(0);
+        return delay(2000);
+      })
+      .compose(v -> fetch(20))
+      .onComplete(ctx.asyncAssertSuccess(v -> {
+        // The window elapsed, the backend has its full share
+        ctx.assertEquals(10, hits2.get());
+        async.complete();
+      }));
+  }
+
+  @Test
+  public void testNoSlowStart(TestContext ctx) {
+    startBackends(ctx, null);
+    Async async = ctx.async();
+    awaitProbes(probes2, 2)
+      .compose(v -> {
+        healthy2.set(true);
+        return awaitProbes(probes2, 2);
+      })
+      .compose(v -> fetch(20))
+      .onComplete(ctx.asyncAssertSuccess(v -> {
+        ctx.assertEquals(10, hits2.get());
+        async.complete();
+      }));
+  }
+}
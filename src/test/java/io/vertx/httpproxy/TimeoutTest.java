@@ -0,0 +1,197 @@
+package io.vertx.httpproxy;
+
+import io.vertx.core.Future;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import org.junit.Test;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class TimeoutTest extends ProxyTestBase {
+
+  private Future<HttpClientResponse> get(String uri, String deadline) {
+    RequestOptions options = new RequestOptions().setMethod(HttpMethod.GET).setPort(8080).setHost("localhost").setURI(uri);
+    if (deadline != null) {
+      options.putHeader("x-deadline", deadline);
+    }
+    return client.request(options).compose(req -> req.send());
+  }
+
+  @Test
+  public void testResponseTimeout(TestContext ctx) {
+    Async closed = ctx.async();
+    startHttpBackend(ctx, 8081, req -> {
+      req.connection().closeHandler(v -> closed.complete());
+      vertx.setTimer(1000, id -> {
+        if (!req.response().closed()) {
+          req.response().end();
+        }
+      });
+    });
+    startProxy(proxyOptions, proxy -> proxy
+      .target(8081, "localhost")
+      .timeouts(new TimeoutOptions().setResponseTimeout(100)));
+    Async async = ctx.async();
+    long now = System.currentTimeMillis();
+    get("/", null).onComplete(ctx.asyncAssertSuccess(resp -> {
+      ctx.assertEquals(504, resp.statusCode());
+      ctx.assertTrue(System.currentTimeMillis() - now < 1000);
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testIdleTimeout(TestContext ctx) {
+    startHttpBackend(ctx, 8081, req -> {
+      req.response().setChunked(true).write("chunk");
+      // Then stall
+    });
+    startProxy(proxyOptions, proxy -> proxy
+      .target(8081, "localhost")
+      .timeouts(new TimeoutOptions().setResponseTimeout(100).setIdleTimeout(200)));
+    Async async = ctx.async();
+    get("/", null).onComplete(ctx.asyncAssertSuccess(resp -> {
+      // The response is committed, the client request is reset
+      ctx.assertEquals(200, resp.statusCode());
+      resp.body().onComplete(ctx.asyncAssertFailure(err -> async.complete()));
+    }));
+  }
+
+  @Test
+  public void testConnectTimeout(TestContext ctx) {
+    startHttpBackend(ctx, 8081, req -> vertx.setTimer(500, id -> req.response().end()));
+    startProxy(proxyOptions, proxy -> proxy
+      .backendPool(BackendPool.create(vertx, new BackendPoolOptions()
+        // A single request in flight, the second request waits for the backend
+        .setConcurrencyLimit(new ConcurrencyLimitOptions().setInitialLimit(1).setMaxLimit(1).setMaxQueueWait(5000))
+        .addBackend(new BackendOptions().setHost("localhost").setPort(8081))))
+      .timeouts(new TimeoutOptions().setConnectTimeout(100)));
+    Async async = ctx.async(2);
+    get("/", null).onComplete(ctx.asyncAssertSuccess(resp -> {
+      ctx.assertEquals(200, resp.statusCode());
+      async.countDown();
+    }));
+    vertx.setTimer(50, id -> {
+      get("/", null).onComplete(ctx.asyncAssertSuccess(resp -> {
+        ctx.assertEquals(504, resp.statusCode());
+        async.countDown();
+      }));
+    });
+  }
+
+  @Test
+  public void testDeadlinePropagation(TestContext ctx) {
+    startHttpBackend(ctx, 8081, req -> req.response().end(String.valueOf(req.getHeader("x-deadline"))));
+    startProxy(proxyOptions, proxy -> proxy
+      .target(8081, "localhost")
+      .timeouts(new TimeoutOptions().setDeadline(5000).setDeadlineHeader("x-deadline")));
+    Async async = ctx.async();
+    get("/", null)
+      .compose(resp -> resp.body())
+      .compose(body1 -> {
+        long left = Long.parseLong(body1.toString());
+        ctx.assertTrue(left > 4000 && left <= 5000);
+        // The client deadline is shorter
+        return get("/", "200").compose(resp -> resp.body());
+      })
+      .onComplete(ctx.asyncAssertSuccess(body2 -> {
+        long left = Long.parseLong(body2.toString());
+        ctx.assertTrue(left > 0 && left <= 200);
+        async.complete();
+      }));
+  }
+
+  @Test
+  public void testDeadlineExpired(TestContext ctx) {
+    startHttpBackend(ctx, 8081, req -> vertx.setTimer(1000, id -> {
+      if (!req.response().closed()) {
+        req.response().end();
+      }
+    }));
+    startProxy(proxyOptions, proxy -> proxy
+      .target(8081, "localhost")
+      .timeouts(new TimeoutOptions().setDeadlineHeader("x-deadline")));
+    Async async = ctx.async();
+    get("/", "100").onComplete(ctx.asyncAssertSuccess(resp -> {
+      ctx.assertEquals(504, resp.statusCode());
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testTimeoutSelector(TestContext ctx) {
+    startHttpBackend(ctx, 8081, req -> vertx.setTimer(300, id -> {
+      if (!req.response().closed()) {
+        req.response().end();
+      }
+    }));
+    TimeoutOptions fast = new TimeoutOptions().setResponseTimeout(100);
+    startProxy(proxyOptions, proxy -> proxy
+      .target(8081, "localhost")
+      .timeoutSelector(req -> req.path().startsWith("/fast") ? fast : null));
+    Async async = ctx.async();
+    get("/fast", null)
+      .compose(resp -> {
+        ctx.assertEquals(504, resp.statusCode());
+        return get("/slow", null);
+      })
+      .onComplete(ctx.asyncAssertSuccess(resp -> {
+        ctx.assertEquals(200, resp.statusCode());
+        async.complete();
+      }));
+  }
+
+  /**
+   * Write {@code num} chunks every 100 ms.
+   */
+  private void trickle(HttpServerResponse response, int num) {
+    if (response.closed()) {
+      return;
+    }
+    if (num == 0) {
+      response.end();
+    } else {
+      response.write("chunk");
+      vertx.setTimer(100, id -> trickle(response, num - 1));
+    }
+  }
+
+  @Test
+  public void testDeadlineBody(TestContext ctx) {
+    startHttpBackend(ctx, 8081, req -> trickle(req.response().setChunked(true), 10));
+    startProxy(proxyOptions, proxy -> proxy
+      .target(8081, "localhost")
+      .timeouts(new TimeoutOptions().setDeadline(300)));
+    Async async = ctx.async();
+    long now = System.currentTimeMillis();
+    get("/", null).onComplete(ctx.asyncAssertSuccess(resp -> {
+      ctx.assertEquals(200, resp.statusCode());
+      // The body trickles past the deadline, the response is cut
+      resp.body().onComplete(ctx.asyncAssertFailure(err -> {
+        ctx.assertTrue(System.currentTimeMillis() - now < 900);
+        async.complete();
+      }));
+    }));
+  }
+
+  @Test
+  public void testResponseTimeoutBody(TestContext ctx) {
+    startHttpBackend(ctx, 8081, req -> trickle(req.response().setChunked(true), 5));
+    startProxy(proxyOptions, proxy -> proxy
+      .target(8081, "localhost")
+      .timeouts(new TimeoutOptions().setResponseTimeout(200)));
+    Async async = ctx.async();
+    get("/", null).onComplete(ctx.asyncAssertSuccess(resp -> {
+      // The response timeout only bounds the headers
+      resp.body().onComplete(ctx.asyncAssertSuccess(body -> {
+        ctx.assertEquals("chunkchunkchunkchunkchunk", body.toString());
+        async.complete();
+      }));
+    }));
+  }
+}
@@ -0,0 +1,165 @@
+package io.vertx.httpproxy;
+
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.core.http.ServerWebSocket;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import org.junit.Test;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class UpgradeTest extends ProxyTestBase {
+
+  private void startWebSocketBackend(TestContext ctx, Handler<ServerWebSocket> handler) {
+    Async listen = ctx.async();
+    vertx.createHttpServer(new HttpServerOptions().setPort(8081).setHost("localhost"))
+      .webSocketHandler(handler)
+      .requestHandler(req -> req.response().setStatusCode(404).end("not found"))
+      .listen(ctx.asyncAssertSuccess(s -> listen.complete()));
+    listen.awaitSuccess();
+  }
+
+  private void startProxy(TimeoutOptions timeouts) {
+    startProxy(proxyOptions, proxy -> proxy
+      .backendPool(BackendPool.create(vertx, new BackendPoolOptions()
+        .addBackend(new BackendOptions().setHost("localhost").setPort(8081))))
+      .timeoutSelector(req -> timeouts));
+  }
+
+  @Test
+  public void testWebSocket(TestContext ctx) {
+    startWebSocketBackend(ctx, ws -> ws.textMessageHandler(ws::writeTextMessage));
+    startProxy((TimeoutOptions) null);
+    Async async = ctx.async();
+    client.webSocket(8080, "localhost", "/ws", ctx.asyncAssertSuccess(ws -> {
+      ws.textMessageHandler(msg -> {
+        ctx.assertEquals("hello", msg);
+        ws.close();
+        async.complete();
+      });
+      ws.writeTextMessage("hello");
+    }));
+  }
+
+  @Test
+  public void testLargeTransfer(TestContext ctx) {
+    int frames = 256;
+    Buffer frame = Buffer.buffer(new byte[64 * 1024]);
+    startWebSocketBackend(ctx, ws -> {
+      // The backend sends much more than the socket buffers can hold
+      ws.pause();
+      ws.frameHandler(f -> {});
+      for (int i = 0;i < frames;i++) {
+        ws.writeBinaryMessage(frame);
+      }
+    });
+    startProxy((TimeoutOptions) null);
+    Async async = ctx.async();
+    client.webSocket(8080, "localhost", "/ws", ctx.asyncAssertSuccess(ws -> {
+      long[] received = new long[1];
+      ws.pause();
+      ws.binaryMessageHandler(msg -> {
+        received[0] += msg.length();
+        if (received[0] == (long) frames * frame.length()) {
+          ws.close();
+          async.complete();
+        }
+      });
+      // The client reads after a while
+      vertx.setTimer(200, id -> ws.resume());
+    }));
+  }
+
+  @Test
+  public void testRejectedUpgrade(TestContext ctx) {
+    startHttpBackend(ctx, 8081, req -> req.response().setStatusCode(403).end("forbidden"));
+    startProxy((TimeoutOptions) null);
+    Async async = ctx.async();
+    RequestOptions options = new RequestOptions()
+      .setMethod(HttpMethod.GET)
+      .setPort(8080)
+      .setHost("localhost")
+      .setURI("/ws")
+      .putHeader(HttpHeaders.CONNECTION, "upgrade")
+      .putHeader(HttpHeaders.UPGRADE, "websocket");
+    client.request(options).compose(req -> req.send()).onComplete(ctx.asyncAssertSuccess(resp -> {
+      // The response is sent to the client and the connection is not upgraded
+      ctx.assertEquals(403, resp.statusCode());
+      resp.body().onComplete(ctx.asyncAssertSuccess(body -> {
+        ctx.assertEquals("forbidden", body.toString());
+        async.complete();
+      }));
+    }));
+  }
+
+  @Test
+  public void testIdleTimeout(TestContext ctx) {
+    startWebSocketBackend(ctx, ws -> ws.handler(ws::write));
+    startProxy(new TimeoutOptions().setIdleTimeout(300));
+    Async async = ctx.async();
+    long now = System.currentTimeMillis();
+    client.webSocket(8080, "localhost", "/ws", ctx.asyncAssertSuccess(ws -> {
+      // The tunnel is kept open while bytes are relayed
+      long timerId = vertx.setPeriodic(100, id -> ws.writeTextMessage("ping"));
+      vertx.setTimer(600, id -> vertx.cancelTimer(timerId));
+      ws.closeHandler(v -> {
+        ctx.assertTrue(System.currentTimeMillis() - now >= 800);
+        async.complete();
+      });
+    }));
+  }
+
+  @Test
+  public void testNoBackend(TestContext ctx) {
+    startProxy((TimeoutOptions) null);
+    Async async = ctx.async();
+    client.webSocket(8080, "localhost", "/ws", ctx.asyncAssertFailure(err -> async.complete()));
+  }
+
+  private void startProxy(AdmissionOptions admission) {
+    startProxy(proxyOptions, proxy -> proxy
+      .backendPool(BackendPool.create(vertx, new BackendPoolOptions()
+        .addBackend(new BackendOptions().setHost("localhost").setPort(8081))))
+      .admission(admission));
+  }
+
+  @Test
+  public void testAdmissionReleased(TestContext ctx) {
+    startWebSocketBackend(ctx, ws -> ws.textMessageHandler(ws::writeTextMessage));
+    startProxy(new AdmissionOptions().setMaxConcurrency(1).setMaxQueueSize(0));
+    Async async = ctx.async();
+    client.webSocket(8080, "localhost", "/ws", ctx.asyncAssertSuccess(ws1 -> {
+      // The first tunnel is still open, its handshake is not admitted anymore
+      client.webSocket(8080, "localhost", "/ws", ctx.asyncAssertSuccess(ws2 -> {
+        ws1.close();
+        ws2.close();
+        async.complete();
+      }));
+    }));
+  }
+
+  @Test
+  public void testAdmissionRejected(TestContext ctx) {
+    Async listen = ctx.async();
+    vertx.createHttpServer(new HttpServerOptions().setPort(8081).setHost("localhost"))
+      .webSocketHandler(ws -> ws.textMessageHandler(ws::writeTextMessage))
+      .requestHandler(req -> vertx.setTimer(500, id -> req.response().end("slow")))
+      .listen(ctx.asyncAssertSuccess(s -> listen.complete()));
+    listen.awaitSuccess();
+    startProxy(new AdmissionOptions().setMaxConcurrency(1).setMaxQueueSize(0));
+    Async async = ctx.async(2);
+    client.request(HttpMethod.GET, 8080, "localhost", "/")
+      .compose(req -> req.send().compose(resp -> resp.body()))
+      .onComplete(ctx.asyncAssertSuccess(body -> async.countDown()));
+    vertx.setTimer(100, id -> {
+      // The slow request holds the only slot
+      client.webSocket(8080, "localhost", "/ws", ctx.asyncAssertFailure(err -> async.countDown()));
+    });
+  }
+}
@@ -0,0 +1,119 @@
+package io.vertx.httpproxy;
+
+import io.vertx.core.Future;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class ZoneAwareTest extends ProxyTestBase {
+
+  private Set<Integer> unhealthy = ConcurrentHashMap.newKeySet();
+  private AtomicInteger probes = new AtomicInteger();
+
+  private void startBackends(TestContext ctx, BackendPoolOptions options) {
+    for (BackendOptions backend : options.getBackends()) {
+      int port = backend.getPort();
+      startHttpBackend(ctx, port, req -> {
+        if (req.path().equals("/health")) {
+          probes.incrementAndGet();
+          req.response().setStatusCode(unhealthy.contains(port) ? 503 : 200).end();
+        } else {
+          req.response().end("" + port);
+        }
+      });
+    }
+    options.setHealthCheck(new HealthCheckOptions().setInterval(20).setHealthyThreshold(1).setUnhealthyThreshold(1));
+    startProxy(proxyOptions, proxy -> proxy.backendPool(BackendPool.create(vertx, options)));
+  }
+
+  /**
+   * @return the number of responses of each backend
+   */
+  private Future<Map<String, Integer>> getHits(int num) {
+    return fetch(num).map(list -> {
+      Map<String, Integer> hits = new HashMap<>();
+      list.forEach(body -> hits.merge(body, 1, Integer::sum));
+      return hits;
+    });
+  }
+
+  @Test
+  public void testLocalZone(TestContext ctx) {
+    startBackends(ctx, new BackendPoolOptions()
+      .setLocalZone("a")
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8081).setZone("a"))
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8082).setZone("b")));
+    Async async = ctx.async();
+    getHits(20).onComplete(ctx.asyncAssertSuccess(hits -> {
+      ctx.assertEquals(20, hits.get("8081"));
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testSpillToOtherZones(TestContext ctx) {
+    startBackends(ctx, new BackendPoolOptions()
+      .setLocalZone("a")
+      .setLocalZoneThreshold(0.8)
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8081).setZone("a"))
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8082).setZone("a"))
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8083).setZone("b")));
+    unhealthy.add(8082);
+    Async async = ctx.async();
+    awaitProbes(probes, 6)
+      .compose(v -> getHits(200))
+      .onComplete(ctx.asyncAssertSuccess(hits -> {
+        // 62.5% of the requests stay in the local zone
+        ctx.assertNull(hits.get("8082"));
+        int remote = hits.getOrDefault("8083", 0);
+        ctx.assertTrue(remote > 40 && remote < 110, "Unexpected remote hits " + remote);
+        async.complete();
+      }));
+  }
+
+  @Test
+  public void testPriorityFailover(TestContext ctx) {
+    startBackends(ctx, new BackendPoolOptions()
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8081))
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8082).setPriority(1)));
+    Async async = ctx.async();
+    getHits(10)
+      .compose(hits -> {
+        ctx.assertEquals(10, hits.get("8081"));
+        unhealthy.add(8081);
+        return awaitProbes(probes, 4);
+      })
+      .compose(v -> getHits(10))
+      .onComplete(ctx.asyncAssertSuccess(hits -> {
+        ctx.assertEquals(10, hits.get("8082"));
+        async.complete();
+      }));
+  }
+
+  @Test
+  public void testPartialFailover(TestContext ctx) {
+    startBackends(ctx, new BackendPoolOptions()
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8081))
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8082))
+      .addBackend(new BackendOptions().setHost("localhost").setPort(8083).setPriority(1)));
+    unhealthy.add(8082);
+    Async async = ctx.async();
+    awaitProbes(probes, 6)
+      .compose(v -> getHits(200))
+      .onComplete(ctx.asyncAssertSuccess(hits -> {
+        // The first priority keeps 70% of the requests
+        int failover = hits.getOrDefault("8083", 0);
+        ctx.assertTrue(failover > 30 && failover < 90, "Unexpected failover hits " + failover);
+        async.complete();
+      }));
+  }
+}